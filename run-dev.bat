@@ -25,10 +25,10 @@ for /f "delims=. tokens=1" %%v in ("%JAVA_VERSION%") do set JAVA_MAJOR=%%v
 
 echo Detected Java version: %JAVA_VERSION%
 
-if %JAVA_MAJOR% geq 22 (
+if %JAVA_MAJOR% neq 21 (
     echo.
-    echo WARNING: Java %JAVA_MAJOR% detected. This project requires Java 17 or 21.
-    echo Please set JAVA_HOME to Java 17 or 21 installation.
+    echo WARNING: Java %JAVA_MAJOR% detected. This project requires Java 21.
+    echo Please set JAVA_HOME to a Java 21 installation.
     echo.
     echo Example:
     echo    set JAVA_HOME=C:\Program Files\Java\jdk-21
@@ -20,8 +20,8 @@ fi
 JAVA_VERSION=$(java -version 2>&1 | awk -F '"' '/version/ {print $2}' | cut -d'.' -f1)
 echo "Detected Java version: $JAVA_VERSION"
 
-if [ "$JAVA_VERSION" -ge 22 ]; then
-    echo "Java $JAVA_VERSION detected. This project requires Java 17 or 21."
+if [ "$JAVA_VERSION" -ne 21 ]; then
+    echo "Java $JAVA_VERSION detected. This project requires Java 21."
     echo "   Attempting to switch to Java 21..."
     echo ""
     
@@ -29,11 +29,8 @@ if [ "$JAVA_VERSION" -ge 22 ]; then
     if /usr/libexec/java_home -v21 &> /dev/null; then
         export JAVA_HOME=$(/usr/libexec/java_home -v21)
         echo "Switched to Java 21: $JAVA_HOME"
-    elif /usr/libexec/java_home -v17 &> /dev/null; then
-        export JAVA_HOME=$(/usr/libexec/java_home -v17)
-        echo "Switched to Java 17: $JAVA_HOME"
     else
-        echo "Java 17 or 21 not found. Please install:"
+        echo "Java 21 not found. Please install:"
         echo "   brew install openjdk@21"
         exit 1
     fi
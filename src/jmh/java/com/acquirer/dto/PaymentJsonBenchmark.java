@@ -0,0 +1,59 @@
+package com.acquirer.dto;
+
+import com.acquirer.entity.Transaction.TransactionStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson (de)serialization of the payment request and response bodies
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PaymentJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private byte[] requestJson;
+    private PaymentResponse response;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        requestJson = objectMapper.writeValueAsBytes(PaymentRequest.builder()
+                .merchantId("MERCHANT_001")
+                .amount(new BigDecimal("100.50"))
+                .currency("USD")
+                .cardToken("tok_4532015112830366")
+                .cardExpiry("12/2030")
+                .operationType("PURCHASE")
+                .build());
+        response = PaymentResponse.builder()
+                .transactionId("550e8400-e29b-41d4-a716-446655440000")
+                .status(TransactionStatus.APPROVED)
+                .responseCode("00")
+                .message("Transaction approved")
+                .timestamp(LocalDateTime.now())
+                .merchantId("MERCHANT_001")
+                .amount(new BigDecimal("100.50"))
+                .currency("USD")
+                .build();
+    }
+
+    @Benchmark
+    public PaymentRequest deserializeRequest() throws Exception {
+        return objectMapper.readValue(requestJson, PaymentRequest.class);
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
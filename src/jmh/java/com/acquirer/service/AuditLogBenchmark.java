@@ -0,0 +1,203 @@
+package com.acquirer.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.FileAppender;
+import com.acquirer.dto.IssuerResponse;
+import com.acquirer.dto.PaymentRequest;
+import com.acquirer.entity.Transaction;
+import com.acquirer.entity.Transaction.TransactionStatus;
+import com.acquirer.util.CardTokens;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of recording one payment on the calling thread
+ *
+ * {@code synchronousLog} writes the INFO lines the payment path used to log,
+ * through a logback file appender with the application's pattern and MDC
+ * fields. The audit benchmarks publish the stage events to the ring buffer
+ * (blocking when it is full, so the background writer's throughput is
+ * included) with every stage recorded and with the default sampling.
+ *
+ * Each benchmark reports the size of the file it writes, in total and per
+ * payment, as the {@code fileKB} and {@code bytesPerPayment} secondary results.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuditLogBenchmark {
+
+    private static final Map<String, String> FILES = Map.of(
+            "synchronousLog", "payment-acquirer.log",
+            "auditAllStages", "all-stages.ndjson",
+            "auditSampled", "sampled.ndjson");
+
+    private static final String PATTERN = "%d{yyyy-MM-dd HH:mm:ss.SSS} [%thread] %-5level %logger{36} - %msg"
+            + " - [TransactionId: %X{transactionId}] [MerchantId: %X{merchantId}]%n";
+
+    private Path directory;
+    private LoggerContext loggerContext;
+    private Logger logger;
+    private AuditLog allStages;
+    private AuditLog sampled;
+    private PaymentRequest request;
+    private IssuerResponse issuerResponse;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("audit-benchmark");
+
+        loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(loggerContext);
+        appender.setFile(directory.resolve(FILES.get("synchronousLog")).toString());
+        appender.setEncoder(encoder);
+        appender.start();
+        logger = loggerContext.getLogger(PaymentService.class);
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+
+        allStages = new AuditLog(new SimpleMeterRegistry(), true, 16_384, AuditLog.OverflowPolicy.BLOCK,
+                directory.resolve(FILES.get("auditAllStages")).toString(), 1.0, 1.0, 1.0, 1.0);
+        allStages.start();
+        sampled = new AuditLog(new SimpleMeterRegistry(), true, 16_384, AuditLog.OverflowPolicy.BLOCK,
+                directory.resolve(FILES.get("auditSampled")).toString(), 1.0, 0.01, 0.01, 1.0);
+        sampled.start();
+
+        request = PaymentRequest.builder()
+                .merchantId("MERCHANT_001")
+                .amount(new BigDecimal("100.00"))
+                .currency("USD")
+                .cardToken("tok_4532015112830366")
+                .cardExpiry("12/2030")
+                .operationType("PURCHASE")
+                .build();
+        issuerResponse = IssuerResponse.approved();
+        issuerResponse.setLatencyMs(150);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        allStages.stop();
+        sampled.stop();
+        loggerContext.stop();
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @State(Scope.Thread)
+    public static class Payment {
+        final long threadBits = UUID.randomUUID().getMostSignificantBits();
+        long sequence;
+        Transaction transaction;
+
+        @Setup
+        public void setUp() {
+            transaction = Transaction.builder()
+                    .merchantId("MERCHANT_001")
+                    .amount(new BigDecimal("100.00"))
+                    .currency("USD")
+                    .status(TransactionStatus.APPROVED)
+                    .responseCode("00")
+                    .build();
+        }
+
+        /**
+         * Give the transaction a new ID, as each payment has one
+         */
+        Transaction next() {
+            transaction.setTransactionId(new UUID(threadBits, ++sequence).toString());
+            return transaction;
+        }
+    }
+
+    /**
+     * Size of the file written by the running benchmark, reported as secondary results
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Output {
+
+        public long fileKB;
+        public long bytesPerPayment;
+        // Not public, so not reported: payments recorded since the trial started, as the file was
+        long payments;
+
+        @TearDown(org.openjdk.jmh.annotations.Level.Iteration)
+        public void measure(AuditLogBenchmark benchmark, BenchmarkParams params) throws IOException {
+            String method = params.getBenchmark().substring(params.getBenchmark().lastIndexOf('.') + 1);
+            long bytes = Files.size(benchmark.directory.resolve(FILES.get(method)));
+            fileKB = bytes >> 10;
+            bytesPerPayment = payments > 0 ? bytes / payments : 0;
+        }
+    }
+
+    @Benchmark
+    public void synchronousLog(Payment payment, Output output) {
+        output.payments++;
+        Transaction transaction = payment.next();
+        MDC.put("transactionId", transaction.getTransactionId());
+        MDC.put("merchantId", request.getMerchantId());
+        logger.info("=== STARTING PAYMENT PROCESSING ===");
+        logger.info("Payment request received - Merchant: {}, Amount: {} {}, Card: {}",
+                request.getMerchantId(), request.getAmount(), request.getCurrency(),
+                CardTokens.mask(request.getCardToken()));
+        logger.info("Validating merchant");
+        logger.info("Merchant validation PASSED - Merchant: {} is active", "Tech Store Inc");
+        logger.info("Validating business rules");
+        logger.info("Business rules validation PASSED");
+        logger.info("Requesting authorization from issuer");
+        logger.info("Issuer APPROVED transaction - Card: {}", CardTokens.mask(request.getCardToken()));
+        logger.info("Processing issuer response");
+        logger.info("=== PAYMENT PROCESSING COMPLETED - Status: {} ===", transaction.getStatus());
+        MDC.clear();
+    }
+
+    @Benchmark
+    public void auditAllStages(Payment payment, Output output) {
+        output.payments++;
+        publish(allStages, payment.next());
+    }
+
+    @Benchmark
+    public void auditSampled(Payment payment, Output output) {
+        output.payments++;
+        publish(sampled, payment.next());
+    }
+
+    private void publish(AuditLog auditLog, Transaction transaction) {
+        String transactionId = transaction.getTransactionId();
+        auditLog.received(transactionId, request);
+        auditLog.passed(AuditEvent.Type.MERCHANT_VALIDATED, transactionId, request.getMerchantId());
+        auditLog.passed(AuditEvent.Type.RULES_PASSED, transactionId, request.getMerchantId());
+        auditLog.issuerResponded(transaction, issuerResponse);
+        auditLog.finished(AuditEvent.Type.COMPLETED, transaction, null, null);
+    }
+}
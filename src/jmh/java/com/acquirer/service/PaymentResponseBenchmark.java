@@ -0,0 +1,62 @@
+package com.acquirer.service;
+
+import com.acquirer.dto.PaymentResponse;
+import com.acquirer.entity.Transaction;
+import com.acquirer.entity.Transaction.TransactionStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of a finalized transaction to the response returned to the merchant
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PaymentResponseBenchmark {
+
+    private PaymentService paymentService;
+    private Transaction approved;
+    private Transaction declined;
+
+    @Setup
+    public void setUp() {
+        paymentService = new PaymentService(null, null, null, null, null, null, null, null, null, null, null, null, null);
+        approved = transaction(TransactionStatus.APPROVED, "00", null);
+        declined = transaction(TransactionStatus.DECLINED, "51", "Insufficient funds");
+    }
+
+    @Benchmark
+    public PaymentResponse buildApprovedResponse() {
+        return paymentService.buildPaymentResponse(approved);
+    }
+
+    @Benchmark
+    public PaymentResponse buildDeclinedResponse() {
+        return paymentService.buildPaymentResponse(declined);
+    }
+
+    private Transaction transaction(TransactionStatus status, String responseCode, String rejectionReason) {
+        LocalDateTime now = LocalDateTime.now();
+        return Transaction.builder()
+                .transactionId("550e8400-e29b-41d4-a716-446655440000")
+                .merchantId("MERCHANT_001")
+                .amount(new BigDecimal("100.50"))
+                .currency("USD")
+                .cardToken("tok_4532015112830366")
+                .cardExpiry("12/2030")
+                .operationType("PURCHASE")
+                .status(status)
+                .responseCode(responseCode)
+                .rejectionReason(rejectionReason)
+                .createdAt(now)
+                .updatedAt(now)
+                .processedAt(now)
+                .build();
+    }
+}
@@ -0,0 +1,57 @@
+package com.acquirer.service;
+
+import com.acquirer.PaymentAcquirerApplication;
+import com.acquirer.dto.PaymentRequest;
+import com.acquirer.dto.PaymentResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full processPayment against H2 with a zero-latency issuer, so the measurement
+ * covers our own pipeline (persistence, validation, mapping) only
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProcessPaymentBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private PaymentService paymentService;
+    private PaymentRequest request;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(PaymentAcquirerApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=test",
+                        "--acquirer.rules.issuer.min-latency-ms=0",
+                        "--acquirer.rules.issuer.max-latency-ms=0");
+        paymentService = context.getBean(PaymentService.class);
+        request = PaymentRequest.builder()
+                .merchantId("MERCHANT_001")
+                .amount(new BigDecimal("100.50"))
+                .currency("USD")
+                .cardToken("tok_4532015112830366")
+                .cardExpiry("12/2030")
+                .operationType("PURCHASE")
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PaymentResponse processPayment() {
+        return paymentService.processPayment(request);
+    }
+}
@@ -0,0 +1,103 @@
+package com.acquirer.service;
+
+import com.acquirer.PaymentAcquirerApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * POST /payments over HTTP against the running server, once in the default
+ * Tomcat platform-thread mode and once with {@code spring.threads.virtual.enabled},
+ * under the same offered load: {@value #CLIENTS} clients sending payments back
+ * to back to an issuer that answers in 100-300 ms.
+ *
+ * The score is responses per second; the {@code created} and {@code failed}
+ * secondary results split them into 201s and anything else (shed with 503,
+ * timed out, ...), so a mode cannot win by failing fast.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(ServerThreadModeBenchmark.CLIENTS)
+@State(Scope.Benchmark)
+public class ServerThreadModeBenchmark {
+
+    static final int CLIENTS = 400;
+
+    private static final String BODY = "{\"merchantId\":\"MERCHANT_001\",\"amount\":100.00,\"currency\":\"USD\","
+            + "\"cardToken\":\"tok_4532015112830366\",\"cardExpiry\":\"12/2030\",\"operationType\":\"PURCHASE\"}";
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(PaymentAcquirerApplication.class)
+                .run("--spring.profiles.active=test",
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--acquirer.rules.issuer.min-latency-ms=100",
+                        "--acquirer.rules.issuer.max-latency-ms=300",
+                        "--logging.level.com.acquirer=WARN");
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/payments"))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(BODY))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int processPayment(Outcomes outcomes) throws InterruptedException {
+        try {
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (status == 201) {
+                outcomes.created++;
+            } else {
+                outcomes.failed++;
+            }
+            return status;
+        } catch (IOException e) {
+            outcomes.failed++;
+            return -1;
+        }
+    }
+
+    /**
+     * Per-client responses, reported as secondary results in responses per second
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Outcomes {
+
+        public long created;
+        public long failed;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            created = 0;
+            failed = 0;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.acquirer.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Random UUIDs versus time-ordered IDs: cost of issuing one, and insert
+ * throughput into an H2 file database keyed by the ID
+ *
+ * Each insert operation commits a batch of 1,000 rows into a table already
+ * holding 500,000, keyed by CHAR(26) as in the schema. The {@code bytesPerRow}
+ * secondary result is the table's size on disk (data and primary key index)
+ * per row at the end of each iteration.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionIdBenchmark {
+
+    private static final int PRELOADED_ROWS = 500_000;
+    private static final int BATCH_SIZE = 1_000;
+
+    private final TransactionIdGenerator randomUuid = new RandomUuidGenerator();
+    private final TransactionIdGenerator timeOrdered = new TimeOrderedIdGenerator(1);
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String randomUuid() {
+        return randomUuid.nextId();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String timeOrdered() {
+        return timeOrdered.nextId();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Table {
+
+        @Param({"uuid", "time-ordered"})
+        String generator;
+
+        TransactionIdGenerator ids;
+        Path directory;
+        Connection connection;
+        PreparedStatement insert;
+
+        @Setup
+        public void setUp() throws IOException, SQLException {
+            ids = generator.equals("uuid") ? new RandomUuidGenerator() : new TimeOrderedIdGenerator(1);
+            directory = Files.createTempDirectory("transaction-ids");
+            connection = DriverManager.getConnection("jdbc:h2:" + directory.resolve("ids") + ";CACHE_SIZE=16384", "sa", "");
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE transactions (transaction_id CHAR(26) PRIMARY KEY,"
+                        + " merchant_id VARCHAR(255) NOT NULL, amount DECIMAL(19, 2) NOT NULL, status VARCHAR(20) NOT NULL)");
+            }
+            insert = connection.prepareStatement(
+                    "INSERT INTO transactions (transaction_id, merchant_id, amount, status) VALUES (?, 'MERCHANT_001', 100.00, 'PENDING')");
+            for (int i = 0; i < PRELOADED_ROWS / BATCH_SIZE; i++) {
+                insertBatch();
+            }
+        }
+
+        void insertBatch() throws SQLException {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                insert.setString(1, ids.nextId());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+
+        long bytesPerRow() throws SQLException {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CHECKPOINT SYNC");
+                long rows;
+                long bytes;
+                try (ResultSet result = statement.executeQuery("SELECT COUNT(*) FROM transactions")) {
+                    result.next();
+                    rows = result.getLong(1);
+                }
+                try (ResultSet result = statement.executeQuery("CALL DISK_SPACE_USED('TRANSACTIONS')")) {
+                    result.next();
+                    bytes = result.getLong(1);
+                }
+                return bytes / rows;
+            }
+        }
+
+        @TearDown
+        public void tearDown() throws IOException, SQLException {
+            connection.close();
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Size on disk of the table, reported as a secondary result
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        public long bytesPerRow;
+
+        @TearDown(Level.Iteration)
+        public void measure(Table table) throws SQLException {
+            bytesPerRow = table.bytesPerRow();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insert(Table table, Footprint footprint) throws SQLException {
+        table.insertBatch();
+    }
+}
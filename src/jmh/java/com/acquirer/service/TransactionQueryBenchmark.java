@@ -0,0 +1,91 @@
+package com.acquirer.service;
+
+import com.acquirer.PaymentAcquirerApplication;
+import com.acquirer.dto.PaymentResponse;
+import com.acquirer.dto.TransactionSummary;
+import com.acquirer.entity.Transaction;
+import com.acquirer.repository.TransactionRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One keyset page of a merchant's transactions against H2, read as managed
+ * entities (the previous path) and as {@link TransactionSummary} projections,
+ * both mapped to responses. Scores are rows per second; with {@code -prof gc},
+ * gc.alloc.rate.norm is the bytes allocated per row.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionQueryBenchmark {
+
+    private static final int ROWS = 2_000;
+    private static final int PAGE_SIZE = 100;
+    private static final String MERCHANT_ID = "MERCHANT_001";
+
+    private static final String INSERT_SQL = "INSERT INTO transactions (transaction_id, merchant_id, amount, "
+            + "currency, card_token, card_expiry, operation_type, status, response_code, created_at, updated_at, "
+            + "processed_at) VALUES (?, ?, 100.50, 'USD', 'tok_4532015112830366', '12/2030', 'PURCHASE', "
+            + "'APPROVED', '00', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+
+    private ConfigurableApplicationContext context;
+    private PaymentService paymentService;
+    private TransactionRepository transactionRepository;
+    private TransactionTemplate readOnly;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(PaymentAcquirerApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=test");
+        paymentService = context.getBean(PaymentService.class);
+        transactionRepository = context.getBean(TransactionRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        List<Object[]> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Object[]{String.format("bench-%06d", i), MERCHANT_ID});
+        }
+        context.getBean(JdbcTemplate.class).batchUpdate(INSERT_SQL, rows);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public List<PaymentResponse> entityPage() {
+        return readOnly.execute(status -> transactionRepository
+                .findByMerchantIdOrderByCreatedAtDescTransactionIdDesc(
+                        MERCHANT_ID, ScrollPosition.keyset(), Limit.of(PAGE_SIZE), Transaction.class)
+                .map(paymentService::buildPaymentResponse)
+                .getContent());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public List<PaymentResponse> summaryPage() {
+        return readOnly.execute(status -> transactionRepository
+                .findByMerchantIdOrderByCreatedAtDescTransactionIdDesc(
+                        MERCHANT_ID, ScrollPosition.keyset(), Limit.of(PAGE_SIZE), TransactionSummary.class)
+                .map(paymentService::buildPaymentResponse)
+                .getContent());
+    }
+}
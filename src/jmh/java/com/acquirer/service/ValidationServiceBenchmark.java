@@ -0,0 +1,52 @@
+package com.acquirer.service;
+
+import com.acquirer.dto.MerchantSnapshot;
+import com.acquirer.service.ValidationService.ValidationResult;
+import com.acquirer.util.Money;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Business rule checks run for every payment
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationServiceBenchmark {
+
+    private ValidationService validationService;
+    private MerchantSnapshot merchant;
+    private Money amount;
+
+    @Setup
+    public void setUp() {
+        validationService = new ValidationService();
+        ReflectionTestUtils.setField(validationService, "defaultMaxAmount", new BigDecimal("10000.00"));
+        ReflectionTestUtils.setField(validationService, "blockedCardPatterns", "^4111111111111111$,^5555555555554444$");
+        ReflectionTestUtils.setField(validationService, "supportedCurrencyCodes", "USD,EUR,GBP,ARS,BRL");
+        validationService.compileRules();
+        merchant = new MerchantSnapshot("MERCHANT_001", "Test Store Alpha", new BigDecimal("5000.00"), true);
+        amount = Money.of(new BigDecimal("100.50"), "USD");
+    }
+
+    @Benchmark
+    public ValidationResult validateAmount() {
+        return validationService.validateAmount(amount, merchant);
+    }
+
+    @Benchmark
+    public ValidationResult validateCardToken() {
+        return validationService.validateCardToken("tok_4532015112830366");
+    }
+
+    @Benchmark
+    public ValidationResult validateCurrency() {
+        return validationService.validateCurrency("USD");
+    }
+}
@@ -0,0 +1,90 @@
+package com.acquirer.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Velocity check with 10M distinct card tokens already tracked
+ *
+ * The benchmarks measure one check against that table. The known-token check
+ * also reports, as secondary results, the size of the counter tables and the
+ * heap the tracker retains after loading every token (test hashes excluded).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class VelocityTrackerBenchmark {
+
+    private static final int TOKENS = 10_000_000;
+    private static final int CAPACITY = 1 << 24;
+
+    private VelocityTracker tracker;
+    private long[] tokenHashes;
+    private long now;
+    private String token = "tok_4532015112830366";
+    private long retainedBytes;
+
+    @Setup
+    public void setUp() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+
+        tracker = new VelocityTracker(CAPACITY, 10, 1_000_000);
+        tokenHashes = new long[TOKENS];
+        now = System.currentTimeMillis();
+        for (int i = 0; i < TOKENS; i++) {
+            tokenHashes[i] = VelocityTracker.hash("tok_" + (4_000_000_000_000_000L + i));
+            tracker.tryRecord(tokenHashes[i], 1_000, now);
+        }
+
+        System.gc();
+        long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+        retainedBytes = heapAfter - heapBefore - (long) TOKENS * Long.BYTES;
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    /**
+     * Memory held by the tracker, reported as secondary results
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        public long tableMB;
+        public long bytesPerSlot;
+        public long retainedMB;
+
+        @TearDown(Level.Iteration)
+        public void measure(VelocityTrackerBenchmark benchmark) {
+            tableMB = benchmark.tracker.getFootprintBytes() >> 20;
+            bytesPerSlot = benchmark.tracker.getFootprintBytes() / benchmark.tracker.getCapacity();
+            retainedMB = benchmark.retainedBytes >> 20;
+        }
+    }
+
+    @Benchmark
+    public VelocityTracker.Decision tryRecordKnownToken(Cursor cursor, Footprint footprint) {
+        int index = cursor.next;
+        cursor.next = index + 7_919 < TOKENS ? index + 7_919 : index + 7_919 - TOKENS;
+        return tracker.tryRecord(tokenHashes[index], 1_000, now);
+    }
+
+    @Benchmark
+    public VelocityTracker.Decision tryRecordNewToken(Cursor cursor) {
+        return tracker.tryRecord(++cursor.next * 0x9E3779B97F4A7C15L, 1_000, now);
+    }
+
+    @Benchmark
+    public long hashToken() {
+        return VelocityTracker.hash(token);
+    }
+}
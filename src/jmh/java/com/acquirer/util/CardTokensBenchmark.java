@@ -0,0 +1,24 @@
+package com.acquirer.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Card masking, evaluated for every log line that mentions a card
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CardTokensBenchmark {
+
+    private String cardToken = "tok_4532015112830366";
+
+    @Benchmark
+    public String mask() {
+        return CardTokens.mask(cardToken);
+    }
+}
@@ -0,0 +1,83 @@
+package com.acquirer.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Amount handling of the payment path with BigDecimal versus Money
+ *
+ * {@code *Rules} run what validation does with one amount: the limit
+ * comparison, the positive check and the conversion to the unit counted by
+ * the velocity and statistics counters (minor units via movePointRight before
+ * Money). {@code *Sum} adds up 1,024 amounts, as the statistics do.
+ * {@code moneyFromDecimal} is the one conversion done per payment at the
+ * JSON edge.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoneyBenchmark {
+
+    private static final int AMOUNTS = 1_024;
+
+    private final BigDecimal limit = new BigDecimal("5000.00");
+    private final long limitUnits = Money.toScaledUnits(limit);
+    private final BigDecimal[] decimals = new BigDecimal[AMOUNTS];
+    private final Money[] amounts = new Money[AMOUNTS];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < AMOUNTS; i++) {
+            decimals[i] = BigDecimal.valueOf(1_000 + i * 397L % 500_000, 2);
+            amounts[i] = Money.of(decimals[i], "USD");
+        }
+    }
+
+    @Benchmark
+    public long bigDecimalRules() {
+        BigDecimal amount = decimals[next++ & (AMOUNTS - 1)];
+        if (amount.compareTo(limit) > 0 || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            return -1;
+        }
+        return amount.movePointRight(2).longValue() + amount.movePointRight(2).longValue();
+    }
+
+    @Benchmark
+    public long moneyRules() {
+        Money amount = amounts[next++ & (AMOUNTS - 1)];
+        long units = amount.scaledUnits();
+        if (units > limitUnits || !amount.isPositive()) {
+            return -1;
+        }
+        return units + units;
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalSum() {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (BigDecimal amount : decimals) {
+            sum = sum.add(amount);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long moneySum() {
+        long sum = 0;
+        for (Money amount : amounts) {
+            sum += amount.scaledUnits();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public Money moneyFromDecimal() {
+        return Money.of(decimals[next++ & (AMOUNTS - 1)], "USD");
+    }
+}
@@ -0,0 +1,77 @@
+package com.acquirer.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data sources for read-replica routing
+ *
+ * The primary pool is configured as usual from {@code spring.datasource};
+ * each URL in {@code acquirer.read-replicas.urls} gets its own read-only pool.
+ * The application data source routes between them (see
+ * {@link ReplicaRoutingDataSource}).
+ */
+@Configuration
+@ConditionalOnProperty(name = "acquirer.read-replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            MeterRegistry meterRegistry,
+            @Value("${acquirer.read-replicas.urls}") List<String> urls,
+            @Value("${acquirer.read-replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${acquirer.read-replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${acquirer.read-replicas.maximum-pool-size:10}") int maximumPoolSize,
+            @Value("${acquirer.read-replicas.connection-timeout:2s}") Duration connectionTimeout,
+            @Value("${acquirer.read-replicas.max-lag:5s}") Duration maxLag,
+            @Value("${acquirer.read-replicas.lag-query:}") String lagQuery) {
+        List<HikariDataSource> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(urls.get(i).trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(maximumPoolSize);
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            replica.setReadOnly(true);
+            // An unreachable replica must not stop the service from starting
+            replica.setInitializationFailTimeout(-1);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas,
+                lagQuery.isBlank() ? ReplicaRoutingDataSource.POSTGRES_LAG_QUERY : lagQuery,
+                maxLag.toMillis(), meterRegistry);
+    }
+
+    /**
+     * Application data source: defers the routing decision to the first statement
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
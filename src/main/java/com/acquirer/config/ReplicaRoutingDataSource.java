@@ -0,0 +1,155 @@
+package com.acquirer.config;
+
+import com.acquirer.service.ReplicaReads;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes connections between the primary and the read replica pools
+ *
+ * A read-only transaction running a query allowed on replicas (see
+ * {@link ReplicaReads}) gets a connection from the next healthy replica in
+ * turn; everything else, and every read while no replica is healthy, goes to
+ * the primary. The lookup happens when the connection is first used, so this
+ * must be wrapped in a {@code LazyConnectionDataSourceProxy}: the read-only
+ * flag is only known once the transaction has begun.
+ *
+ * Each replica's lag is probed on a schedule; a replica is healthy while the
+ * probe succeeds and the lag is within the limit. Replicas start unhealthy
+ * until their first probe.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    static final String PRIMARY = "primary";
+
+    // Replay lag in milliseconds, 0 when the replica has replayed everything it received
+    static final String POSTGRES_LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() "
+            + "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE (EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000)::bigint END";
+
+    private final List<Replica> replicas;
+    private final String lagQuery;
+    private final long maxLagMs;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Counter replicaReads;
+    private final Counter primaryFallbacks;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicaPools, String lagQuery,
+                                    long maxLagMs, MeterRegistry meterRegistry) {
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        this.lagQuery = lagQuery;
+        this.maxLagMs = maxLagMs;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (Replica replica : replicas) {
+            targets.put(replica.name, replica.pool);
+            Gauge.builder("acquirer.datasource.replica.lag", replica, r -> r.lagMs)
+                    .description("Replication lag of a read replica in milliseconds, -1 if unreachable")
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+
+        this.replicaReads = Counter.builder("acquirer.datasource.reads")
+                .description("Read-only connections by the database they were routed to")
+                .tag("target", "replica")
+                .register(meterRegistry);
+        this.primaryFallbacks = Counter.builder("acquirer.datasource.reads")
+                .description("Read-only connections by the database they were routed to")
+                .tag("target", "primary")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || !ReplicaReads.isActive()) {
+            return PRIMARY;
+        }
+        int count = replicas.size();
+        int start = nextReplica.getAndIncrement() & Integer.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            Replica replica = replicas.get((start + i) % count);
+            if (replica.healthy) {
+                replicaReads.increment();
+                return replica.name;
+            }
+        }
+        primaryFallbacks.increment();
+        return PRIMARY;
+    }
+
+    /**
+     * Probe the lag of every replica and update which ones take reads
+     */
+    @Scheduled(fixedDelayString = "${acquirer.read-replicas.lag-check-interval:PT1S}")
+    public void checkLag() {
+        for (Replica replica : replicas) {
+            long lagMs = probe(replica);
+            boolean healthy = lagMs >= 0 && lagMs <= maxLagMs;
+            if (healthy != replica.healthy) {
+                if (healthy) {
+                    log.info("Read replica {} is back in rotation (lag {} ms)", replica.name, lagMs);
+                } else {
+                    log.warn("Read replica {} taken out of rotation (lag {} ms, limit {} ms)",
+                            replica.name, lagMs, maxLagMs);
+                }
+            }
+            replica.lagMs = lagMs;
+            replica.healthy = healthy;
+        }
+    }
+
+    private long probe(Replica replica) {
+        try (Connection connection = replica.pool.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(lagQuery)) {
+            return result.next() ? Math.max(0, result.getLong(1)) : -1;
+        } catch (SQLException e) {
+            log.debug("Lag probe of read replica {} failed: {}", replica.name, e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Close the replica pools (the primary is closed by its own bean)
+     */
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final HikariDataSource pool;
+        private volatile boolean healthy;
+        private volatile long lagMs = -1;
+
+        private Replica(HikariDataSource pool) {
+            this.name = pool.getPoolName();
+            this.pool = pool;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.acquirer.controller;
+
+import com.acquirer.service.BlockedCardMatcher;
+import com.acquirer.service.ValidationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint to inspect and reload the blocked card patterns at runtime
+ * (/actuator/blockedcards when exposed)
+ */
+@Component
+@Endpoint(id = "blockedcards")
+@RequiredArgsConstructor
+public class BlockedCardsEndpoint {
+
+    private final ValidationService validationService;
+
+    @ReadOperation
+    public Map<String, Object> blockedCards() {
+        return describe(validationService.getBlockedCardMatcher());
+    }
+
+    @WriteOperation
+    public Map<String, Object> reload(String patterns) {
+        return describe(validationService.reloadBlockedCardPatterns(patterns));
+    }
+
+    private Map<String, Object> describe(BlockedCardMatcher matcher) {
+        return Map.of(
+                "patterns", matcher.getPatterns(),
+                "literals", matcher.getLiteralCount(),
+                "regexes", matcher.getRegexCount());
+    }
+}
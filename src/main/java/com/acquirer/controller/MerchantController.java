@@ -0,0 +1,69 @@
+package com.acquirer.controller;
+
+import com.acquirer.dto.MerchantStatsResponse;
+import com.acquirer.exception.MerchantNotFoundException;
+import com.acquirer.exception.ValidationException;
+import com.acquirer.service.MerchantCache;
+import com.acquirer.service.MerchantStatistics;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/merchants")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Merchants", description = "Merchant monitoring endpoints")
+public class MerchantController {
+
+    private final MerchantCache merchantCache;
+    private final MerchantStatistics merchantStatistics;
+
+    @GetMapping("/{merchantId}/stats")
+    @Operation(
+        summary = "Get merchant statistics",
+        description = "Rolling counts, amounts and issuer latency of the merchant's processed transactions, " +
+                     "served from memory"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Statistics retrieved successfully",
+            content = @Content(schema = @Schema(implementation = MerchantStatsResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid number of minutes"
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Merchant not found"
+        )
+    })
+    public ResponseEntity<MerchantStatsResponse> getStats(
+            @Parameter(description = "Merchant ID", required = true)
+            @PathVariable String merchantId,
+            @Parameter(description = "Minutes to aggregate, ending now (defaults to the whole window)")
+            @RequestParam(required = false) Integer minutes) {
+
+        int window = merchantStatistics.getWindowMinutes();
+        int aggregated = minutes != null ? minutes : window;
+        if (aggregated < 1 || aggregated > window) {
+            throw new ValidationException("Minutes must be between 1 and " + window);
+        }
+        if (merchantCache.get(merchantId).isEmpty()) {
+            throw new MerchantNotFoundException("Merchant not found: " + merchantId);
+        }
+
+        log.debug("Retrieving statistics - merchantId: {}, minutes: {}", merchantId, aggregated);
+        return ResponseEntity.ok(merchantStatistics.getStats(merchantId, aggregated));
+    }
+}
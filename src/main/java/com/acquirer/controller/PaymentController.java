@@ -1,24 +1,41 @@
 package com.acquirer.controller;
 
+import com.acquirer.dto.BatchPaymentRequest;
+import com.acquirer.dto.BatchPaymentResponse;
+import com.acquirer.dto.ErrorResponse;
+import com.acquirer.dto.PaymentPageResponse;
 import com.acquirer.dto.PaymentRequest;
 import com.acquirer.dto.PaymentResponse;
 import com.acquirer.entity.Transaction.TransactionStatus;
+import com.acquirer.exception.IssuerUnavailableException;
+import com.acquirer.exception.ValidationException;
 import com.acquirer.service.PaymentService;
+import com.acquirer.service.TransactionExportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.health.HealthComponent;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/payments")
@@ -27,13 +44,20 @@ import java.util.List;
 @Tag(name = "Payments", description = "Payment processing endpoints")
 public class PaymentController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     private final PaymentService paymentService;
+    private final TransactionExportService transactionExportService;
+    private final HealthEndpoint healthEndpoint;
 
     @PostMapping
     @Operation(
         summary = "Process payment",
         description = "Submit a payment request for processing. The request will be validated, " +
-                     "sent to the issuer for authorization, and a response will be returned."
+                     "sent to the issuer for authorization, and a response will be returned. " +
+                     "The response is completed asynchronously once the issuer answers. " +
+                     "Retries carrying the same Idempotency-Key return the original response."
     )
     @ApiResponses(value = {
         @ApiResponse(
@@ -49,18 +73,86 @@ public class PaymentController {
             responseCode = "404",
             description = "Merchant not found"
         ),
+        @ApiResponse(
+            responseCode = "409",
+            description = "Idempotency key reused for a different payment or still in progress"
+        ),
         @ApiResponse(
             responseCode = "500",
             description = "Internal server error"
+        ),
+        @ApiResponse(
+            responseCode = "503",
+            description = "Issuer unavailable: it did not answer in time, too many calls are in flight " +
+                         "or its circuit breaker is open. The body carries response code " +
+                         IssuerUnavailableException.RESPONSE_CODE + "; retry with the same Idempotency-Key.",
+            headers = @Header(
+                name = HttpHeaders.RETRY_AFTER,
+                description = "Seconds to wait before retrying",
+                schema = @Schema(type = "integer")
+            ),
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
         )
     })
-    public ResponseEntity<PaymentResponse> processPayment(
+    public CompletableFuture<ResponseEntity<PaymentResponse>> processPayment(
+            @Parameter(description = "Client key that makes retries of this payment safe (scoped per merchant)")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody PaymentRequest request) {
         
-        log.info("Received payment request for merchant: {}", request.getMerchantId());
-        PaymentResponse response = paymentService.processPayment(request);
-        
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        log.debug("Received payment request for merchant: {}", request.getMerchantId());
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            throw new ValidationException(IDEMPOTENCY_KEY_HEADER + " must have between 1 and "
+                    + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        return paymentService.processPaymentAsync(request, idempotencyKey)
+                .thenApply(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
+    }
+
+    @PostMapping("/batch")
+    @Operation(
+        summary = "Process payment batch",
+        description = "Submit up to " + BatchPaymentRequest.MAX_PAYMENTS + " payment requests at once. " +
+                     "Each item is validated and authorized independently and gets its own result; " +
+                     "an invalid item does not fail the rest of the batch."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Batch processed; see the result of each item",
+            content = @Content(schema = @Schema(implementation = BatchPaymentResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Empty or oversized batch"
+        )
+    })
+    public ResponseEntity<BatchPaymentResponse> processBatch(
+            @Valid @RequestBody BatchPaymentRequest request) {
+
+        log.info("Received payment batch with {} payments", request.getPayments().size());
+        BatchPaymentResponse response = paymentService.processBatch(request.getPayments());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/health")
+    @Operation(
+        summary = "Service health",
+        description = "Aggregated Actuator health (database, disk space, ...). Used by the container healthcheck."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Service is up"
+        ),
+        @ApiResponse(
+            responseCode = "503",
+            description = "Service or one of its dependencies is down"
+        )
+    })
+    public ResponseEntity<HealthComponent> health() {
+        HealthComponent health = healthEndpoint.health();
+        HttpStatus status = Status.UP.equals(health.getStatus()) ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status).body(health);
     }
 
     @GetMapping("/{transactionId}")
@@ -91,22 +183,70 @@ public class PaymentController {
     @GetMapping
     @Operation(
         summary = "Query transactions",
-        description = "Get a list of transactions filtered by merchant ID and/or status"
+        description = "Get a page of transactions filtered by merchant ID and/or status, newest first. " +
+                     "Pass the returned nextCursor to fetch the following page."
     )
     @ApiResponses(value = {
         @ApiResponse(
             responseCode = "200",
-            description = "Transactions retrieved successfully"
+            description = "Transactions retrieved successfully",
+            content = @Content(schema = @Schema(implementation = PaymentPageResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid page size or cursor"
         )
     })
-    public ResponseEntity<List<PaymentResponse>> queryTransactions(
+    public ResponseEntity<PaymentPageResponse> queryTransactions(
             @Parameter(description = "Merchant ID to filter by")
             @RequestParam(required = false) String merchantId,
             @Parameter(description = "Transaction status to filter by")
-            @RequestParam(required = false) TransactionStatus status) {
+            @RequestParam(required = false) TransactionStatus status,
+            @Parameter(description = "Continuation token from the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-" + PaymentService.MAX_PAGE_SIZE + ")")
+            @RequestParam(defaultValue = "" + PaymentService.DEFAULT_PAGE_SIZE) int limit) {
         
-        log.debug("Querying transactions - merchantId: {}, status: {}", merchantId, status);
-        List<PaymentResponse> responses = paymentService.queryTransactions(merchantId, status);
-        return ResponseEntity.ok(responses);
+        log.debug("Querying transactions - merchantId: {}, status: {}, limit: {}", merchantId, status, limit);
+        PaymentPageResponse page = paymentService.queryTransactions(merchantId, status, cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/export")
+    @Operation(
+        summary = "Export transactions",
+        description = "Stream every transaction matching the filters, oldest first, as newline-delimited " +
+                     "JSON (default) or CSV. Intended for reconciliation; card tokens are masked."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Transactions streamed successfully",
+            content = {
+                @Content(mediaType = "application/x-ndjson"),
+                @Content(mediaType = "text/csv")
+            }
+        )
+    })
+    public void exportTransactions(
+            @Parameter(description = "Merchant ID to filter by")
+            @RequestParam(required = false) String merchantId,
+            @Parameter(description = "Transaction status to filter by")
+            @RequestParam(required = false) TransactionStatus status,
+            @Parameter(description = "Created at or after (ISO-8601 date-time)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Created before (ISO-8601 date-time)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Output format")
+            @RequestParam(defaultValue = "NDJSON") TransactionExportService.Format format,
+            HttpServletResponse response) throws IOException {
+
+        log.info("Exporting transactions - merchantId: {}, status: {}, from: {}, to: {}", merchantId, status, from, to);
+        // Written synchronously on the request thread so long exports are not cut by the async request timeout
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"transactions." + format.getExtension() + "\"");
+        transactionExportService.export(merchantId, status, from, to, format, response.getOutputStream());
     }
 }
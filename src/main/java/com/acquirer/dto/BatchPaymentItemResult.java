@@ -0,0 +1,28 @@
+package com.acquirer.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Result of one payment of a batch")
+public class BatchPaymentItemResult {
+
+    @Schema(description = "Position of the payment in the request", example = "0")
+    private int index;
+
+    @Schema(description = "Processed payment; absent when the item was rejected before processing")
+    private PaymentResponse payment;
+
+    @Schema(description = "Validation errors of a rejected item")
+    private List<String> errors;
+}
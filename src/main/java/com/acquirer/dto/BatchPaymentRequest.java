@@ -0,0 +1,27 @@
+package com.acquirer.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Batch of payment requests from merchants")
+public class BatchPaymentRequest {
+
+    public static final int MAX_PAYMENTS = 1000;
+
+    // Items are validated one by one so that an invalid item does not reject the batch
+    @NotEmpty(message = "At least one payment is required")
+    @Size(max = MAX_PAYMENTS, message = "A batch accepts at most " + MAX_PAYMENTS + " payments")
+    @Schema(description = "Payments to process")
+    private List<PaymentRequest> payments;
+}
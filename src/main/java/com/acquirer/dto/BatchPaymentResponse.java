@@ -0,0 +1,35 @@
+package com.acquirer.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Per-item results of a payment batch")
+public class BatchPaymentResponse {
+
+    @Schema(description = "Number of payments in the batch", example = "3")
+    private int total;
+
+    @Schema(description = "Payments approved by the issuer", example = "1")
+    private int approved;
+
+    @Schema(description = "Payments declined by the issuer", example = "1")
+    private int declined;
+
+    @Schema(description = "Payments that failed a business rule or could not be authorized", example = "1")
+    private int failed;
+
+    @Schema(description = "Items rejected by request validation, with no transaction created", example = "0")
+    private int rejected;
+
+    @Schema(description = "One result per payment, in request order")
+    private List<BatchPaymentItemResult> results;
+}
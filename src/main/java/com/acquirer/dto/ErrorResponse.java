@@ -1,5 +1,6 @@
 package com.acquirer.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,6 +12,7 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class ErrorResponse {
 
     private String error;
@@ -18,4 +20,7 @@ public class ErrorResponse {
     private int status;
     private LocalDateTime timestamp;
     private String path;
+
+    // Payment response code, for errors that correspond to one
+    private String responseCode;
 }
@@ -15,6 +15,9 @@ public class IssuerResponse {
     private String responseCode;
     private String message;
 
+    // Round trip to the issuer, set by IssuerService once the answer arrives
+    private long latencyMs;
+
     public static IssuerResponse approved() {
         return IssuerResponse.builder()
                 .approved(true)
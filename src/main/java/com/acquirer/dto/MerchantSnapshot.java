@@ -0,0 +1,32 @@
+package com.acquirer.dto;
+
+import com.acquirer.entity.Merchant;
+import com.acquirer.util.Money;
+
+import java.math.BigDecimal;
+
+/**
+ * Immutable view of the merchant data needed to validate a payment
+ *
+ * @param maxTransactionUnits The limit in {@link Money#scaledUnits()}, or -1 if the merchant has none
+ */
+public record MerchantSnapshot(
+        String merchantId,
+        String merchantName,
+        BigDecimal maxTransactionAmount,
+        boolean active,
+        long maxTransactionUnits) {
+
+    public MerchantSnapshot(String merchantId, String merchantName, BigDecimal maxTransactionAmount, boolean active) {
+        this(merchantId, merchantName, maxTransactionAmount, active,
+                maxTransactionAmount != null ? Money.toScaledUnits(maxTransactionAmount) : -1);
+    }
+
+    public static MerchantSnapshot from(Merchant merchant) {
+        return new MerchantSnapshot(
+                merchant.getMerchantId(),
+                merchant.getMerchantName(),
+                merchant.getMaxTransactionAmount(),
+                Boolean.TRUE.equals(merchant.getActive()));
+    }
+}
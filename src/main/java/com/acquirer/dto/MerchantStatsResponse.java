@@ -0,0 +1,54 @@
+package com.acquirer.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Rolling statistics of a merchant's processed transactions")
+public class MerchantStatsResponse {
+
+    @Schema(description = "Merchant ID", example = "MERCHANT_001")
+    private String merchantId;
+
+    @Schema(description = "Minutes covered, ending now", example = "60")
+    private int windowMinutes;
+
+    @Schema(description = "Processed transactions", example = "120")
+    private long totalCount;
+
+    @Schema(description = "Approved transactions", example = "84")
+    private long approvedCount;
+
+    @Schema(description = "Declined transactions", example = "30")
+    private long declinedCount;
+
+    @Schema(description = "Transactions ending in error", example = "6")
+    private long errorCount;
+
+    @Schema(description = "Sum of approved amounts per currency", example = "{\"EUR\": 1200.00, \"USD\": 7250.50}")
+    private Map<String, BigDecimal> approvedAmount;
+
+    @Schema(description = "Sum of declined amounts per currency", example = "{\"USD\": 3020.00}")
+    private Map<String, BigDecimal> declinedAmount;
+
+    @Schema(description = "Sum of amounts ending in error per currency", example = "{\"USD\": 600.00}")
+    private Map<String, BigDecimal> errorAmount;
+
+    @Schema(description = "Approved over processed transactions", example = "0.7")
+    private double approvalRate;
+
+    @Schema(description = "Average issuer latency in milliseconds", example = "201.4")
+    private double issuerLatencyAvgMs;
+
+    @Schema(description = "Maximum issuer latency in milliseconds", example = "299")
+    private long issuerLatencyMaxMs;
+}
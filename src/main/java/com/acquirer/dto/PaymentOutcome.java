@@ -0,0 +1,35 @@
+package com.acquirer.dto;
+
+import com.acquirer.entity.Transaction;
+import com.acquirer.entity.Transaction.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Final result of a payment, as published to downstream systems through the outbox
+ */
+public record PaymentOutcome(
+        String transactionId,
+        String merchantId,
+        TransactionStatus status,
+        String responseCode,
+        String rejectionReason,
+        BigDecimal amount,
+        String currency,
+        LocalDateTime createdAt,
+        LocalDateTime processedAt) {
+
+    public static PaymentOutcome from(Transaction transaction) {
+        return new PaymentOutcome(
+                transaction.getTransactionId(),
+                transaction.getMerchantId(),
+                transaction.getStatus(),
+                transaction.getResponseCode(),
+                transaction.getRejectionReason(),
+                transaction.getAmount(),
+                transaction.getCurrency(),
+                transaction.getCreatedAt(),
+                transaction.getProcessedAt());
+    }
+}
@@ -0,0 +1,27 @@
+package com.acquirer.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Page of transactions, newest first")
+public class PaymentPageResponse {
+
+    @Schema(description = "Transactions in this page")
+    private List<PaymentResponse> items;
+
+    @Schema(description = "Opaque token to request the next page; absent on the last page",
+            example = "MjAyNi0xMC0xN1QxMDoxNTozMC4xMjM0NTZ8NTUwZTg0MDAtZTI5Yi00MWQ0LWE3MTYtNDQ2NjU1NDQwMDAw")
+    private String nextCursor;
+
+    @Schema(description = "Whether more transactions are available after this page", example = "true")
+    private boolean hasMore;
+}
@@ -17,7 +17,7 @@ import java.time.LocalDateTime;
 @Schema(description = "Payment response to merchant")
 public class PaymentResponse {
 
-    @Schema(description = "Unique transaction identifier", example = "550e8400-e29b-41d4-a716-446655440000")
+    @Schema(description = "Unique transaction identifier: 26 characters, time-ordered", example = "01KDDDM51R001G0NMQ325DPGCY")
     private String transactionId;
 
     @Schema(description = "Transaction status", example = "APPROVED")
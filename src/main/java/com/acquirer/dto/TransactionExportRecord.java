@@ -0,0 +1,43 @@
+package com.acquirer.dto;
+
+import com.acquirer.entity.Transaction;
+import com.acquirer.entity.Transaction.TransactionStatus;
+import com.acquirer.util.CardTokens;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One exported transaction line for reconciliation; the card token is masked
+ */
+@JsonPropertyOrder({"transactionId", "merchantId", "amount", "currency", "maskedCard", "operationType",
+        "status", "responseCode", "rejectionReason", "createdAt", "processedAt"})
+public record TransactionExportRecord(
+        String transactionId,
+        String merchantId,
+        BigDecimal amount,
+        String currency,
+        String maskedCard,
+        String operationType,
+        TransactionStatus status,
+        String responseCode,
+        String rejectionReason,
+        LocalDateTime createdAt,
+        LocalDateTime processedAt) {
+
+    public static TransactionExportRecord from(Transaction transaction) {
+        return new TransactionExportRecord(
+                transaction.getTransactionId(),
+                transaction.getMerchantId(),
+                transaction.getAmount(),
+                transaction.getCurrency(),
+                CardTokens.mask(transaction.getCardToken()),
+                transaction.getOperationType(),
+                transaction.getStatus(),
+                transaction.getResponseCode(),
+                transaction.getRejectionReason(),
+                transaction.getCreatedAt(),
+                transaction.getProcessedAt());
+    }
+}
@@ -0,0 +1,23 @@
+package com.acquirer.dto;
+
+import com.acquirer.entity.Transaction.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Columns of a transaction needed to answer a payment query
+ *
+ * Read straight from the query result instead of a managed entity, so the
+ * read endpoints neither load the card data nor keep a dirty-checking snapshot.
+ */
+public record TransactionSummary(
+        String transactionId,
+        TransactionStatus status,
+        String responseCode,
+        String rejectionReason,
+        LocalDateTime createdAt,
+        String merchantId,
+        BigDecimal amount,
+        String currency) {
+}
@@ -0,0 +1,68 @@
+package com.acquirer.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Durable claim of an idempotency key by the transaction created for it
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord implements Persistable<String> {
+
+    // Merchant ID and client key, so keys of different merchants never collide
+    @Id
+    @Column(name = "idempotency_key", updatable = false, nullable = false, length = 512)
+    private String idempotencyKey;
+
+    @Column(name = "merchant_id", nullable = false)
+    private String merchantId;
+
+    // SHA-256 of the request, to detect a key reused for a different payment
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "transaction_id", nullable = false, length = 26)
+    @JdbcTypeCode(SqlTypes.CHAR)
+    private String transactionId;
+
+    // When the current claim was made: reset when an abandoned claim is reclaimed
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Records are only ever inserted by the service, so save() can persist without a SELECT first
+    @Transient
+    @Builder.Default
+    private boolean newRecord = true;
+
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newRecord;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        newRecord = false;
+    }
+}
@@ -5,26 +5,27 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "transactions", indexes = {
-    @Index(name = "idx_merchant_id", columnList = "merchant_id"),
-    @Index(name = "idx_status", columnList = "status"),
-    @Index(name = "idx_created_at", columnList = "created_at"),
-    @Index(name = "idx_merchant_status", columnList = "merchant_id, status")
-})
+// Indexes are defined by the Flyway migrations (db/migration), shaped after the repository queries
+@Table(name = "transactions")
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class Transaction {
+public class Transaction implements Persistable<String> {
 
+    // Assigned by PaymentService (see TransactionIdGenerator) so that logs and MDC carry the persisted ID
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
-    @Column(name = "transaction_id", updatable = false, nullable = false)
+    @Column(name = "transaction_id", updatable = false, nullable = false, length = 26)
+    @JdbcTypeCode(SqlTypes.CHAR)
     private String transactionId;
 
     @Column(name = "merchant_id", nullable = false)
@@ -58,6 +59,9 @@ public class Transaction {
     @Column(name = "rejection_reason", length = 255)
     private String rejectionReason;
 
+    @Column(name = "issuer_latency_ms")
+    private Integer issuerLatencyMs;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -67,10 +71,41 @@ public class Transaction {
     @Column(name = "processed_at")
     private LocalDateTime processedAt;
 
+    // The ID is assigned, so save() cannot tell a new transaction by a null ID
+    @Transient
+    private transient boolean persisted;
+
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        createdAt = now();
+        updatedAt = createdAt;
+    }
+
+    /**
+     * Current time at the database's microsecond precision, so that the
+     * created_at kept in memory matches the stored one in later updates
+     */
+    public static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    @PostPersist
+    @PostLoad
+    protected void onPersisted() {
+        persisted = true;
+    }
+
+    @Override
+    public String getId() {
+        return transactionId;
+    }
+
+    /**
+     * New until persisted or loaded, so the first save() inserts without selecting the row first
+     */
+    @Override
+    public boolean isNew() {
+        return !persisted;
     }
 
     @PreUpdate
@@ -0,0 +1,12 @@
+package com.acquirer.exception;
+
+/**
+ * Exception thrown when an idempotency key is reused for a different payment request
+ * or is still being processed by another instance
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,20 @@
+package com.acquirer.exception;
+
+/**
+ * Exception thrown when a payment cannot be sent to the issuer: the issuer did
+ * not answer in time, too many calls are already in flight, or the circuit
+ * breaker is open after repeated failures
+ */
+public class IssuerUnavailableException extends RuntimeException {
+
+    /** ISO 8583 "issuer or switch inoperative" */
+    public static final String RESPONSE_CODE = "91";
+
+    public IssuerUnavailableException(String message) {
+        super(message);
+    }
+
+    public String getResponseCode() {
+        return RESPONSE_CODE;
+    }
+}
@@ -0,0 +1,41 @@
+package com.acquirer.repository;
+
+import com.acquirer.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository interface for IdempotencyRecord entity
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Delete records whose expiry has passed
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    /**
+     * Move a claim to a new transaction ID, only if it still names the expected one
+     *
+     * @return 1 if the claim was moved, 0 if another request moved it first
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.transactionId = :transactionId, r.createdAt = :now, "
+            + "r.expiresAt = :expiresAt WHERE r.idempotencyKey = :idempotencyKey "
+            + "AND r.transactionId = :previousTransactionId")
+    int reclaim(@Param("idempotencyKey") String idempotencyKey,
+                @Param("previousTransactionId") String previousTransactionId,
+                @Param("transactionId") String transactionId,
+                @Param("now") LocalDateTime now,
+                @Param("expiresAt") LocalDateTime expiresAt);
+}
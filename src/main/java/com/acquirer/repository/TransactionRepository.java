@@ -1,13 +1,24 @@
 package com.acquirer.repository;
 
+import com.acquirer.dto.TransactionSummary;
 import com.acquirer.entity.Transaction;
 import com.acquirer.entity.Transaction.TransactionStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Transaction entity
@@ -16,34 +27,86 @@ import java.util.List;
 public interface TransactionRepository extends JpaRepository<Transaction, String> {
 
     /**
-     * Find transactions by merchant ID
+     * Find the summary of a transaction by ID
      */
-    List<Transaction> findByMerchantId(String merchantId);
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.acquirer.dto.TransactionSummary(t.transactionId, t.status, t.responseCode, "
+            + "t.rejectionReason, t.createdAt, t.merchantId, t.amount, t.currency) "
+            + "FROM Transaction t WHERE t.transactionId = :transactionId")
+    Optional<TransactionSummary> findSummaryById(@Param("transactionId") String transactionId);
 
     /**
-     * Find transactions by status
+     * Find the summary of a transaction by ID within a creation time range, so
+     * that a partitioned table only searches the partitions of that range
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.acquirer.dto.TransactionSummary(t.transactionId, t.status, t.responseCode, "
+            + "t.rejectionReason, t.createdAt, t.merchantId, t.amount, t.currency) "
+            + "FROM Transaction t WHERE t.transactionId = :transactionId "
+            + "AND t.createdAt >= :from AND t.createdAt < :to")
+    Optional<TransactionSummary> findSummaryByIdCreatedBetween(@Param("transactionId") String transactionId,
+                                                               @Param("from") LocalDateTime from,
+                                                               @Param("to") LocalDateTime to);
+
+    /*
+     * Keyset-paginated queries, newest first. Each page continues from the
+     * (createdAt, transactionId) of the previous page's last row, so the cost
+     * of a page does not grow with how deep the client has scrolled. The type
+     * is the projection to read rows into, e.g. TransactionSummary, which
+     * skips entity hydration; it must include both keyset properties.
      */
-    List<Transaction> findByStatus(TransactionStatus status);
 
     /**
-     * Find transactions by merchant ID and status
+     * Scroll all transactions
      */
-    List<Transaction> findByMerchantIdAndStatus(String merchantId, TransactionStatus status);
+    <T> Window<T> findByOrderByCreatedAtDescTransactionIdDesc(ScrollPosition position, Limit limit, Class<T> type);
 
     /**
-     * Find transactions by merchant ID ordered by creation date (newest first)
+     * Scroll transactions by merchant ID
      */
-    List<Transaction> findByMerchantIdOrderByCreatedAtDesc(String merchantId);
+    <T> Window<T> findByMerchantIdOrderByCreatedAtDescTransactionIdDesc(
+            String merchantId, ScrollPosition position, Limit limit, Class<T> type);
 
     /**
-     * Count transactions by merchant ID and status
+     * Scroll transactions by status
      */
-    long countByMerchantIdAndStatus(String merchantId, TransactionStatus status);
+    <T> Window<T> findByStatusOrderByCreatedAtDescTransactionIdDesc(
+            TransactionStatus status, ScrollPosition position, Limit limit, Class<T> type);
 
     /**
-     * Find recent transactions for fraud detection
+     * Scroll transactions by merchant ID and status
      */
-    @Query("SELECT t FROM Transaction t WHERE t.merchantId = :merchantId " +
-           "AND t.createdAt >= CURRENT_TIMESTAMP - 1 HOUR ORDER BY t.createdAt DESC")
-    List<Transaction> findRecentTransactionsByMerchant(@Param("merchantId") String merchantId);
+    <T> Window<T> findByMerchantIdAndStatusOrderByCreatedAtDescTransactionIdDesc(
+            String merchantId, TransactionStatus status, ScrollPosition position, Limit limit, Class<T> type);
+
+    /**
+     * Stream the transactions processed since the given time, with only the
+     * columns needed to rebuild the per-merchant statistics
+     *
+     * @param createdSince Lower bound of the creation time (at most {@code since}),
+     *                     which lets a partitioned table skip older partitions
+     */
+    @Query("SELECT t.merchantId AS merchantId, t.status AS status, t.amount AS amount, "
+            + "t.currency AS currency, t.issuerLatencyMs AS issuerLatencyMs, t.processedAt AS processedAt "
+            + "FROM Transaction t WHERE t.processedAt >= :since AND t.createdAt >= :createdSince")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<ProcessedTransaction> streamProcessedSince(@Param("since") LocalDateTime since,
+                                                      @Param("createdSince") LocalDateTime createdSince);
+
+    /**
+     * Projection of a processed transaction for statistics
+     */
+    interface ProcessedTransaction {
+        String getMerchantId();
+
+        TransactionStatus getStatus();
+
+        BigDecimal getAmount();
+
+        String getCurrency();
+
+        Integer getIssuerLatencyMs();
+
+        LocalDateTime getProcessedAt();
+    }
 }
@@ -0,0 +1,113 @@
+package com.acquirer.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that adapts to the observed round trip time (gradient algorithm)
+ *
+ * A long-term average of the RTT is compared with each new sample. While
+ * samples stay within {@code tolerance} times the average, the limit grows by
+ * about the square root of itself; once latency rises above it, the limit
+ * shrinks by the ratio of the two (at most by half per sample, smoothed). A
+ * call that times out shrinks the limit by 10%. Calls above the limit are
+ * rejected instead of queued.
+ */
+public final class AdaptiveConcurrencyLimit {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final int LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // Not synchronized, which would pin the virtual threads calling the issuer
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile double limit;
+    // Guarded by lock
+    private double longRttNanos;
+    private long samples;
+
+    /**
+     * @param initialLimit Limit before any RTT has been observed
+     * @param minLimit Lowest the limit can go
+     * @param maxLimit Highest the limit can go
+     */
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Expected 1 <= min <= initial <= max limit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * @return true if the call may proceed; it must then be ended with {@link #release}
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * End a call and update the limit from its round trip time
+     *
+     * @param rttNanos Time from acquire to answer
+     * @param dropped true if the call timed out, so its RTT is not a real sample
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int inFlightAtEnd = inFlight.getAndDecrement();
+        lock.lock();
+        try {
+            update(rttNanos, inFlightAtEnd, dropped);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void update(long rttNanos, int inFlightAtEnd, boolean dropped) {
+        double current = limit;
+        if (dropped) {
+            limit = Math.max(minLimit, current * 0.9);
+            return;
+        }
+
+        samples++;
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+        } else {
+            longRttNanos += (rttNanos - longRttNanos) / Math.min(samples, LONG_WINDOW);
+        }
+        // Let the average catch up quickly when latency has dropped for good
+        if (longRttNanos > 2.0 * rttNanos) {
+            longRttNanos *= 0.95;
+        }
+
+        // Under light load the RTT says nothing about the limit
+        if (inFlightAtEnd < current / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / rttNanos));
+        double target = current * gradient + Math.sqrt(current);
+        limit = Math.max(minLimit, Math.min(maxLimit, current * (1 - SMOOTHING) + target * SMOOTHING));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,118 @@
+package com.acquirer.service;
+
+import com.acquirer.entity.Transaction.TransactionStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * One audit record of a payment stage
+ *
+ * Instances are preallocated in {@link AuditRingBuffer} slots and reused, so
+ * every field is reset when a slot is claimed again. Card tokens are stored
+ * as received and only masked by the consumer, off the payment path.
+ */
+public final class AuditEvent {
+
+    /** Payment stages that emit an audit event */
+    public enum Type {
+        RECEIVED,
+        MERCHANT_VALIDATED,
+        RULES_PASSED,
+        ISSUER_RESPONDED,
+        COMPLETED,
+        REJECTED,
+        FAILED
+    }
+
+    private Type type;
+    private long timestampMillis;
+    private String transactionId;
+    private String merchantId;
+    private BigDecimal amount;
+    private String currency;
+    private String cardToken;
+    private TransactionStatus status;
+    private String responseCode;
+    private long latencyMs;
+    private String detail;
+
+    void reset(Type type, String transactionId, String merchantId) {
+        this.type = type;
+        this.timestampMillis = System.currentTimeMillis();
+        this.transactionId = transactionId;
+        this.merchantId = merchantId;
+        this.amount = null;
+        this.currency = null;
+        this.cardToken = null;
+        this.status = null;
+        this.responseCode = null;
+        this.latencyMs = -1;
+        this.detail = null;
+    }
+
+    void setPayment(BigDecimal amount, String currency, String cardToken) {
+        this.amount = amount;
+        this.currency = currency;
+        this.cardToken = cardToken;
+    }
+
+    void setResult(TransactionStatus status, String responseCode) {
+        this.status = status;
+        this.responseCode = responseCode;
+    }
+
+    void setLatencyMs(long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    void setDetail(String detail) {
+        this.detail = detail;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public String getMerchantId() {
+        return merchantId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public String getCardToken() {
+        return cardToken;
+    }
+
+    public TransactionStatus getStatus() {
+        return status;
+    }
+
+    public String getResponseCode() {
+        return responseCode;
+    }
+
+    /**
+     * @return Time in milliseconds the stage took, or -1 if not measured
+     */
+    public long getLatencyMs() {
+        return latencyMs;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+}
@@ -0,0 +1,341 @@
+package com.acquirer.service;
+
+import com.acquirer.dto.IssuerResponse;
+import com.acquirer.dto.PaymentRequest;
+import com.acquirer.entity.Transaction;
+import com.acquirer.util.CardTokens;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Structured audit trail of the payment path, one event per stage
+ *
+ * Events are published to a preallocated {@link AuditRingBuffer} and written
+ * as JSON lines by a background thread, so the payment threads never format
+ * or perform I/O for them. The file sink is buffered and flushed whenever the
+ * ring has been drained; without a file the lines go to the
+ * {@code com.acquirer.audit} logger.
+ *
+ * When the ring is full, the {@code drop} policy discards the event (counted
+ * in {@code acquirer.audit.dropped}) and {@code block} makes the payment
+ * thread wait for a free slot. Non-terminal stages can be sampled; a payment
+ * is either sampled for every stage with the same rate or for none, and
+ * terminal events (completed, rejected, failed) are always written.
+ */
+@Component
+@Slf4j
+public class AuditLog implements SmartLifecycle {
+
+    /** What to do with an event when the ring is full */
+    public enum OverflowPolicy {
+        DROP,
+        BLOCK
+    }
+
+    private static final Logger AUDIT = LoggerFactory.getLogger("com.acquirer.audit");
+    private static final int DRAIN_BATCH = 256;
+    private static final long MAX_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final boolean enabled;
+    private final AuditRingBuffer ring;
+    private final OverflowPolicy overflowPolicy;
+    private final String file;
+    private final int[] sampleThresholds = new int[AuditEvent.Type.values().length];
+    private final Counter published;
+    private final Counter dropped;
+    private final StringWriter line = new StringWriter(256);
+    private final JsonGenerator generator;
+
+    private volatile boolean running;
+    private Thread writerThread;
+    private Writer fileWriter;
+
+    public AuditLog(MeterRegistry meterRegistry,
+                    @Value("${acquirer.audit.enabled:true}") boolean enabled,
+                    @Value("${acquirer.audit.buffer-size:16384}") int bufferSize,
+                    @Value("${acquirer.audit.overflow-policy:DROP}") OverflowPolicy overflowPolicy,
+                    @Value("${acquirer.audit.file:}") String file,
+                    @Value("${acquirer.audit.sampling.received:1.0}") double receivedRate,
+                    @Value("${acquirer.audit.sampling.merchant-validated:1.0}") double merchantValidatedRate,
+                    @Value("${acquirer.audit.sampling.rules-passed:1.0}") double rulesPassedRate,
+                    @Value("${acquirer.audit.sampling.issuer-responded:1.0}") double issuerRespondedRate) {
+        this.enabled = enabled;
+        this.ring = new AuditRingBuffer(bufferSize);
+        this.overflowPolicy = overflowPolicy;
+        this.file = file;
+        for (AuditEvent.Type type : AuditEvent.Type.values()) {
+            double rate = switch (type) {
+                case RECEIVED -> receivedRate;
+                case MERCHANT_VALIDATED -> merchantValidatedRate;
+                case RULES_PASSED -> rulesPassedRate;
+                case ISSUER_RESPONDED -> issuerRespondedRate;
+                default -> 1.0;
+            };
+            sampleThresholds[type.ordinal()] = (int) Math.round(Math.max(0, Math.min(1, rate)) * 0x10000);
+        }
+        try {
+            this.generator = new JsonFactory().createGenerator(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        this.published = Counter.builder("acquirer.audit.events")
+                .description("Audit events published to the ring buffer")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("acquirer.audit.dropped")
+                .description("Audit events discarded because the ring buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("acquirer.audit.backlog", ring, AuditRingBuffer::getBacklog)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A payment request was accepted for processing
+     */
+    public void received(String transactionId, PaymentRequest request) {
+        long sequence = claim(AuditEvent.Type.RECEIVED, transactionId);
+        if (sequence < 0) {
+            return;
+        }
+        AuditEvent event = ring.get(sequence);
+        event.reset(AuditEvent.Type.RECEIVED, transactionId, request.getMerchantId());
+        event.setPayment(request.getAmount(), request.getCurrency(), request.getCardToken());
+        ring.publish(sequence);
+    }
+
+    /**
+     * A payment passed a validation stage
+     *
+     * @param type {@link AuditEvent.Type#MERCHANT_VALIDATED} or {@link AuditEvent.Type#RULES_PASSED}
+     */
+    public void passed(AuditEvent.Type type, String transactionId, String merchantId) {
+        long sequence = claim(type, transactionId);
+        if (sequence < 0) {
+            return;
+        }
+        ring.get(sequence).reset(type, transactionId, merchantId);
+        ring.publish(sequence);
+    }
+
+    /**
+     * The issuer answered an authorization request
+     */
+    public void issuerResponded(Transaction transaction, IssuerResponse issuerResponse) {
+        long sequence = claim(AuditEvent.Type.ISSUER_RESPONDED, transaction.getTransactionId());
+        if (sequence < 0) {
+            return;
+        }
+        AuditEvent event = ring.get(sequence);
+        event.reset(AuditEvent.Type.ISSUER_RESPONDED, transaction.getTransactionId(), transaction.getMerchantId());
+        event.setResult(transaction.getStatus(), issuerResponse.getResponseCode());
+        event.setLatencyMs(issuerResponse.getLatencyMs());
+        event.setDetail(issuerResponse.isApproved() ? null : issuerResponse.getMessage());
+        ring.publish(sequence);
+    }
+
+    /**
+     * A payment reached its final status
+     *
+     * @param type {@link AuditEvent.Type#COMPLETED}, {@link AuditEvent.Type#REJECTED} or {@link AuditEvent.Type#FAILED}
+     * @param transaction Transaction with its final status, or null if it was never created
+     * @param transactionId Transaction ID, used when there is no transaction
+     * @param detail Rejection or failure reason, if any
+     */
+    public void finished(AuditEvent.Type type, Transaction transaction, String transactionId, String detail) {
+        String id = transaction != null ? transaction.getTransactionId() : transactionId;
+        long sequence = claim(type, id);
+        if (sequence < 0) {
+            return;
+        }
+        AuditEvent event = ring.get(sequence);
+        if (transaction != null) {
+            event.reset(type, id, transaction.getMerchantId());
+            event.setPayment(transaction.getAmount(), transaction.getCurrency(), null);
+            event.setResult(transaction.getStatus(), transaction.getResponseCode());
+        } else {
+            event.reset(type, id, null);
+        }
+        event.setDetail(detail);
+        ring.publish(sequence);
+    }
+
+    public AuditRingBuffer getRing() {
+        return ring;
+    }
+
+    private long claim(AuditEvent.Type type, String transactionId) {
+        if (!running || !isSampled(type, transactionId)) {
+            return -1;
+        }
+        long sequence = overflowPolicy == OverflowPolicy.BLOCK ? ring.claim() : ring.tryClaim();
+        if (sequence < 0) {
+            dropped.increment();
+        } else {
+            published.increment();
+        }
+        return sequence;
+    }
+
+    private boolean isSampled(AuditEvent.Type type, String transactionId) {
+        int threshold = sampleThresholds[type.ordinal()];
+        if (threshold >= 0x10000) {
+            return true;
+        }
+        // Fibonacci hashing spreads the top 16 bits even for near-identical IDs
+        int hash = (transactionId != null ? transactionId.hashCode() : 0) * 0x9E3779B9;
+        return (hash >>> 16) < threshold;
+    }
+
+    private void runWriter() {
+        long parkNanos = 1_000;
+        while (running || ring.getBacklog() > 0) {
+            int written = ring.drain(this::write, DRAIN_BATCH);
+            if (written > 0) {
+                parkNanos = 1_000;
+                continue;
+            }
+            flush();
+            LockSupport.parkNanos(parkNanos);
+            parkNanos = Math.min(parkNanos * 2, MAX_IDLE_PARK_NANOS);
+        }
+        flush();
+    }
+
+    private void write(AuditEvent event) {
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("ts", Instant.ofEpochMilli(event.getTimestampMillis()).toString());
+            generator.writeStringField("event", event.getType().name());
+            writeOptional("transactionId", event.getTransactionId());
+            writeOptional("merchantId", event.getMerchantId());
+            if (event.getAmount() != null) {
+                generator.writeNumberField("amount", event.getAmount());
+            }
+            writeOptional("currency", event.getCurrency());
+            if (event.getCardToken() != null) {
+                generator.writeStringField("card", CardTokens.mask(event.getCardToken()));
+            }
+            if (event.getStatus() != null) {
+                generator.writeStringField("status", event.getStatus().name());
+            }
+            writeOptional("responseCode", event.getResponseCode());
+            if (event.getLatencyMs() >= 0) {
+                generator.writeNumberField("latencyMs", event.getLatencyMs());
+            }
+            writeOptional("detail", event.getDetail());
+            generator.writeEndObject();
+            generator.flush();
+
+            StringBuffer buffer = line.getBuffer();
+            if (fileWriter != null) {
+                fileWriter.append(buffer).append('\n');
+            } else {
+                AUDIT.info(buffer.toString());
+            }
+            buffer.setLength(0);
+        } catch (IOException | RuntimeException e) {
+            line.getBuffer().setLength(0);
+            log.warn("Could not write audit event {}: {}", event.getType(), e.getMessage());
+        }
+    }
+
+    private void writeOptional(String field, String value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(field, value);
+        }
+    }
+
+    private void flush() {
+        if (fileWriter == null) {
+            return;
+        }
+        try {
+            fileWriter.flush();
+        } catch (IOException e) {
+            log.warn("Could not flush audit file: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (!file.isBlank()) {
+            try {
+                Path path = Path.of(file);
+                if (path.getParent() != null) {
+                    Files.createDirectories(path.getParent());
+                }
+                fileWriter = new BufferedWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open audit file " + file, e);
+            }
+        }
+        running = true;
+        writerThread = new Thread(this::runWriter, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Audit log started - buffer: {} events, overflow: {}, sink: {}",
+                ring.getCapacity(), overflowPolicy, file.isBlank() ? AUDIT.getName() : file);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+            if (fileWriter != null) {
+                fileWriter.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.warn("Could not close audit file: {}", e.getMessage());
+        }
+        log.info("Audit log stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Start before and stop after the web server, so in-flight payments are still
+     * audited. The web server starts and stops one step (1024) below its graceful
+     * shutdown phase, so this runs one step lower still.
+     */
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+    }
+}
@@ -0,0 +1,110 @@
+package com.acquirer.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Preallocated multi-producer, single-consumer ring of audit events
+ *
+ * Producers claim a sequence number with a CAS, fill the event already in the
+ * slot and publish it; the consumer handles events strictly in sequence order
+ * and frees their slots. No locks are taken and no events are allocated after
+ * construction.
+ */
+public final class AuditRingBuffer {
+
+    private final AuditEvent[] slots;
+    private final int mask;
+    // Sequence published in each slot, -1 while empty
+    private final AtomicLongArray published;
+    private final AtomicLong nextClaim = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong(-1);
+
+    /**
+     * @param capacity Number of slots, rounded up to a power of two
+     */
+    public AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.slots = new AuditEvent[size];
+        this.mask = size - 1;
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = new AuditEvent();
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * @return Sequence of the claimed slot, or -1 if the ring is full
+     */
+    public long tryClaim() {
+        while (true) {
+            long sequence = nextClaim.get();
+            if (sequence - consumed.get() > mask + 1) {
+                return -1;
+            }
+            if (nextClaim.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    /**
+     * Claim a slot, waiting for the consumer to free one if the ring is full
+     *
+     * @return Sequence of the claimed slot
+     */
+    public long claim() {
+        long sequence;
+        while ((sequence = tryClaim()) < 0) {
+            LockSupport.parkNanos(1_000);
+        }
+        return sequence;
+    }
+
+    /**
+     * @return Event in the slot of a claimed sequence, to be filled before {@link #publish}
+     */
+    public AuditEvent get(long sequence) {
+        return slots[(int) sequence & mask];
+    }
+
+    /**
+     * Make a claimed and filled slot visible to the consumer
+     */
+    public void publish(long sequence) {
+        published.set((int) sequence & mask, sequence);
+    }
+
+    /**
+     * Hand the next published events, in order, to the handler (consumer thread only)
+     *
+     * @param handler Called for each event; the event must not be kept after it returns
+     * @param max Maximum number of events to handle
+     * @return Number of events handled
+     */
+    public int drain(Consumer<AuditEvent> handler, int max) {
+        long sequence = consumed.get() + 1;
+        int handled = 0;
+        while (handled < max && published.get((int) sequence & mask) == sequence) {
+            handler.accept(slots[(int) sequence & mask]);
+            consumed.lazySet(sequence);
+            sequence++;
+            handled++;
+        }
+        return handled;
+    }
+
+    /**
+     * @return Events claimed but not consumed yet
+     */
+    public long getBacklog() {
+        return nextClaim.get() - consumed.get() - 1;
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+}
@@ -0,0 +1,139 @@
+package com.acquirer.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Precompiled matcher for the blocked card patterns
+ *
+ * Patterns that only match one literal token (for example {@code ^4111111111111111$})
+ * are kept in a hash set; the remaining regular expressions are combined into a
+ * single alternation compiled once, each in a non-capturing group. Regexes with
+ * backreferences or named groups are compiled on their own instead: in the
+ * alternation a {@code \1} would point at another pattern's group and a name
+ * could be defined twice. A token is blocked when it fully matches any pattern,
+ * the same semantics as {@link String#matches(String)}.
+ */
+public final class BlockedCardMatcher {
+
+    private static final String REGEX_METACHARACTERS = "\\.[]{}()<>*+-=!?^$|";
+    // Backreference or named group; an escaped backslash before a digit also matches, which only costs speed
+    private static final Pattern GROUP_REFERENCES = Pattern.compile("\\\\[1-9]|\\\\k<|\\(\\?<[a-zA-Z]");
+
+    private final List<String> patterns;
+    private final Set<String> literals;
+    private final Pattern combinedRegex;
+    private final List<Pattern> separateRegexes;
+
+    private BlockedCardMatcher(List<String> patterns, Set<String> literals, Pattern combinedRegex,
+                               List<Pattern> separateRegexes) {
+        this.patterns = patterns;
+        this.literals = literals;
+        this.combinedRegex = combinedRegex;
+        this.separateRegexes = separateRegexes;
+    }
+
+    /**
+     * Compile a comma-separated list of patterns
+     *
+     * @param blockedCardPatterns Comma-separated regular expressions
+     * @return Matcher for the given patterns
+     * @throws IllegalArgumentException if any pattern is not a valid regular expression
+     */
+    public static BlockedCardMatcher compile(String blockedCardPatterns) {
+        List<String> patterns = new ArrayList<>();
+        Set<String> literals = new HashSet<>();
+        List<String> regexes = new ArrayList<>();
+        List<Pattern> separateRegexes = new ArrayList<>();
+
+        if (blockedCardPatterns != null) {
+            for (String raw : blockedCardPatterns.split(",")) {
+                String pattern = raw.trim();
+                if (pattern.isEmpty()) {
+                    continue;
+                }
+                patterns.add(pattern);
+
+                String literal = toLiteral(pattern);
+                if (literal != null) {
+                    literals.add(literal);
+                } else if (GROUP_REFERENCES.matcher(pattern).find()) {
+                    separateRegexes.add(Pattern.compile(pattern));
+                } else {
+                    regexes.add(pattern);
+                }
+            }
+        }
+
+        return new BlockedCardMatcher(List.copyOf(patterns), Set.copyOf(literals), combine(regexes),
+                List.copyOf(separateRegexes));
+    }
+
+    /**
+     * @param cardToken Card token or hash
+     * @return true if the token fully matches any blocked pattern
+     */
+    public boolean isBlocked(String cardToken) {
+        if (literals.contains(cardToken)) {
+            return true;
+        }
+        if (combinedRegex != null && combinedRegex.matcher(cardToken).matches()) {
+            return true;
+        }
+        for (Pattern regex : separateRegexes) {
+            if (regex.matcher(cardToken).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<String> getPatterns() {
+        return patterns;
+    }
+
+    public int getLiteralCount() {
+        return literals.size();
+    }
+
+    public int getRegexCount() {
+        return patterns.size() - literals.size();
+    }
+
+    private static Pattern combine(List<String> regexes) {
+        if (regexes.isEmpty()) {
+            return null;
+        }
+        StringBuilder alternation = new StringBuilder();
+        for (String regex : regexes) {
+            // Validate each pattern on its own so errors name the offending entry
+            Pattern.compile(regex);
+            if (!alternation.isEmpty()) {
+                alternation.append('|');
+            }
+            alternation.append("(?:").append(regex).append(')');
+        }
+        return Pattern.compile(alternation.toString());
+    }
+
+    /**
+     * @return the only string the pattern can fully match, or null if it is a real regex
+     */
+    private static String toLiteral(String pattern) {
+        int start = pattern.startsWith("^") ? 1 : 0;
+        int end = pattern.endsWith("$") && !pattern.endsWith("\\$") ? pattern.length() - 1 : pattern.length();
+        if (start >= end) {
+            return null;
+        }
+        String body = pattern.substring(start, end);
+        for (int i = 0; i < body.length(); i++) {
+            if (REGEX_METACHARACTERS.indexOf(body.charAt(i)) >= 0) {
+                return null;
+            }
+        }
+        return body;
+    }
+}
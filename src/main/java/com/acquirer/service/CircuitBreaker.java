@@ -0,0 +1,149 @@
+package com.acquirer.service;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Count-based circuit breaker
+ *
+ * Opens when at least {@code failureRateThreshold} of the last {@code windowSize}
+ * calls failed (once {@code minimumCalls} have been seen). After {@code openDuration}
+ * it lets {@code halfOpenCalls} trial calls through: if all succeed it closes,
+ * otherwise it opens again.
+ *
+ * State is guarded by a {@link ReentrantLock} rather than {@code synchronized},
+ * which would pin the virtual threads calling the issuer.
+ */
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openDurationNanos;
+    private final int halfOpenCalls;
+    private final boolean[] outcomes;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Guarded by lock
+    private State state = State.CLOSED;
+    private int calls;
+    private int failures;
+    private int next;
+    private long openUntilNanos;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(double failureRateThreshold, int minimumCalls, int windowSize,
+                          Duration openDuration, int halfOpenCalls) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.outcomes = new boolean[windowSize];
+    }
+
+    /**
+     * @return true if a call may be made; its result must then be reported
+     */
+    public boolean tryAcquirePermission() {
+        lock.lock();
+        try {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openUntilNanos < 0) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                halfOpenPermits = halfOpenCalls;
+                halfOpenSuccesses = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (halfOpenPermits == 0) {
+                    return false;
+                }
+                halfOpenPermits--;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Report the result of a permitted call
+     */
+    public void onResult(boolean success) {
+        lock.lock();
+        try {
+            switch (state) {
+                case CLOSED -> {
+                    if (calls == outcomes.length) {
+                        failures -= outcomes[next] ? 0 : 1;
+                    } else {
+                        calls++;
+                    }
+                    outcomes[next] = success;
+                    failures += success ? 0 : 1;
+                    next = (next + 1) % outcomes.length;
+                    if (calls >= minimumCalls && failures >= failureRateThreshold * calls) {
+                        open();
+                    }
+                }
+                case HALF_OPEN -> {
+                    if (!success) {
+                        open();
+                    } else if (++halfOpenSuccesses == halfOpenCalls) {
+                        reset(State.CLOSED);
+                    }
+                }
+                case OPEN -> {
+                    // Result of a call started before the circuit opened
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Give back a permission that was acquired but not used
+     */
+    public void releasePermission() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN && halfOpenPermits < halfOpenCalls) {
+                halfOpenPermits++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public State getState() {
+        lock.lock();
+        try {
+            if (state == State.OPEN && System.nanoTime() - openUntilNanos >= 0) {
+                return State.HALF_OPEN;
+            }
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void open() {
+        reset(State.OPEN);
+        openUntilNanos = System.nanoTime() + openDurationNanos;
+    }
+
+    private void reset(State newState) {
+        state = newState;
+        calls = 0;
+        failures = 0;
+        next = 0;
+    }
+}
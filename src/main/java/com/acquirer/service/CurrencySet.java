@@ -0,0 +1,54 @@
+package com.acquirer.service;
+
+import com.acquirer.util.Money;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Set of ISO 4217 currency codes backed by a bitmap over all 26^3 three-letter codes
+ *
+ * Lookups are case-insensitive and do not allocate.
+ */
+public final class CurrencySet {
+
+    private final long[] bitmap = new long[(Money.CURRENCY_CODE_SPACE + 63) / 64];
+    private final List<String> codes;
+
+    private CurrencySet(List<String> codes) {
+        this.codes = List.copyOf(codes);
+        for (String code : codes) {
+            int index = Money.currencyIndex(code);
+            bitmap[index >>> 6] |= 1L << index;
+        }
+    }
+
+    /**
+     * @param currencyCodes Comma-separated ISO 4217 codes
+     * @return Set containing the given codes
+     * @throws IllegalArgumentException if a code is not three letters
+     */
+    public static CurrencySet of(String currencyCodes) {
+        List<String> codes = new ArrayList<>();
+        for (String raw : currencyCodes.split(",")) {
+            String code = raw.trim();
+            if (code.isEmpty()) {
+                continue;
+            }
+            if (Money.currencyIndex(code) < 0) {
+                throw new IllegalArgumentException("Invalid ISO 4217 currency code: " + code);
+            }
+            codes.add(code.toUpperCase());
+        }
+        return new CurrencySet(codes);
+    }
+
+    public boolean contains(String currency) {
+        int index = Money.currencyIndex(currency);
+        return index >= 0 && (bitmap[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public List<String> getCodes() {
+        return codes;
+    }
+}
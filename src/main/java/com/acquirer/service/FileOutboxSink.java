@@ -0,0 +1,59 @@
+package com.acquirer.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends the payload of each outbox event to a file, one JSON line per
+ * payment outcome; each batch is flushed before the relay removes it
+ */
+@Component
+@ConditionalOnProperty(name = "acquirer.outbox.sink", havingValue = "file")
+public class FileOutboxSink implements OutboxSink, Closeable {
+
+    private final Path path;
+    private Writer writer;
+
+    public FileOutboxSink(@Value("${acquirer.outbox.file:logs/payment-outbox.ndjson}") String file) {
+        this.path = Path.of(file);
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) {
+        try {
+            if (writer == null) {
+                Path parent = path.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            for (OutboxEvent event : events) {
+                writer.write(event.payload());
+                writer.write('\n');
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write outbox events to " + path, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+}
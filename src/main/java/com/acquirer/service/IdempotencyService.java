@@ -0,0 +1,264 @@
+package com.acquirer.service;
+
+import com.acquirer.dto.PaymentRequest;
+import com.acquirer.dto.PaymentResponse;
+import com.acquirer.entity.IdempotencyRecord;
+import com.acquirer.entity.Transaction.TransactionStatus;
+import com.acquirer.exception.IdempotencyConflictException;
+import com.acquirer.exception.MerchantNotFoundException;
+import com.acquirer.exception.ValidationException;
+import com.acquirer.repository.IdempotencyRecordRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Idempotency-Key handling for payment requests
+ *
+ * Keys are scoped per merchant. The first request with a key claims it durably
+ * with the ID of the transaction it creates; repeats within the expiry return
+ * the original response without reaching the issuer. An in-memory cache keeps
+ * the result future of recent keys, so concurrent repeats are coalesced onto
+ * the in-flight payment and later repeats skip the database lookup.
+ *
+ * A repeat is answered only with a final outcome: while the original payment
+ * is still PENDING (in flight on another instance) it gets a 409 to retry later.
+ *
+ * A payment rejected by validation never reached the issuer, so its key is
+ * released and a retry runs it again. Any other failure may come after the
+ * issuer authorized, so the key stays claimed and a retry replays the ERROR
+ * outcome recorded on the transaction.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    // A claim without its transaction this recent may still be in flight on another instance
+    private static final Duration CLAIM_IN_FLIGHT = Duration.ofMinutes(1);
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final Duration expiry;
+    private final Cache<String, Entry> entries;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              TransactionIdGenerator transactionIdGenerator,
+                              MeterRegistry meterRegistry,
+                              @Value("${acquirer.idempotency.expiry:24h}") Duration expiry,
+                              @Value("${acquirer.idempotency.maximum-size:100000}") long maximumSize) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.transactionIdGenerator = transactionIdGenerator;
+        this.expiry = expiry;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expiry)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "idempotency");
+    }
+
+    /**
+     * Run a payment at most once per merchant and idempotency key
+     *
+     * @param request Payment request
+     * @param idempotencyKey Client-supplied key
+     * @param process Processes the payment under the given transaction ID
+     * @param replay Loads the response of an already created transaction, if it exists
+     * @return Future completed with the original or the new payment response
+     * @throws IdempotencyConflictException (through the future) if the key was used for another request
+     */
+    public CompletableFuture<PaymentResponse> execute(PaymentRequest request, String idempotencyKey,
+                                                      Function<String, CompletableFuture<PaymentResponse>> process,
+                                                      Function<String, Optional<PaymentResponse>> replay) {
+        String scopedKey = request.getMerchantId() + ':' + idempotencyKey;
+        String requestHash = hash(request);
+
+        Entry entry = new Entry(requestHash, new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(scopedKey, entry);
+        if (existing != null) {
+            if (!existing.requestHash().equals(requestHash)) {
+                return CompletableFuture.failedFuture(reusedKey(idempotencyKey));
+            }
+            log.info("Idempotency key {} seen before, returning the original result", idempotencyKey);
+            return existing.result().copy();
+        }
+
+        boolean[] claimed = {false};
+        CompletableFuture<PaymentResponse> result;
+        try {
+            result = claimOrReplay(request, scopedKey, requestHash, idempotencyKey, process, replay, claimed);
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+
+        result.whenComplete((response, e) -> {
+            if (e == null) {
+                entry.result().complete(response);
+                return;
+            }
+            // A retry reads the claim again: it replays the recorded outcome, or runs the
+            // payment again if the claim was released
+            entries.asMap().remove(scopedKey, entry);
+            if (claimed[0] && isRejectedBeforeIssuer(e)) {
+                release(scopedKey);
+            }
+            entry.result().completeExceptionally(e);
+        });
+        return entry.result().copy();
+    }
+
+    private CompletableFuture<PaymentResponse> claimOrReplay(PaymentRequest request, String scopedKey,
+                                                             String requestHash, String idempotencyKey,
+                                                             Function<String, CompletableFuture<PaymentResponse>> process,
+                                                             Function<String, Optional<PaymentResponse>> replay,
+                                                             boolean[] claimed) {
+        LocalDateTime now = LocalDateTime.now();
+        Optional<IdempotencyRecord> stored = idempotencyRecordRepository.findById(scopedKey);
+        if (stored.isPresent()) {
+            IdempotencyRecord record = stored.get();
+            if (record.getExpiresAt().isAfter(now)) {
+                return replayStored(record, requestHash, idempotencyKey, process, replay, claimed);
+            }
+            idempotencyRecordRepository.delete(record);
+        }
+
+        String transactionId = transactionIdGenerator.nextId();
+        try {
+            idempotencyRecordRepository.save(IdempotencyRecord.builder()
+                    .idempotencyKey(scopedKey)
+                    .merchantId(request.getMerchantId())
+                    .requestHash(requestHash)
+                    .transactionId(transactionId)
+                    .createdAt(now)
+                    .expiresAt(now.plus(expiry))
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // Claimed at the same time by another instance
+            IdempotencyRecord winner = idempotencyRecordRepository.findById(scopedKey).orElseThrow(() -> e);
+            if (!winner.getRequestHash().equals(requestHash)) {
+                throw reusedKey(idempotencyKey);
+            }
+            return replayFinal(winner.getTransactionId(), idempotencyKey, replay)
+                    .map(CompletableFuture::completedFuture)
+                    .orElseThrow(() -> stillProcessing(idempotencyKey));
+        }
+
+        claimed[0] = true;
+        return process.apply(transactionId);
+    }
+
+    private CompletableFuture<PaymentResponse> replayStored(IdempotencyRecord record, String requestHash,
+                                                            String idempotencyKey,
+                                                            Function<String, CompletableFuture<PaymentResponse>> process,
+                                                            Function<String, Optional<PaymentResponse>> replay,
+                                                            boolean[] claimed) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw reusedKey(idempotencyKey);
+        }
+        Optional<PaymentResponse> original = replayFinal(record.getTransactionId(), idempotencyKey, replay);
+        if (original.isPresent()) {
+            log.info("Idempotency key {} seen before, returning transaction {}",
+                    idempotencyKey, record.getTransactionId());
+            return CompletableFuture.completedFuture(original.get());
+        }
+
+        // Claimed but its transaction was never created, so nothing reached the issuer
+        LocalDateTime now = LocalDateTime.now();
+        if (record.getCreatedAt().isAfter(now.minus(CLAIM_IN_FLIGHT))) {
+            throw stillProcessing(idempotencyKey);
+        }
+        // Under a new ID, since lookups by ID expect the row to be created close to the time the ID encodes
+        String transactionId = transactionIdGenerator.nextId();
+        if (idempotencyRecordRepository.reclaim(record.getIdempotencyKey(), record.getTransactionId(),
+                transactionId, now, now.plus(expiry)) == 0) {
+            throw stillProcessing(idempotencyKey);
+        }
+        claimed[0] = true;
+        return process.apply(transactionId);
+    }
+
+    /**
+     * @return Response of the transaction, empty if it does not exist
+     * @throws IdempotencyConflictException if the transaction has no final outcome yet
+     */
+    private static Optional<PaymentResponse> replayFinal(String transactionId, String idempotencyKey,
+                                                         Function<String, Optional<PaymentResponse>> replay) {
+        Optional<PaymentResponse> response = replay.apply(transactionId);
+        if (response.isPresent() && response.get().getStatus() == TransactionStatus.PENDING) {
+            throw stillProcessing(idempotencyKey);
+        }
+        return response;
+    }
+
+    private static boolean isRejectedBeforeIssuer(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause instanceof ValidationException || cause instanceof MerchantNotFoundException;
+    }
+
+    private void release(String scopedKey) {
+        try {
+            idempotencyRecordRepository.deleteById(scopedKey);
+        } catch (RuntimeException e) {
+            log.warn("Could not release idempotency key {}: {}", scopedKey, e.getMessage());
+        }
+    }
+
+    /**
+     * Delete expired durable records
+     */
+    @Scheduled(fixedDelayString = "${acquirer.idempotency.cleanup-interval:PT10M}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Purged {} expired idempotency keys", deleted);
+        }
+    }
+
+    private static IdempotencyConflictException reusedKey(String idempotencyKey) {
+        return new IdempotencyConflictException(
+                "Idempotency-Key " + idempotencyKey + " was already used for a different payment request");
+    }
+
+    private static IdempotencyConflictException stillProcessing(String idempotencyKey) {
+        return new IdempotencyConflictException(
+                "A request with Idempotency-Key " + idempotencyKey + " is still being processed");
+    }
+
+    private static String hash(PaymentRequest request) {
+        String canonical = String.join("\n",
+                request.getMerchantId(),
+                request.getAmount() != null ? request.getAmount().stripTrailingZeros().toPlainString() : "",
+                String.valueOf(request.getCurrency()),
+                String.valueOf(request.getCardToken()),
+                String.valueOf(request.getCardExpiry()),
+                String.valueOf(request.getOperationType()));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Entry(String requestHash, CompletableFuture<PaymentResponse> result) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.acquirer.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publishes each outbox event as a Spring application event, for listeners in
+ * this service and for local testing
+ *
+ * Listeners run on the relay thread; one that throws fails the batch, which is
+ * then published again.
+ */
+@Component
+@ConditionalOnProperty(name = "acquirer.outbox.sink", havingValue = "in-process", matchIfMissing = true)
+@RequiredArgsConstructor
+public class InProcessOutboxSink implements OutboxSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        events.forEach(eventPublisher::publishEvent);
+    }
+}
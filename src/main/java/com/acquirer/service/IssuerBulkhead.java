@@ -0,0 +1,176 @@
+package com.acquirer.service;
+
+import com.acquirer.exception.IssuerUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead around the issuer calls
+ *
+ * Every call needs a permit from the circuit breaker and from the adaptive
+ * concurrency limit; without one it fails at once with
+ * {@link IssuerUnavailableException} instead of waiting, so a slow issuer cannot
+ * tie up the threads serving the rest of the API. Calls that take longer than
+ * the timeout fail the same way. Timeouts and errors count as failures for the
+ * circuit breaker.
+ */
+@Component
+@Slf4j
+public class IssuerBulkhead {
+
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final CircuitBreaker circuitBreaker;
+    private final Duration timeout;
+    private final Counter overloadRejections;
+    private final Counter circuitOpenRejections;
+    private final Counter timeouts;
+
+    public IssuerBulkhead(MeterRegistry meterRegistry,
+                          @Value("${acquirer.issuer.timeout:2s}") Duration timeout,
+                          @Value("${acquirer.issuer.concurrency.initial-limit:50}") int initialLimit,
+                          @Value("${acquirer.issuer.concurrency.min-limit:8}") int minLimit,
+                          @Value("${acquirer.issuer.concurrency.max-limit:500}") int maxLimit,
+                          @Value("${acquirer.issuer.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+                          @Value("${acquirer.issuer.circuit-breaker.minimum-calls:20}") int minimumCalls,
+                          @Value("${acquirer.issuer.circuit-breaker.window-size:100}") int windowSize,
+                          @Value("${acquirer.issuer.circuit-breaker.open-duration:10s}") Duration openDuration,
+                          @Value("${acquirer.issuer.circuit-breaker.half-open-calls:5}") int halfOpenCalls) {
+        this.timeout = timeout;
+        this.concurrencyLimit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit);
+        this.circuitBreaker = new CircuitBreaker(failureRateThreshold, minimumCalls, windowSize,
+                openDuration, halfOpenCalls);
+
+        Gauge.builder("acquirer.issuer.concurrency.limit", concurrencyLimit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current adaptive limit of concurrent issuer calls")
+                .register(meterRegistry);
+        Gauge.builder("acquirer.issuer.concurrency.inflight", concurrencyLimit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Issuer calls in flight")
+                .register(meterRegistry);
+        Gauge.builder("acquirer.issuer.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("Issuer circuit breaker state (0 closed, 1 open, 2 half-open)")
+                .register(meterRegistry);
+        this.overloadRejections = rejections(meterRegistry, "overload");
+        this.circuitOpenRejections = rejections(meterRegistry, "circuit_open");
+        this.timeouts = rejections(meterRegistry, "timeout");
+    }
+
+    /**
+     * Run a blocking issuer call
+     *
+     * @param call Issuer call; it must give up by itself after {@link #getTimeout()}
+     *             by throwing {@link IssuerUnavailableException}
+     * @return The call's result
+     * @throws IssuerUnavailableException if no permit is available or the call timed out
+     */
+    public <T> T call(Supplier<T> call) {
+        acquire();
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            release(start, null);
+            return result;
+        } catch (RuntimeException e) {
+            release(start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Run a non-blocking issuer call, failing it after the timeout
+     *
+     * @param call Issuer call
+     * @return Future completed with the call's result, or failed with {@link IssuerUnavailableException}
+     */
+    public <T> CompletableFuture<T> callAsync(Supplier<CompletableFuture<T>> call) {
+        try {
+            acquire();
+        } catch (IssuerUnavailableException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        long start = System.nanoTime();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        CompletableFuture<T> started;
+        try {
+            started = call.get();
+        } catch (RuntimeException e) {
+            release(start, e);
+            return CompletableFuture.failedFuture(e);
+        }
+        started.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS).whenComplete((value, e) -> {
+            Throwable failure = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (failure instanceof TimeoutException) {
+                failure = timedOut();
+            }
+            release(start, failure);
+            if (failure != null) {
+                result.completeExceptionally(failure);
+            } else {
+                result.complete(value);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * @return How long a call may take before it is failed
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * @return Exception for a call that exceeded the timeout
+     */
+    public IssuerUnavailableException timedOut() {
+        return new IssuerUnavailableException("Issuer did not answer within " + timeout.toMillis() + " ms");
+    }
+
+    public AdaptiveConcurrencyLimit getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    private void acquire() {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            circuitOpenRejections.increment();
+            throw new IssuerUnavailableException("Issuer circuit breaker is open");
+        }
+        if (!concurrencyLimit.tryAcquire()) {
+            circuitBreaker.releasePermission();
+            overloadRejections.increment();
+            log.debug("Issuer concurrency limit reached ({} in flight)", concurrencyLimit.getLimit());
+            throw new IssuerUnavailableException("Too many issuer calls in flight");
+        }
+    }
+
+    private void release(long startNanos, Throwable failure) {
+        // Permits are checked before the call, so here it can only be a timeout
+        boolean timedOut = failure instanceof IssuerUnavailableException;
+        if (timedOut) {
+            timeouts.increment();
+        }
+        concurrencyLimit.release(System.nanoTime() - startNanos, timedOut);
+        circuitBreaker.onResult(failure == null);
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("acquirer.issuer.rejections")
+                .description("Issuer calls failed fast or timed out")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
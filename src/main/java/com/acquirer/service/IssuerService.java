@@ -1,22 +1,41 @@
 package com.acquirer.service;
 
 import com.acquirer.dto.IssuerResponse;
+import com.acquirer.exception.IssuerUnavailableException;
+import com.acquirer.util.CardTokens;
+import com.acquirer.util.MdcContext;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class IssuerService {
 
-    private final Random random = new Random();
+    @Qualifier("applicationTaskExecutor")
+    private final AsyncTaskExecutor taskExecutor;
+
+    private final IssuerBulkhead issuerBulkhead;
 
     @Value("${acquirer.rules.issuer.approval-rate:0.7}")
     private double approvalRate;
 
+    @Value("${acquirer.rules.issuer.min-latency-ms:100}")
+    private int minLatencyMs;
+
+    @Value("${acquirer.rules.issuer.max-latency-ms:300}")
+    private int maxLatencyMs;
+
     /**
      * Process authorization request with the issuer (mocked)
      * 
@@ -24,39 +43,85 @@ public class IssuerService {
      * @param amount Transaction amount
      * @param currency Currency code
      * @return IssuerResponse with approval/decline decision
+     * @throws IssuerUnavailableException if the issuer is overloaded, failing or too slow
      */
     public IssuerResponse authorizeTransaction(String cardToken, BigDecimal amount, String currency) {
         log.debug("Calling issuer for authorization - Card: {}, Amount: {} {}", 
-                  maskCardToken(cardToken), amount, currency);
+                  CardTokens.mask(cardToken), amount, currency);
 
-        try {
-            Thread.sleep(100 + random.nextInt(200)); // 100-300ms delay (simulated)
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("Issuer call interrupted", e);
-        }
+        return issuerBulkhead.call(() -> {
+            long start = System.nanoTime();
+            long latencyMs = nextLatencyMs();
+            long timeoutMs = issuerBulkhead.getTimeout().toMillis();
+            try {
+                // Simulated network latency, cut short by the read timeout
+                Thread.sleep(Math.min(latencyMs, timeoutMs));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.error("Issuer call interrupted", e);
+            }
+            if (latencyMs > timeoutMs) {
+                throw issuerBulkhead.timedOut();
+            }
+            return decide(cardToken, start);
+        });
+    }
 
+    /**
+     * Process authorization request with the issuer (mocked) without blocking the caller
+     * 
+     * The simulated network latency is a scheduled delay, so no thread waits on it.
+     * The MDC context of the caller is carried over to the thread completing the future.
+     * 
+     * @param cardToken Card token/hash
+     * @param amount Transaction amount
+     * @param currency Currency code
+     * @return Future completed with the approval/decline decision, or failed with
+     *         {@link IssuerUnavailableException} if the issuer is overloaded, failing or too slow
+     */
+    public CompletableFuture<IssuerResponse> authorizeTransactionAsync(String cardToken, BigDecimal amount,
+                                                                      String currency) {
+        log.debug("Calling issuer for authorization - Card: {}, Amount: {} {}", 
+                  CardTokens.mask(cardToken), amount, currency);
+
+        return issuerBulkhead.callAsync(() -> {
+            long start = System.nanoTime();
+            Executor delayed = CompletableFuture.delayedExecutor(
+                    nextLatencyMs(), TimeUnit.MILLISECONDS, MdcContext.withCurrentContext(taskExecutor));
+            return CompletableFuture.supplyAsync(() -> decide(cardToken, start), delayed);
+        });
+    }
+
+    private IssuerResponse decide(String cardToken, long startNanos) {
         // Random approval/decline based on configured rate
-        boolean approved = random.nextDouble() < approvalRate;
+        boolean approved = ThreadLocalRandom.current().nextDouble() < approvalRate;
 
         IssuerResponse response;
         if (approved) {
             response = IssuerResponse.approved();
-            log.info("Issuer APPROVED transaction - Card: {}", maskCardToken(cardToken));
+            log.debug("Issuer APPROVED transaction - Card: {}", CardTokens.mask(cardToken));
         } else {
             String declineCode = getRandomDeclineCode();
             String declineMessage = getDeclineMessage(declineCode);
             response = IssuerResponse.declined(declineCode, declineMessage);
-            log.info("Issuer DECLINED transaction - Card: {}, Code: {}, Reason: {}", 
-                     maskCardToken(cardToken), declineCode, declineMessage);
+            log.debug("Issuer DECLINED transaction - Card: {}, Code: {}, Reason: {}", 
+                     CardTokens.mask(cardToken), declineCode, declineMessage);
         }
 
+        response.setLatencyMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
         return response;
     }
 
+    private long nextLatencyMs() {
+        if (maxLatencyMs <= minLatencyMs) {
+            return minLatencyMs;
+        }
+        return minLatencyMs + ThreadLocalRandom.current().nextInt(maxLatencyMs - minLatencyMs);
+    }
+
     private String getRandomDeclineCode() {
         String[] declineCodes = {"05", "51", "54", "61", "65"};
-        return declineCodes[random.nextInt(declineCodes.length)];
+        return declineCodes[ThreadLocalRandom.current().nextInt(declineCodes.length)];
     }
 
     private String getDeclineMessage(String code) {
@@ -69,11 +134,4 @@ public class IssuerService {
             default -> "Transaction declined";
         };
     }
-    
-    private String maskCardToken(String cardToken) {
-        if (cardToken == null || cardToken.length() < 4) {
-            return "****";
-        }
-        return "**** " + cardToken.substring(cardToken.length() - 4);
-    }
 }
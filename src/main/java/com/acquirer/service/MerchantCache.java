@@ -0,0 +1,71 @@
+package com.acquirer.service;
+
+import com.acquirer.dto.MerchantSnapshot;
+import com.acquirer.repository.MerchantRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Read-through cache of merchant snapshots
+ *
+ * Unknown merchants are not cached, so a merchant created after a failed lookup
+ * (on this or another instance) is found on the next one. Entries are refreshed
+ * in the background ahead of expiry, and concurrent misses for the same
+ * merchant share a single load.
+ */
+@Component
+@Slf4j
+public class MerchantCache {
+
+    private final MerchantRepository merchantRepository;
+    private final LoadingCache<String, MerchantSnapshot> cache;
+
+    public MerchantCache(MerchantRepository merchantRepository,
+                         MeterRegistry meterRegistry,
+                         @Value("${acquirer.merchant-cache.maximum-size:10000}") long maximumSize,
+                         @Value("${acquirer.merchant-cache.expire-after-write:10m}") Duration expireAfterWrite,
+                         @Value("${acquirer.merchant-cache.refresh-after-write:5m}") Duration refreshAfterWrite) {
+        this.merchantRepository = merchantRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .refreshAfterWrite(refreshAfterWrite)
+                .recordStats()
+                .build(this::load);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "merchants");
+    }
+
+    /**
+     * Get a merchant snapshot, loading it from the database on a miss
+     *
+     * @param merchantId Merchant ID
+     * @return Snapshot, or empty if the merchant does not exist
+     */
+    public Optional<MerchantSnapshot> get(String merchantId) {
+        return Optional.ofNullable(cache.get(merchantId));
+    }
+
+    /**
+     * Drop a merchant so the next lookup reloads it
+     *
+     * @param merchantId Merchant ID
+     */
+    public void invalidate(String merchantId) {
+        log.debug("Invalidating cached merchant: {}", merchantId);
+        cache.invalidate(merchantId);
+    }
+
+    // Null for an unknown merchant, which Caffeine does not store
+    private MerchantSnapshot load(String merchantId) {
+        log.debug("Loading merchant into cache: {}", merchantId);
+        return merchantRepository.findById(merchantId).map(MerchantSnapshot::from).orElse(null);
+    }
+}
@@ -1,5 +1,6 @@
 package com.acquirer.service;
 
+import com.acquirer.dto.MerchantSnapshot;
 import com.acquirer.entity.Merchant;
 import com.acquirer.exception.MerchantNotFoundException;
 import com.acquirer.repository.MerchantRepository;
@@ -7,6 +8,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -16,6 +19,7 @@ import java.util.List;
 @Slf4j
 public class MerchantService {
     private final MerchantRepository merchantRepository;
+    private final MerchantCache merchantCache;
 
     @Transactional(readOnly = true)
     public Merchant getMerchantById(String merchantId) {
@@ -23,9 +27,23 @@ public class MerchantService {
                 .orElseThrow(() -> new MerchantNotFoundException("Merchant not found: " + merchantId));
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Get an active merchant from the merchant cache
+     * 
+     * @param merchantId Merchant ID
+     * @return Cached merchant snapshot
+     * @throws MerchantNotFoundException if the merchant does not exist or is inactive
+     */
+    public MerchantSnapshot getActiveMerchant(String merchantId) {
+        return merchantCache.get(merchantId)
+                .filter(MerchantSnapshot::active)
+                .orElseThrow(() -> new MerchantNotFoundException("Merchant not found or inactive: " + merchantId));
+    }
+
     public boolean isMerchantActive(String merchantId) {
-        return merchantRepository.findByMerchantIdAndActiveTrue(merchantId).isPresent();
+        return merchantCache.get(merchantId)
+                .map(MerchantSnapshot::active)
+                .orElse(false);
     }
 
     @Transactional(readOnly = true)
@@ -36,7 +54,29 @@ public class MerchantService {
     @Transactional
     public Merchant saveMerchant(Merchant merchant) {
         log.info("Saving merchant: {}", merchant.getMerchantId());
-        return merchantRepository.save(merchant);
+        return save(merchant);
+    }
+
+    /**
+     * Every merchant write goes through here, so the cache never keeps the snapshot it replaced
+     */
+    private Merchant save(Merchant merchant) {
+        Merchant saved = merchantRepository.save(merchant);
+        invalidateAfterCommit(saved.getMerchantId());
+        return saved;
+    }
+
+    private void invalidateAfterCommit(String merchantId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            merchantCache.invalidate(merchantId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                merchantCache.invalidate(merchantId);
+            }
+        });
     }
 
     @Transactional
@@ -44,21 +84,21 @@ public class MerchantService {
         if (merchantRepository.count() == 0) {
             log.info("Initializing default merchants...");
             
-            merchantRepository.save(Merchant.builder()
+            save(Merchant.builder()
                     .merchantId("MERCHANT_001")
                     .merchantName("Test Store Alpha")
                     .maxTransactionAmount(new BigDecimal("5000.00"))
                     .active(true)
                     .build());
 
-            merchantRepository.save(Merchant.builder()
+            save(Merchant.builder()
                     .merchantId("MERCHANT_002")
                     .merchantName("Test Store Beta")
                     .maxTransactionAmount(new BigDecimal("10000.00"))
                     .active(true)
                     .build());
 
-            merchantRepository.save(Merchant.builder()
+            save(Merchant.builder()
                     .merchantId("MERCHANT_003")
                     .merchantName("Test Store Gamma")
                     .maxTransactionAmount(new BigDecimal("1000.00"))
@@ -0,0 +1,262 @@
+package com.acquirer.service;
+
+import com.acquirer.dto.MerchantStatsResponse;
+import com.acquirer.entity.Transaction;
+import com.acquirer.entity.Transaction.TransactionStatus;
+import com.acquirer.repository.TransactionRepository;
+import com.acquirer.repository.TransactionRepository.ProcessedTransaction;
+import com.acquirer.util.Money;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Rolling per-merchant statistics kept in memory
+ *
+ * Each merchant has a ring of one-minute buckets covering the configured window.
+ * A bucket holds striped counters ({@link LongAdder}) per status for the number
+ * of transactions and, per currency, their amount in minor units, plus the
+ * issuer latency. Recording never
+ * takes a lock: a bucket left over from an earlier lap of the ring is replaced
+ * with a compare-and-set. The counters are rebuilt from the database at startup.
+ */
+@Component
+@Slf4j
+public class MerchantStatistics implements SmartInitializingSingleton {
+
+    private static final long MILLIS_PER_MINUTE = 60_000;
+    private static final int STATUSES = TransactionStatus.values().length;
+    // Payments finish within seconds; bounding created_at as well prunes older partitions
+    private static final Duration MAX_PROCESSING_TIME = Duration.ofHours(1);
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int windowMinutes;
+    private final ConcurrentMap<String, MerchantCounters> merchants = new ConcurrentHashMap<>();
+
+    public MerchantStatistics(TransactionRepository transactionRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${acquirer.merchant-stats.window:60m}") Duration window) {
+        this.transactionRepository = transactionRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.windowMinutes = (int) Math.max(1, window.toMinutes());
+    }
+
+    /**
+     * Count a transaction that reached its final status
+     *
+     * @param transaction Finalized transaction; PENDING ones are ignored
+     */
+    public void record(Transaction transaction) {
+        if (transaction.getStatus() == TransactionStatus.PENDING) {
+            return;
+        }
+        record(transaction.getMerchantId(), transaction.getStatus(), transaction.getAmount(),
+                transaction.getCurrency(), transaction.getIssuerLatencyMs(), currentMinute());
+    }
+
+    /**
+     * Aggregate the statistics of a merchant over the most recent minutes
+     *
+     * @param merchantId Merchant ID
+     * @param minutes Number of minutes to aggregate, up to the configured window
+     * @return Aggregated statistics; all zero for a merchant without traffic
+     */
+    public MerchantStatsResponse getStats(String merchantId, int minutes) {
+        long[] counts = new long[STATUSES];
+        List<Map<String, Money>> amounts = new ArrayList<>(STATUSES);
+        for (int s = 0; s < STATUSES; s++) {
+            amounts.add(new TreeMap<>());
+        }
+        long latencySum = 0;
+        long latencyCount = 0;
+        long latencyMax = 0;
+
+        MerchantCounters counters = merchants.get(merchantId);
+        if (counters != null) {
+            long now = currentMinute();
+            for (int i = 0; i < windowMinutes; i++) {
+                Bucket bucket = counters.buckets.get(i);
+                if (bucket == null || bucket.minute <= now - minutes || bucket.minute > now) {
+                    continue;
+                }
+                for (int s = 0; s < STATUSES; s++) {
+                    counts[s] += bucket.counts[s].sum();
+                }
+                bucket.amountMinorUnits.forEach((currency, adders) -> {
+                    for (int s = 0; s < STATUSES; s++) {
+                        amounts.get(s).merge(currency, Money.ofMinor(adders[s].sum(), currency), Money::plus);
+                    }
+                });
+                latencySum += bucket.latencySumMs.sum();
+                latencyCount += bucket.latencyCount.sum();
+                latencyMax = Math.max(latencyMax, bucket.latencyMaxMs.get());
+            }
+        }
+
+        long approved = counts[TransactionStatus.APPROVED.ordinal()];
+        long declined = counts[TransactionStatus.DECLINED.ordinal()];
+        long error = counts[TransactionStatus.ERROR.ordinal()];
+        long total = approved + declined + error;
+
+        return MerchantStatsResponse.builder()
+                .merchantId(merchantId)
+                .windowMinutes(minutes)
+                .totalCount(total)
+                .approvedCount(approved)
+                .declinedCount(declined)
+                .errorCount(error)
+                .approvedAmount(decimals(amounts.get(TransactionStatus.APPROVED.ordinal())))
+                .declinedAmount(decimals(amounts.get(TransactionStatus.DECLINED.ordinal())))
+                .errorAmount(decimals(amounts.get(TransactionStatus.ERROR.ordinal())))
+                .approvalRate(total > 0 ? (double) approved / total : 0.0)
+                .issuerLatencyAvgMs(latencyCount > 0 ? (double) latencySum / latencyCount : 0.0)
+                .issuerLatencyMaxMs(latencyMax)
+                .build();
+    }
+
+    private static Map<String, BigDecimal> decimals(Map<String, Money> amounts) {
+        Map<String, BigDecimal> decimals = new TreeMap<>();
+        amounts.forEach((currency, amount) -> {
+            if (amount.minorUnits() != 0) {
+                decimals.put(currency, amount.toBigDecimal());
+            }
+        });
+        return decimals;
+    }
+
+    public int getWindowMinutes() {
+        return windowMinutes;
+    }
+
+    /**
+     * Rebuild the counters from the transactions processed within the window
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        LocalDateTime since = LocalDateTime.now().minusMinutes(windowMinutes);
+        long rebuilt = readOnlyTransaction.execute(status -> {
+            long rows = 0;
+            try (Stream<ProcessedTransaction> processed = transactionRepository.streamProcessedSince(
+                    since, since.minus(MAX_PROCESSING_TIME))) {
+                for (ProcessedTransaction t : (Iterable<ProcessedTransaction>) processed::iterator) {
+                    if (t.getStatus() == TransactionStatus.PENDING) {
+                        continue;
+                    }
+                    record(t.getMerchantId(), t.getStatus(), t.getAmount(), t.getCurrency(),
+                            t.getIssuerLatencyMs(), epochMinute(t.getProcessedAt()));
+                    rows++;
+                }
+            }
+            return rows;
+        });
+        log.info("Merchant statistics rebuilt from {} transactions of the last {} minutes", rebuilt, windowMinutes);
+    }
+
+    private void record(String merchantId, TransactionStatus status, BigDecimal amount, String currency,
+                        Integer issuerLatencyMs, long minute) {
+        Bucket bucket = merchants.computeIfAbsent(merchantId, id -> new MerchantCounters(windowMinutes))
+                .bucketFor(minute);
+        if (bucket == null) {
+            return;
+        }
+        int s = status.ordinal();
+        bucket.counts[s].increment();
+        if (amount != null && currency != null) {
+            Money money;
+            try {
+                money = Money.of(amount, currency);
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                // Unknown currency or more decimals than it has: counted, but not summed
+                money = null;
+            }
+            if (money != null) {
+                bucket.amountMinorUnits.computeIfAbsent(money.currency(), c -> adders())[s].add(money.minorUnits());
+            }
+        }
+        if (issuerLatencyMs != null) {
+            bucket.latencySumMs.add(issuerLatencyMs);
+            bucket.latencyCount.increment();
+            bucket.latencyMaxMs.accumulate(issuerLatencyMs);
+        }
+    }
+
+    private static long currentMinute() {
+        return System.currentTimeMillis() / MILLIS_PER_MINUTE;
+    }
+
+    private static long epochMinute(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond() / 60;
+    }
+
+    private static final class MerchantCounters {
+
+        private final AtomicReferenceArray<Bucket> buckets;
+
+        private MerchantCounters(int size) {
+            this.buckets = new AtomicReferenceArray<>(size);
+        }
+
+        /**
+         * @return The bucket of the given minute, or null if it already fell out of the ring
+         */
+        private Bucket bucketFor(long minute) {
+            int index = (int) Math.floorMod(minute, (long) buckets.length());
+            while (true) {
+                Bucket current = buckets.get(index);
+                if (current != null && current.minute == minute) {
+                    return current;
+                }
+                if (current != null && current.minute > minute) {
+                    return null;
+                }
+                Bucket fresh = new Bucket(minute);
+                if (buckets.compareAndSet(index, current, fresh)) {
+                    return fresh;
+                }
+            }
+        }
+    }
+
+    private static final class Bucket {
+
+        private final long minute;
+        private final LongAdder[] counts = adders();
+        // Amounts per currency and status, never summed across currencies
+        private final ConcurrentMap<String, LongAdder[]> amountMinorUnits = new ConcurrentHashMap<>(4);
+        private final LongAdder latencySumMs = new LongAdder();
+        private final LongAdder latencyCount = new LongAdder();
+        private final LongAccumulator latencyMaxMs = new LongAccumulator(Math::max, 0);
+
+        private Bucket(long minute) {
+            this.minute = minute;
+        }
+    }
+
+    private static LongAdder[] adders() {
+        LongAdder[] adders = new LongAdder[STATUSES];
+        for (int i = 0; i < STATUSES; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
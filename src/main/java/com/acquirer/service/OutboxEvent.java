@@ -0,0 +1,18 @@
+package com.acquirer.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * One payment outcome read from the outbox, ready to publish
+ *
+ * @param eventId Position in the outbox, increasing in the order events were written
+ * @param payload {@link com.acquirer.dto.PaymentOutcome} as JSON
+ * @param createdAt When the outcome was written
+ */
+public record OutboxEvent(
+        long eventId,
+        String merchantId,
+        String transactionId,
+        String payload,
+        LocalDateTime createdAt) {
+}
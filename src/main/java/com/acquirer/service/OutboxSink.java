@@ -0,0 +1,26 @@
+package com.acquirer.service;
+
+import java.util.List;
+
+/**
+ * Destination of the payment outcomes relayed from the outbox
+ *
+ * Select one with {@code acquirer.outbox.sink} ({@code in-process} or
+ * {@code file}), or set it to any other value and declare an OutboxSink bean,
+ * e.g. for a message broker.
+ */
+public interface OutboxSink {
+
+    /**
+     * Publish a batch of events
+     *
+     * Events of the same merchant arrive in the order they were written, and a
+     * merchant's events are never published by two relays at once. Delivery is
+     * at least once: if this throws, or the relay fails before removing the
+     * events, the whole batch is published again, so consumers should ignore
+     * a transaction ID they have already seen.
+     *
+     * @param events Events in outbox order
+     */
+    void publish(List<OutboxEvent> events);
+}
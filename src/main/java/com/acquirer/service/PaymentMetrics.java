@@ -0,0 +1,199 @@
+package com.acquirer.service;
+
+import com.acquirer.dto.IssuerResponse;
+import com.acquirer.entity.Transaction.TransactionStatus;
+import com.acquirer.exception.MerchantNotFoundException;
+import com.acquirer.exception.ValidationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Micrometer meters of the payment pipeline
+ *
+ * <ul>
+ *   <li>{@code acquirer.payment}: end-to-end time, tagged by merchant and outcome
+ *       (approved, declined, rejected, error)</li>
+ *   <li>{@code acquirer.payment.stage}: time per stage, tagged by stage, merchant and
+ *       outcome (success, rejected, error)</li>
+ *   <li>{@code acquirer.issuer.responses}: issuer answers by result and response code</li>
+ * </ul>
+ *
+ * Timers publish p50/p95/p99 and a percentile histogram. Payments for merchants
+ * that do not exist are tagged {@code merchant=unknown}, so the number of series
+ * is bounded by the number of merchants. Meters are looked up once and reused.
+ */
+@Component
+public class PaymentMetrics {
+
+    public static final String PAYMENT_TIMER = "acquirer.payment";
+    public static final String STAGE_TIMER = "acquirer.payment.stage";
+    public static final String ISSUER_RESPONSES = "acquirer.issuer.responses";
+
+    static final String UNKNOWN_MERCHANT = "unknown";
+
+    /** Stages of a single payment, in pipeline order */
+    public enum Stage {
+        CREATE_PENDING,
+        MERCHANT_VALIDATION,
+        BUSINESS_RULES,
+        ISSUER,
+        FINALIZE;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    private enum Outcome {
+        SUCCESS,
+        APPROVED,
+        DECLINED,
+        REJECTED,
+        ERROR;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    private static final int OUTCOMES = Outcome.values().length;
+    // One slot per (stage, outcome) plus one per end-to-end outcome
+    private static final int SLOTS = (Stage.values().length + 1) * OUTCOMES;
+
+    private final MeterRegistry meterRegistry;
+    private final MerchantCache merchantCache;
+    private final Map<String, AtomicReferenceArray<Timer>> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> approvedResponses = new ConcurrentHashMap<>();
+    private final Map<String, Counter> declinedResponses = new ConcurrentHashMap<>();
+
+    public PaymentMetrics(MeterRegistry meterRegistry, MerchantCache merchantCache) {
+        this.meterRegistry = meterRegistry;
+        this.merchantCache = merchantCache;
+    }
+
+    /**
+     * Start timing a payment; its first stage is {@link Stage#CREATE_PENDING}
+     *
+     * @param merchantId Merchant ID from the request
+     * @return Sample to mark the following stages and the outcome on
+     */
+    public Sample start(String merchantId) {
+        String merchant = merchantId != null && merchantCache.get(merchantId).isPresent()
+                ? merchantId
+                : UNKNOWN_MERCHANT;
+        return new Sample(timers.computeIfAbsent(merchant, m -> new AtomicReferenceArray<>(SLOTS)), merchant);
+    }
+
+    /**
+     * Count an issuer answer by result and response code
+     */
+    public void recordIssuerResponse(IssuerResponse issuerResponse) {
+        Map<String, Counter> counters = issuerResponse.isApproved() ? approvedResponses : declinedResponses;
+        String responseCode = issuerResponse.getResponseCode() != null ? issuerResponse.getResponseCode() : "none";
+        counters.computeIfAbsent(responseCode, code -> Counter.builder(ISSUER_RESPONSES)
+                        .description("Issuer authorization answers")
+                        .tag("result", issuerResponse.isApproved() ? "approved" : "declined")
+                        .tag("response_code", code)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    private Timer timer(AtomicReferenceArray<Timer> merchantTimers, String merchant, Stage stage, Outcome outcome) {
+        int slot = (stage != null ? stage.ordinal() + 1 : 0) * OUTCOMES + outcome.ordinal();
+        Timer timer = merchantTimers.get(slot);
+        if (timer == null) {
+            // Registration is idempotent, so a race only registers the same timer twice
+            Timer.Builder builder = stage != null
+                    ? Timer.builder(STAGE_TIMER).description("Time spent in each payment stage").tag("stage", stage.tag)
+                    : Timer.builder(PAYMENT_TIMER).description("End-to-end payment processing time");
+            timer = builder
+                    .tag("merchant", merchant)
+                    .tag("outcome", outcome.tag)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(meterRegistry);
+            merchantTimers.set(slot, timer);
+        }
+        return timer;
+    }
+
+    private static Outcome failureOutcome(Throwable e) {
+        return e instanceof ValidationException || e instanceof MerchantNotFoundException
+                ? Outcome.REJECTED
+                : Outcome.ERROR;
+    }
+
+    /**
+     * Timing of one payment. Stages run one after another (possibly on
+     * different threads), so a sample is never used concurrently.
+     */
+    public final class Sample {
+
+        private final AtomicReferenceArray<Timer> merchantTimers;
+        private final String merchant;
+        private final long startNanos;
+        private Stage stage = Stage.CREATE_PENDING;
+        private long stageStartNanos;
+        private boolean finished;
+
+        private Sample(AtomicReferenceArray<Timer> merchantTimers, String merchant) {
+            this.merchantTimers = merchantTimers;
+            this.merchant = merchant;
+            this.startNanos = System.nanoTime();
+            this.stageStartNanos = startNanos;
+        }
+
+        /**
+         * Close the running stage as successful and start the next one
+         */
+        public void next(Stage next) {
+            long now = System.nanoTime();
+            recordStage(Outcome.SUCCESS, now);
+            stage = next;
+            stageStartNanos = now;
+        }
+
+        /**
+         * Close the last stage as successful and record the payment with its final status
+         */
+        public void completed(TransactionStatus status) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            long now = System.nanoTime();
+            recordStage(Outcome.SUCCESS, now);
+            Outcome outcome = switch (status) {
+                case APPROVED -> Outcome.APPROVED;
+                case DECLINED -> Outcome.DECLINED;
+                default -> Outcome.ERROR;
+            };
+            timer(merchantTimers, merchant, null, outcome).record(now - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Close the running stage and the payment as rejected or failed
+         */
+        public void failed(Throwable e) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            long now = System.nanoTime();
+            Outcome outcome = failureOutcome(e);
+            recordStage(outcome, now);
+            timer(merchantTimers, merchant, null, outcome).record(now - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        private void recordStage(Outcome outcome, long now) {
+            timer(merchantTimers, merchant, stage, outcome).record(now - stageStartNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.acquirer.service;
+
+import com.acquirer.dto.PaymentOutcome;
+import com.acquirer.entity.Transaction;
+import com.acquirer.entity.Transaction.TransactionStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Transactional outbox of payment outcomes
+ *
+ * Each final status is written to payment_outbox in the same transaction as
+ * the status itself, so an outcome is published if and only if it was
+ * committed; {@link PaymentOutboxRelay} then drains the table to the
+ * {@link OutboxSink}. Events are spread over shards by merchant, and a shard
+ * is drained by one relay at a time, which keeps each merchant's events in
+ * order while several instances relay in parallel.
+ *
+ * Event IDs are assigned at insert, not at commit, so writers of a shard take
+ * turns through its row in payment_outbox_shards: each locks it before
+ * inserting and holds it until commit. Event IDs of a shard therefore follow
+ * commit order, and a relay, which skips locked shards, never sees a gap that
+ * a slower transaction fills in later.
+ */
+@Component
+public class PaymentOutbox {
+
+    private static final String INSERT_SQL = "INSERT INTO payment_outbox "
+            + "(shard, merchant_id, transaction_id, payload, created_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String SHARDS_SQL = "SELECT shard FROM payment_outbox_shards";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectWriter writer;
+    private final boolean enabled;
+    private final int shards;
+
+    public PaymentOutbox(JdbcTemplate jdbcTemplate,
+                         ObjectMapper objectMapper,
+                         @Value("${acquirer.outbox.enabled:false}") boolean enabled,
+                         @Value("${acquirer.outbox.shards:16}") int shards) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.writer = objectMapper.writerFor(PaymentOutcome.class);
+        this.enabled = enabled;
+        this.shards = shards;
+    }
+
+    /**
+     * Create the shard rows that writers and relays lock
+     */
+    @PostConstruct
+    void ensureShards() {
+        if (!enabled) {
+            return;
+        }
+        Set<Integer> existing = new HashSet<>(jdbcTemplate.queryForList(SHARDS_SQL, Integer.class));
+        for (int shard = 0; shard < shards; shard++) {
+            if (existing.contains(shard)) {
+                continue;
+            }
+            try {
+                jdbcTemplate.update("INSERT INTO payment_outbox_shards (shard) VALUES (?)", shard);
+            } catch (DuplicateKeyException e) {
+                // Created by another instance starting at the same time
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getShards() {
+        return shards;
+    }
+
+    /**
+     * Write the outcome events of the transactions that reached a final status
+     *
+     * Must run in the transaction that writes the statuses.
+     */
+    public void append(List<Transaction> transactions) {
+        if (!enabled) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(transactions.size());
+        SortedSet<Integer> touched = new TreeSet<>();
+        for (Transaction transaction : transactions) {
+            if (transaction.getStatus() == TransactionStatus.PENDING) {
+                continue;
+            }
+            int shard = shardOf(transaction.getMerchantId());
+            touched.add(shard);
+            rows.add(new Object[]{shard, transaction.getMerchantId(),
+                    transaction.getTransactionId(), payload(transaction), now});
+        }
+        if (!rows.isEmpty()) {
+            lockShards(touched);
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+    }
+
+    /**
+     * Lock the shard rows until commit, in ascending order so that writers of
+     * several shards cannot deadlock
+     */
+    private void lockShards(SortedSet<Integer> touched) {
+        String sql = SHARDS_SQL + " WHERE shard IN (" + String.join(", ", Collections.nCopies(touched.size(), "?"))
+                + ") ORDER BY shard FOR UPDATE";
+        Object[] args = touched.toArray();
+        if (jdbcTemplate.queryForList(sql, Integer.class, args).size() < touched.size()) {
+            // Schema recreated since startup
+            ensureShards();
+            jdbcTemplate.queryForList(sql, Integer.class, args);
+        }
+    }
+
+    int shardOf(String merchantId) {
+        return Math.floorMod(merchantId.hashCode(), shards);
+    }
+
+    private String payload(Transaction transaction) {
+        try {
+            return writer.writeValueAsString(PaymentOutcome.from(transaction));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the outcome of " + transaction.getTransactionId(), e);
+        }
+    }
+}
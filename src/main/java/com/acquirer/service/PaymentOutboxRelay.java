@@ -0,0 +1,225 @@
+package com.acquirer.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background relay that drains the {@link PaymentOutbox} to the {@link OutboxSink}
+ *
+ * Each cycle locks up to {@code shards-per-cycle} shard rows that no other
+ * relay or writer holds ({@code FOR UPDATE SKIP LOCKED}), starting after the
+ * shards of the previous cycle, so several instances share the shards and a
+ * single one still visits them all. It reads up to a batch of their events in
+ * outbox order, publishes them and deletes them, all in one transaction. A
+ * relay that fails before committing leaves its events in place for the next
+ * cycle, so delivery is at least once. The relay keeps cycling without a
+ * pause while it finds full batches or has not visited every shard yet.
+ */
+@Component
+@ConditionalOnProperty(name = "acquirer.outbox.enabled", havingValue = "true")
+@Slf4j
+public class PaymentOutboxRelay implements SmartLifecycle {
+
+    private static final String DELETE_SQL = "DELETE FROM payment_outbox WHERE event_id = ?";
+    private static final String OLDEST_SQL = "SELECT created_at FROM payment_outbox ORDER BY event_id LIMIT 1";
+
+    private final PaymentOutbox outbox;
+    private final OutboxSink sink;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int shardsPerCycle;
+    private final long pollIntervalMillis;
+    private final Timer deliveryLag;
+    private final Counter published;
+    private final AtomicLong oldestAgeMillis = new AtomicLong();
+
+    // Only touched by the relay thread
+    private int nextShard;
+    private boolean lapDone;
+    private volatile boolean running;
+    private Thread relayThread;
+
+    public PaymentOutboxRelay(PaymentOutbox outbox,
+                              OutboxSink sink,
+                              JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${acquirer.outbox.batch-size:1000}") int batchSize,
+                              @Value("${acquirer.outbox.shards-per-cycle:4}") int shardsPerCycle,
+                              @Value("${acquirer.outbox.poll-interval:100ms}") Duration pollInterval) {
+        this.outbox = outbox;
+        this.sink = sink;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.shardsPerCycle = Math.max(1, shardsPerCycle);
+        this.pollIntervalMillis = pollInterval.toMillis();
+        this.deliveryLag = Timer.builder("acquirer.outbox.delivery.lag")
+                .description("Time from writing a payment outcome to publishing it")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.published = Counter.builder("acquirer.outbox.published")
+                .description("Payment outcome events published from the outbox")
+                .register(meterRegistry);
+        Gauge.builder("acquirer.outbox.oldest.age", oldestAgeMillis, age -> age.get() / 1000.0)
+                .description("Age in seconds of the oldest unpublished outcome event")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publish one batch from the shards no other relay holds
+     *
+     * @return Number of events published
+     */
+    int relayOnce() {
+        List<OutboxEvent> events = transactionTemplate.execute(status -> {
+            List<Integer> shards = claimShards();
+            if (shards.isEmpty()) {
+                return List.of();
+            }
+            List<OutboxEvent> batch = jdbcTemplate.query(selectSql(shards.size()),
+                    (rs, rowNum) -> new OutboxEvent(
+                            rs.getLong("event_id"),
+                            rs.getString("merchant_id"),
+                            rs.getString("transaction_id"),
+                            rs.getString("payload"),
+                            rs.getTimestamp("created_at").toLocalDateTime()),
+                    selectArgs(shards));
+            if (batch.isEmpty()) {
+                return batch;
+            }
+
+            sink.publish(batch);
+            List<Object[]> ids = new ArrayList<>(batch.size());
+            for (OutboxEvent event : batch) {
+                ids.add(new Object[]{event.eventId()});
+            }
+            jdbcTemplate.batchUpdate(DELETE_SQL, ids);
+            return batch;
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxEvent event : events) {
+            deliveryLag.record(Duration.between(event.createdAt(), now));
+        }
+        published.increment(events.size());
+        updateOldestAge(now);
+        return events.size();
+    }
+
+    /**
+     * Lock the next shards no other relay or writer holds, in the current transaction
+     *
+     * Candidates are tried in windows of the shards still missing, naming each
+     * row, because some engines (H2) lock every row an ORDER BY ... LIMIT query
+     * reads rather than only the rows it returns.
+     */
+    List<Integer> claimShards() {
+        int total = outbox.getShards();
+        int start = nextShard;
+        int visited = 0;
+        List<Integer> claimed = new ArrayList<>(shardsPerCycle);
+        while (claimed.size() < shardsPerCycle && visited < total) {
+            int window = Math.min(shardsPerCycle - claimed.size(), total - visited);
+            Object[] candidates = new Object[window];
+            for (int i = 0; i < window; i++) {
+                candidates[i] = (start + visited + i) % total;
+            }
+            claimed.addAll(jdbcTemplate.queryForList(lockShardsSql(window), Integer.class, candidates));
+            visited += window;
+        }
+        nextShard = (start + visited) % total;
+        lapDone = start + visited >= total;
+        return claimed;
+    }
+
+    private static String lockShardsSql(int shards) {
+        return "SELECT shard FROM payment_outbox_shards WHERE shard IN ("
+                + String.join(", ", Collections.nCopies(shards, "?")) + ") FOR UPDATE SKIP LOCKED";
+    }
+
+    private void updateOldestAge(LocalDateTime now) {
+        List<Timestamp> oldest = jdbcTemplate.queryForList(OLDEST_SQL, Timestamp.class);
+        oldestAgeMillis.set(oldest.isEmpty() ? 0
+                : Math.max(0, Duration.between(oldest.get(0).toLocalDateTime(), now).toMillis()));
+    }
+
+    private static String selectSql(int shards) {
+        return "SELECT event_id, merchant_id, transaction_id, payload, created_at FROM payment_outbox "
+                + "WHERE shard IN (" + String.join(", ", Collections.nCopies(shards, "?")) + ") "
+                + "ORDER BY event_id LIMIT ?";
+    }
+
+    private Object[] selectArgs(List<Integer> shards) {
+        Object[] args = shards.toArray(new Object[shards.size() + 1]);
+        args[shards.size()] = batchSize;
+        return args;
+    }
+
+    private void runRelay() {
+        while (running) {
+            int relayed;
+            try {
+                relayed = relayOnce();
+            } catch (RuntimeException e) {
+                log.warn("Outbox relay cycle failed, retrying: {}", e.getMessage());
+                relayed = 0;
+            }
+            // Keep going until every shard was visited, then pause unless a batch was full
+            if (relayed < batchSize && lapDone) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(pollIntervalMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        relayThread = new Thread(this::runRelay, "payment-outbox-relay");
+        relayThread.setDaemon(true);
+        relayThread.start();
+        log.info("Payment outbox relay started - shards: {} ({} per cycle), batch size: {}, sink: {}",
+                outbox.getShards(), shardsPerCycle, batchSize, sink.getClass().getSimpleName());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            relayThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Payment outbox relay stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
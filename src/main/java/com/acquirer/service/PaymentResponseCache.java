@@ -0,0 +1,67 @@
+package com.acquirer.service;
+
+import com.acquirer.dto.PaymentResponse;
+import com.acquirer.entity.Transaction.TransactionStatus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Responses of finalized payments, served to GET /payments/{id} polls
+ *
+ * Filled when a payment reaches its final status, so that merchants polling
+ * right after creating a payment are answered without a database lookup.
+ * Bounded by size with Caffeine's frequency-aware (W-TinyLFU) eviction, so a
+ * burst of payments that are never polled does not push out the ones that are.
+ * Final responses never change, so entries only expire to bound their age.
+ */
+@Component
+public class PaymentResponseCache {
+
+    // Null while disabled
+    private final Cache<String, PaymentResponse> cache;
+
+    public PaymentResponseCache(MeterRegistry meterRegistry,
+                                @Value("${acquirer.payment-cache.enabled:true}") boolean enabled,
+                                @Value("${acquirer.payment-cache.maximum-size:100000}") long maximumSize,
+                                @Value("${acquirer.payment-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        if (!enabled) {
+            this.cache = null;
+            return;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "payments");
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Share of lookups answered from the cache")
+                .tag("cache", "payments")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Keep the response of a payment, if its status is final
+     *
+     * @param response Response as returned to the merchant; must not be modified afterwards
+     */
+    public void put(PaymentResponse response) {
+        if (cache != null && response.getStatus() != TransactionStatus.PENDING) {
+            cache.put(response.getTransactionId(), response);
+        }
+    }
+
+    /**
+     * @return Cached response, or null on a miss
+     */
+    public PaymentResponse get(String transactionId) {
+        return cache != null ? cache.getIfPresent(transactionId) : null;
+    }
+}
@@ -1,130 +1,377 @@
 package com.acquirer.service;
 
+import com.acquirer.dto.BatchPaymentItemResult;
+import com.acquirer.dto.BatchPaymentResponse;
 import com.acquirer.dto.IssuerResponse;
+import com.acquirer.dto.MerchantSnapshot;
+import com.acquirer.dto.PaymentPageResponse;
 import com.acquirer.dto.PaymentRequest;
 import com.acquirer.dto.PaymentResponse;
-import com.acquirer.entity.Merchant;
+import com.acquirer.dto.TransactionSummary;
 import com.acquirer.entity.Transaction;
 import com.acquirer.entity.Transaction.TransactionStatus;
+import com.acquirer.exception.IssuerUnavailableException;
 import com.acquirer.exception.MerchantNotFoundException;
 import com.acquirer.exception.ValidationException;
 import com.acquirer.repository.TransactionRepository;
+import com.acquirer.service.PaymentMetrics.Stage;
 import com.acquirer.service.ValidationService.ValidationResult;
+import com.acquirer.util.MdcContext;
+import com.acquirer.util.Money;
+import com.acquirer.util.PageCursor;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PaymentService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    // Allowed gap between the time encoded in a transaction ID and the row's created_at
+    private static final Duration ID_TIME_TOLERANCE = Duration.ofHours(1);
+
     private final TransactionRepository transactionRepository;
+    private final TransactionStateService transactionStateService;
     private final MerchantService merchantService;
     private final ValidationService validationService;
     private final IssuerService issuerService;
+    private final Validator validator;
+    private final IdempotencyService idempotencyService;
+    private final PaymentMetrics paymentMetrics;
+    private final AuditLog auditLog;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final ReplicaReads replicaReads;
+    private final PaymentResponseCache paymentResponseCache;
+
+    @Qualifier("applicationTaskExecutor")
+    private final AsyncTaskExecutor taskExecutor;
+
+    @Value("${acquirer.batch.issuer-parallelism:32}")
+    private int batchIssuerParallelism;
 
     /**
      * Process a payment request from a merchant
      * 
+     * The PENDING record and the final status are committed in two short
+     * transactions; the issuer call runs with no transaction or connection held.
+     * 
      * @param request Payment request details
      * @return PaymentResponse with transaction result
      */
-    @Transactional
     public PaymentResponse processPayment(PaymentRequest request) {
-        String transactionId = UUID.randomUUID().toString();
+        String transactionId = transactionIdGenerator.nextId();
         
         // Set up MDC for logging traceability
         MDC.put("transactionId", transactionId);
         MDC.put("merchantId", request.getMerchantId());
 
-        log.info("=== STARTING PAYMENT PROCESSING ===");
-        log.info("Payment request received - Merchant: {}, Amount: {} {}, Card: {}",
-                request.getMerchantId(), request.getAmount(), request.getCurrency(),
-                maskCardToken(request.getCardToken()));
+        auditLog.received(transactionId, request);
 
+        PaymentMetrics.Sample sample = paymentMetrics.start(request.getMerchantId());
         Transaction transaction = null;
         try {
-            transaction = createInitialTransaction(transactionId, request);
-            transaction = transactionRepository.save(transaction);
-            log.debug("Transaction created with PENDING status");
+            transaction = transactionStateService.createPending(
+                    createInitialTransaction(transactionId, request));
 
-            log.info("Validating merchant");
-            Merchant merchant = validateMerchant(request.getMerchantId());
-            log.info("Merchant validation PASSED - Merchant: {} is active", merchant.getMerchantName());
+            validatePayment(transactionId, request, sample);
 
-            log.info("Validating business rules");
-            validateBusinessRules(request, merchant);
-            log.info("Business rules validation PASSED");
-
-            log.info("Requesting authorization from issuer");
+            sample.next(Stage.ISSUER);
             IssuerResponse issuerResponse = issuerService.authorizeTransaction(
                     request.getCardToken(),
                     request.getAmount(),
                     request.getCurrency()
             );
 
-            log.info("Processing issuer response");
-            transaction = updateTransactionWithIssuerResponse(transaction, issuerResponse);
-            transaction = transactionRepository.save(transaction);
+            return completePayment(transaction, issuerResponse, sample);
 
-            log.info("=== PAYMENT PROCESSING COMPLETED - Status: {} ===", transaction.getStatus());
+        } catch (Exception e) {
+            throw failPayment(transaction, e, sample);
 
-            return buildPaymentResponse(transaction);
+        } finally {
+            MDC.clear();
+        }
+    }
 
-        } catch (ValidationException | MerchantNotFoundException e) {
-            log.error("Payment validation failed: {}", e.getMessage());
-            if (transaction != null) {
-                transaction = handleTransactionError(transaction, e.getMessage());
-                transaction = transactionRepository.save(transaction);
-            }
-            throw e;
+    /**
+     * Process a payment request from a merchant without blocking the calling thread
+     * 
+     * The PENDING insert, the issuer authorization and the final status update are
+     * chained stages; the MDC context is carried to every thread that runs them.
+     * 
+     * @param request Payment request details
+     * @return Future completed with the transaction result
+     */
+    public CompletableFuture<PaymentResponse> processPaymentAsync(PaymentRequest request) {
+        return processPaymentAsync(transactionIdGenerator.nextId(), request);
+    }
 
-        } catch (Exception e) {
-            log.error("Unexpected error processing payment", e);
-            if (transaction != null) {
-                transaction = handleTransactionError(transaction, "System error: " + e.getMessage());
-                transactionRepository.save(transaction);
-            }
-            throw new RuntimeException("Error processing payment", e);
+    /**
+     * Process a payment request at most once per merchant and idempotency key
+     * 
+     * A repeat of an already processed key returns the original response without
+     * calling the issuer; a repeat of a key still in flight completes with it.
+     * 
+     * @param request Payment request details
+     * @param idempotencyKey Client-supplied key, or null to always process
+     * @return Future completed with the transaction result
+     */
+    public CompletableFuture<PaymentResponse> processPaymentAsync(PaymentRequest request, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return processPaymentAsync(request);
+        }
+        return idempotencyService.execute(request, idempotencyKey,
+                transactionId -> processPaymentAsync(transactionId, request),
+                this::findPaymentResponse);
+    }
 
+    private CompletableFuture<PaymentResponse> processPaymentAsync(String transactionId, PaymentRequest request) {
+        // Set up MDC for logging traceability
+        MDC.put("transactionId", transactionId);
+        MDC.put("merchantId", request.getMerchantId());
+
+        try {
+            auditLog.received(transactionId, request);
+            Executor executor = MdcContext.withCurrentContext(taskExecutor);
+            PaymentMetrics.Sample sample = paymentMetrics.start(request.getMerchantId());
+
+            return transactionStateService
+                    .createPendingAsync(createInitialTransaction(transactionId, request), executor)
+                    .exceptionally(e -> {
+                        throw failPayment(null, unwrap(e), sample);
+                    })
+                    .thenComposeAsync(transaction -> authorizeAsync(transactionId, request, sample)
+                            .thenCompose(issuerResponse -> completePaymentAsync(transaction, issuerResponse,
+                                    executor, sample))
+                            .handleAsync((response, e) -> {
+                                if (e != null) {
+                                    throw failPayment(transaction, unwrap(e), sample);
+                                }
+                                return response;
+                            }, executor), executor);
         } finally {
             MDC.clear();
         }
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Process a batch of payment requests
+     * 
+     * Items are validated in one pass with merchants resolved once per batch. Items
+     * failing request validation are rejected without a transaction; the rest are
+     * inserted with one JDBC batch, authorized by the issuer concurrently (at most
+     * {@code acquirer.batch.issuer-parallelism} calls in flight) and finalized with
+     * another JDBC batch. A failing item never fails the rest of the batch.
+     * 
+     * @param requests Payment requests
+     * @return One result per request, in request order
+     */
+    public BatchPaymentResponse processBatch(List<PaymentRequest> requests) {
+        log.info("=== STARTING BATCH PAYMENT PROCESSING - {} payments ===", requests.size());
+
+        BatchPaymentItemResult[] results = new BatchPaymentItemResult[requests.size()];
+        Map<String, Optional<MerchantSnapshot>> merchants = new HashMap<>();
+        List<Transaction> transactions = new ArrayList<>();
+        List<Integer> authorizable = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            PaymentRequest request = requests.get(i);
+            List<String> errors = validator.validate(request).stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .toList();
+            if (!errors.isEmpty()) {
+                results[i] = BatchPaymentItemResult.builder().index(i).errors(errors).build();
+                continue;
+            }
+
+            Transaction transaction = createInitialTransaction(transactionIdGenerator.nextId(), request);
+            transactions.add(transaction);
+            Optional<MerchantSnapshot> merchant = merchants.computeIfAbsent(
+                    request.getMerchantId(), this::findActiveMerchant);
+            try {
+                validateBusinessRules(request, merchant.orElseThrow(() -> new MerchantNotFoundException(
+                        "Merchant not found or inactive: " + request.getMerchantId())));
+                authorizable.add(transactions.size() - 1);
+            } catch (ValidationException | MerchantNotFoundException e) {
+                handleTransactionError(transaction, e.getMessage());
+            }
+            results[i] = BatchPaymentItemResult.builder().index(i).build();
+        }
+
+        transactionStateService.createAll(transactions);
+
+        List<Transaction> authorized = authorizeAll(transactions, authorizable);
+        transactionStateService.finalizeAll(authorized);
+
+        BatchPaymentResponse.BatchPaymentResponseBuilder response = BatchPaymentResponse.builder()
+                .total(requests.size());
+        int approved = 0;
+        int declined = 0;
+        int failed = 0;
+        int position = 0;
+        Iterator<Integer> nextAuthorizable = authorizable.iterator();
+        int authorizedPosition = nextAuthorizable.hasNext() ? nextAuthorizable.next() : -1;
+        for (BatchPaymentItemResult result : results) {
+            if (result.getErrors() != null) {
+                continue;
+            }
+            Transaction transaction = transactions.get(position);
+            PaymentResponse payment = buildPaymentResponse(transaction);
+            paymentResponseCache.put(payment);
+            result.setPayment(payment);
+            switch (transaction.getStatus()) {
+                case APPROVED -> approved++;
+                case DECLINED -> declined++;
+                default -> failed++;
+            }
+            if (position == authorizedPosition) {
+                auditFinished(transaction);
+                authorizedPosition = nextAuthorizable.hasNext() ? nextAuthorizable.next() : -1;
+            } else {
+                auditLog.finished(AuditEvent.Type.REJECTED, transaction, null, transaction.getRejectionReason());
+            }
+            position++;
+        }
+        int rejected = requests.size() - transactions.size();
+
+        log.info("=== BATCH PAYMENT PROCESSING COMPLETED - Approved: {}, Declined: {}, Failed: {}, Rejected: {} ===",
+                approved, declined, failed, rejected);
+
+        return response
+                .approved(approved)
+                .declined(declined)
+                .failed(failed)
+                .rejected(rejected)
+                .results(List.of(results))
+                .build();
+    }
+
+    /**
+     * Get the current state of a transaction
+     *
+     * Not transactional: a response served from {@link PaymentResponseCache}
+     * must not check out a connection, and the repository lookup on a miss runs
+     * in its own read-only transaction.
+     */
     public PaymentResponse getTransaction(String transactionId) {
         log.debug("Retrieving transaction: {}", transactionId);
-        Transaction transaction = transactionRepository.findById(transactionId)
+        return findPaymentResponse(TimeOrderedIdGenerator.canonical(transactionId))
                 .orElseThrow(() -> new RuntimeException("Transaction not found: " + transactionId));
-        return buildPaymentResponse(transaction);
     }
 
+    private Optional<PaymentResponse> findPaymentResponse(String transactionId) {
+        PaymentResponse cached = paymentResponseCache.get(transactionId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return replicaReads.readTransaction(transactionId, () -> findSummary(transactionId))
+                .map(this::buildPaymentResponse);
+    }
+
+    /**
+     * Look up the summary of a transaction by ID, bounded to the creation time
+     * encoded in time-ordered IDs so that a partitioned table only searches those
+     * partitions. Random IDs (the uuid generator, and UUIDs issued before
+     * time-ordered IDs) encode no creation time, so a miss is looked up again
+     * without the bound.
+     */
+    private Optional<TransactionSummary> findSummary(String transactionId) {
+        long issuedAt;
+        try {
+            issuedAt = TimeOrderedIdGenerator.timestampOf(transactionId);
+        } catch (IllegalArgumentException e) {
+            return transactionRepository.findSummaryById(transactionId);
+        }
+        LocalDateTime issued = LocalDateTime.ofInstant(Instant.ofEpochMilli(issuedAt), ZoneId.systemDefault());
+        return transactionRepository.findSummaryByIdCreatedBetween(transactionId,
+                        issued.minus(ID_TIME_TOLERANCE), issued.plus(ID_TIME_TOLERANCE))
+                .or(() -> transactionRepository.findSummaryById(transactionId));
+    }
+
+    /**
+     * Query transactions one keyset page at a time, newest first
+     *
+     * @param merchantId Optional merchant filter
+     * @param status Optional status filter
+     * @param cursor Token from the previous page, or null for the first page
+     * @param limit Page size, between 1 and {@value #MAX_PAGE_SIZE}
+     * @return Page of transactions with the token for the next one
+     */
     @Transactional(readOnly = true)
-    public List<PaymentResponse> queryTransactions(String merchantId, TransactionStatus status) {
-        log.debug("Querying transactions - Merchant: {}, Status: {}", merchantId, status);
+    public PaymentPageResponse queryTransactions(String merchantId, TransactionStatus status,
+                                                 String cursor, int limit) {
+        log.debug("Querying transactions - Merchant: {}, Status: {}, Limit: {}", merchantId, status, limit);
+
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ValidationException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        ScrollPosition position;
+        try {
+            position = PageCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid page cursor");
+        }
+
+        Limit pageSize = Limit.of(limit);
+        Window<TransactionSummary> window = replicaReads.readMerchant(merchantId,
+                () -> scroll(merchantId, status, position, pageSize));
+
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            TransactionSummary last = window.getContent().get(window.size() - 1);
+            nextCursor = PageCursor.encode(last.createdAt(), last.transactionId());
+        }
 
-        List<Transaction> transactions;
+        return PaymentPageResponse.builder()
+                .items(window.map(this::buildPaymentResponse).getContent())
+                .nextCursor(nextCursor)
+                .hasMore(nextCursor != null)
+                .build();
+    }
+
+    private Window<TransactionSummary> scroll(String merchantId, TransactionStatus status,
+                                       ScrollPosition position, Limit pageSize) {
         if (merchantId != null && status != null) {
-            transactions = transactionRepository.findByMerchantIdAndStatus(merchantId, status);
+            return transactionRepository.findByMerchantIdAndStatusOrderByCreatedAtDescTransactionIdDesc(
+                    merchantId, status, position, pageSize, TransactionSummary.class);
         } else if (merchantId != null) {
-            transactions = transactionRepository.findByMerchantIdOrderByCreatedAtDesc(merchantId);
+            return transactionRepository.findByMerchantIdOrderByCreatedAtDescTransactionIdDesc(
+                    merchantId, position, pageSize, TransactionSummary.class);
         } else if (status != null) {
-            transactions = transactionRepository.findByStatus(status);
-        } else {
-            transactions = transactionRepository.findAll();
+            return transactionRepository.findByStatusOrderByCreatedAtDescTransactionIdDesc(
+                    status, position, pageSize, TransactionSummary.class);
         }
-
-        return transactions.stream()
-                .map(this::buildPaymentResponse)
-                .toList();
+        return transactionRepository.findByOrderByCreatedAtDescTransactionIdDesc(
+                position, pageSize, TransactionSummary.class);
     }
 
     private Transaction createInitialTransaction(String transactionId, PaymentRequest request) {
@@ -140,16 +387,178 @@ public class PaymentService {
                 .build();
     }
 
-    private Merchant validateMerchant(String merchantId) {
-        if (!merchantService.isMerchantActive(merchantId)) {
-            throw new MerchantNotFoundException("Merchant not found or inactive: " + merchantId);
+    private Optional<MerchantSnapshot> findActiveMerchant(String merchantId) {
+        try {
+            return Optional.of(merchantService.getActiveMerchant(merchantId));
+        } catch (MerchantNotFoundException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Send the selected transactions to the issuer with bounded concurrency
+     * and record each answer (or failure) on its transaction
+     *
+     * @return The transactions that reached a final status through the issuer
+     */
+    private List<Transaction> authorizeAll(List<Transaction> transactions, List<Integer> selected) {
+        Semaphore permits = new Semaphore(batchIssuerParallelism);
+        List<CompletableFuture<?>> calls = new ArrayList<>(selected.size());
+        List<Transaction> authorized = new ArrayList<>(selected.size());
+
+        for (int index : selected) {
+            Transaction transaction = transactions.get(index);
+            authorized.add(transaction);
+            permits.acquireUninterruptibly();
+
+            MDC.put("transactionId", transaction.getTransactionId());
+            MDC.put("merchantId", transaction.getMerchantId());
+            try {
+                calls.add(issuerService.authorizeTransactionAsync(
+                                transaction.getCardToken(), transaction.getAmount(), transaction.getCurrency())
+                        .handle((issuerResponse, e) -> {
+                            if (unwrap(e) instanceof IssuerUnavailableException unavailable) {
+                                log.warn("Issuer unavailable for batch payment: {}", unavailable.getMessage());
+                                handleTransactionError(transaction, unavailable.getMessage(),
+                                        unavailable.getResponseCode());
+                            } else if (e != null) {
+                                log.error("Unexpected error authorizing batch payment", unwrap(e));
+                                handleTransactionError(transaction, "System error: " + unwrap(e).getMessage());
+                            } else {
+                                updateTransactionWithIssuerResponse(transaction, issuerResponse);
+                            }
+                            return null;
+                        })
+                        .whenComplete((ignored, e) -> permits.release()));
+            } catch (RuntimeException e) {
+                permits.release();
+                log.error("Unexpected error authorizing batch payment", e);
+                handleTransactionError(transaction, "System error: " + e.getMessage());
+            } finally {
+                MDC.remove("transactionId");
+                MDC.remove("merchantId");
+            }
+        }
+
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).join();
+        return authorized;
+    }
+
+    private void validatePayment(String transactionId, PaymentRequest request, PaymentMetrics.Sample sample) {
+        sample.next(Stage.MERCHANT_VALIDATION);
+        MerchantSnapshot merchant = merchantService.getActiveMerchant(request.getMerchantId());
+        auditLog.passed(AuditEvent.Type.MERCHANT_VALIDATED, transactionId, merchant.merchantId());
+
+        sample.next(Stage.BUSINESS_RULES);
+        validateBusinessRules(request, merchant);
+        auditLog.passed(AuditEvent.Type.RULES_PASSED, transactionId, merchant.merchantId());
+    }
+
+    private CompletableFuture<IssuerResponse> authorizeAsync(String transactionId, PaymentRequest request,
+                                                             PaymentMetrics.Sample sample) {
+        try {
+            validatePayment(transactionId, request, sample);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
         }
-        return merchantService.getMerchantById(merchantId);
+
+        sample.next(Stage.ISSUER);
+        return issuerService.authorizeTransactionAsync(
+                request.getCardToken(),
+                request.getAmount(),
+                request.getCurrency()
+        );
+    }
+
+    private PaymentResponse completePayment(Transaction transaction, IssuerResponse issuerResponse,
+                                            PaymentMetrics.Sample sample) {
+        sample.next(Stage.FINALIZE);
+        transaction = updateTransactionWithIssuerResponse(transaction, issuerResponse);
+        return paymentCompleted(transactionStateService.finalizeTransaction(transaction), sample);
+    }
+
+    private CompletableFuture<PaymentResponse> completePaymentAsync(Transaction transaction,
+                                                                    IssuerResponse issuerResponse,
+                                                                    Executor executor,
+                                                                    PaymentMetrics.Sample sample) {
+        sample.next(Stage.FINALIZE);
+        updateTransactionWithIssuerResponse(transaction, issuerResponse);
+        return transactionStateService.finalizeTransactionAsync(transaction, executor)
+                .thenApplyAsync(persisted -> paymentCompleted(persisted, sample), executor);
+    }
+
+    private PaymentResponse paymentCompleted(Transaction transaction, PaymentMetrics.Sample sample) {
+        sample.completed(transaction.getStatus());
+        auditFinished(transaction);
+        PaymentResponse response = buildPaymentResponse(transaction);
+        paymentResponseCache.put(response);
+        return response;
     }
 
-    private void validateBusinessRules(PaymentRequest request, Merchant merchant) {
+    /**
+     * Record the failure on the transaction (if it was already created)
+     * and return the exception to propagate to the caller
+     */
+    private RuntimeException failPayment(Transaction transaction, Throwable e, PaymentMetrics.Sample sample) {
+        sample.failed(e);
+        if (e instanceof ValidationException || e instanceof MerchantNotFoundException) {
+            log.debug("Payment validation failed: {}", e.getMessage());
+            if (transaction != null) {
+                transaction = handleTransactionError(transaction, e.getMessage());
+                finalizeFailed(transaction);
+            }
+            auditLog.finished(AuditEvent.Type.REJECTED, transaction, MDC.get("transactionId"), e.getMessage());
+            return (RuntimeException) e;
+        }
+
+        if (e instanceof IssuerUnavailableException unavailable) {
+            log.warn("Issuer unavailable: {}", e.getMessage());
+            if (transaction != null) {
+                transaction = handleTransactionError(transaction, e.getMessage(), unavailable.getResponseCode());
+                finalizeFailed(transaction);
+            }
+            auditLog.finished(AuditEvent.Type.FAILED, transaction, MDC.get("transactionId"), e.getMessage());
+            return unavailable;
+        }
+
+        log.error("Unexpected error processing payment", e);
+        if (transaction != null) {
+            transaction = handleTransactionError(transaction, "System error: " + e.getMessage());
+            finalizeFailed(transaction);
+        }
+        auditLog.finished(AuditEvent.Type.FAILED, transaction, MDC.get("transactionId"), e.getMessage());
+        return new RuntimeException("Error processing payment", e);
+    }
+
+    private void finalizeFailed(Transaction transaction) {
+        transactionStateService.finalizeTransaction(transaction);
+        paymentResponseCache.put(buildPaymentResponse(transaction));
+    }
+
+    private void auditFinished(Transaction transaction) {
+        AuditEvent.Type type = transaction.getStatus() == TransactionStatus.ERROR
+                ? AuditEvent.Type.FAILED : AuditEvent.Type.COMPLETED;
+        auditLog.finished(type, transaction, null, transaction.getRejectionReason());
+    }
+
+    private Throwable unwrap(Throwable e) {
+        if (e instanceof CompletionException && e.getCause() != null) {
+            return e.getCause();
+        }
+        return e;
+    }
+
+    private void validateBusinessRules(PaymentRequest request, MerchantSnapshot merchant) {
+        // First, as the amount is only meaningful in a known currency
+        ValidationResult currencyValidation = validationService.validateCurrency(
+                request.getCurrency());
+        if (!currencyValidation.isValid()) {
+            throw new ValidationException(currencyValidation.getReason());
+        }
+
+        Money amount = toMoney(request);
         ValidationResult amountValidation = validationService.validateAmount(
-                request.getAmount(), merchant);
+                amount, merchant);
         if (!amountValidation.isValid()) {
             throw new ValidationException(amountValidation.getReason());
         }
@@ -160,10 +569,24 @@ public class PaymentService {
             throw new ValidationException(cardValidation.getReason());
         }
 
-        ValidationResult currencyValidation = validationService.validateCurrency(
-                request.getCurrency());
-        if (!currencyValidation.isValid()) {
-            throw new ValidationException(currencyValidation.getReason());
+        // Last, so only payments that passed every other rule are counted
+        ValidationResult velocityValidation = validationService.validateVelocity(
+                merchant.merchantId(), request.getCardToken(), amount);
+        if (!velocityValidation.isValid()) {
+            throw new ValidationException(velocityValidation.getReason());
+        }
+    }
+
+    /**
+     * Convert the request amount to minor units of its currency, without rounding
+     */
+    private Money toMoney(PaymentRequest request) {
+        try {
+            return Money.of(request.getAmount(), request.getCurrency());
+        } catch (ArithmeticException e) {
+            throw new ValidationException(String.format("Amount %s has more decimals than %s allows (%d)",
+                    request.getAmount().toPlainString(), request.getCurrency(),
+                    Money.exponentOf(request.getCurrency())));
         }
     }
 
@@ -173,38 +596,36 @@ public class PaymentService {
         transaction.setResponseCode(issuerResponse.getResponseCode());
         transaction.setStatus(issuerResponse.isApproved() ? 
                 TransactionStatus.APPROVED : TransactionStatus.DECLINED);
+        transaction.setIssuerLatencyMs((int) issuerResponse.getLatencyMs());
+        paymentMetrics.recordIssuerResponse(issuerResponse);
         
         if (!issuerResponse.isApproved()) {
             transaction.setRejectionReason(issuerResponse.getMessage());
         }
         
         transaction.setProcessedAt(LocalDateTime.now());
+        auditLog.issuerResponded(transaction, issuerResponse);
         return transaction;
     }
 
     private Transaction handleTransactionError(Transaction transaction, String errorMessage) {
+        return handleTransactionError(transaction, errorMessage, "99");
+    }
+
+    private Transaction handleTransactionError(Transaction transaction, String errorMessage, String responseCode) {
         transaction.setStatus(TransactionStatus.ERROR);
         transaction.setRejectionReason(errorMessage);
-        transaction.setResponseCode("99");
+        transaction.setResponseCode(responseCode);
         transaction.setProcessedAt(LocalDateTime.now());
         return transaction;
     }
 
-    private PaymentResponse buildPaymentResponse(Transaction transaction) {
-        String message = switch (transaction.getStatus()) {
-            case APPROVED -> "Transaction approved";
-            case DECLINED -> transaction.getRejectionReason() != null ? 
-                    transaction.getRejectionReason() : "Transaction declined";
-            case ERROR -> transaction.getRejectionReason() != null ? 
-                    transaction.getRejectionReason() : "Transaction error";
-            case PENDING -> "Transaction pending";
-        };
-
+    PaymentResponse buildPaymentResponse(Transaction transaction) {
         return PaymentResponse.builder()
                 .transactionId(transaction.getTransactionId())
                 .status(transaction.getStatus())
                 .responseCode(transaction.getResponseCode())
-                .message(message)
+                .message(responseMessage(transaction.getStatus(), transaction.getRejectionReason()))
                 .timestamp(transaction.getCreatedAt())
                 .merchantId(transaction.getMerchantId())
                 .amount(transaction.getAmount())
@@ -212,10 +633,25 @@ public class PaymentService {
                 .build();
     }
 
-    private String maskCardToken(String cardToken) {
-        if (cardToken == null || cardToken.length() < 4) {
-            return "****";
-        }
-        return "**** " + cardToken.substring(cardToken.length() - 4);
+    PaymentResponse buildPaymentResponse(TransactionSummary summary) {
+        return PaymentResponse.builder()
+                .transactionId(summary.transactionId())
+                .status(summary.status())
+                .responseCode(summary.responseCode())
+                .message(responseMessage(summary.status(), summary.rejectionReason()))
+                .timestamp(summary.createdAt())
+                .merchantId(summary.merchantId())
+                .amount(summary.amount())
+                .currency(summary.currency())
+                .build();
+    }
+
+    private static String responseMessage(TransactionStatus status, String rejectionReason) {
+        return switch (status) {
+            case APPROVED -> "Transaction approved";
+            case DECLINED -> rejectionReason != null ? rejectionReason : "Transaction declined";
+            case ERROR -> rejectionReason != null ? rejectionReason : "Transaction error";
+            case PENDING -> "Transaction pending";
+        };
     }
 }
@@ -0,0 +1,22 @@
+package com.acquirer.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Random (version 4) UUID transaction IDs, as issued before time-ordered IDs
+ *
+ * Written in the 26-character text of {@link TimeOrderedIdGenerator#fromUuid}
+ * rather than the 36-character UUID form, to fit the CHAR(26) key.
+ */
+@Component
+@ConditionalOnProperty(name = "acquirer.ids.generator", havingValue = "uuid")
+public class RandomUuidGenerator implements TransactionIdGenerator {
+
+    @Override
+    public String nextId() {
+        return TimeOrderedIdGenerator.fromUuid(UUID.randomUUID());
+    }
+}
@@ -0,0 +1,86 @@
+package com.acquirer.service;
+
+import com.acquirer.entity.Transaction;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Queries allowed to run on a read replica
+ *
+ * A read-only transaction goes to a replica only while it runs one of these
+ * queries, so lookups that must see the latest state (idempotency keys,
+ * merchant reloads) keep reading from the primary. The transactions and
+ * merchants written during the last few seconds are remembered as well: a read
+ * about one of them stays on the primary, since a replica may not have replayed
+ * the write yet (read-your-writes). That memory is per instance, so the
+ * guarantee only holds for reads served by the instance that made the write.
+ * Does nothing while replicas are disabled.
+ */
+@Component
+public class ReplicaReads {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+    private static final String MERCHANT_PREFIX = "merchant:";
+
+    // Null while replicas are disabled
+    private final Cache<String, Boolean> recentWrites;
+
+    public ReplicaReads(@Value("${acquirer.read-replicas.enabled:false}") boolean enabled,
+                        @Value("${acquirer.read-replicas.read-your-writes-window:5s}") Duration window,
+                        @Value("${acquirer.read-replicas.read-your-writes-size:100000}") long maximumSize) {
+        this.recentWrites = enabled
+                ? Caffeine.newBuilder().expireAfterWrite(window).maximumSize(maximumSize).build()
+                : null;
+    }
+
+    /**
+     * Remember a transaction that was just written, and its merchant
+     */
+    public void recordWrite(Transaction transaction) {
+        if (recentWrites == null) {
+            return;
+        }
+        recentWrites.put(transaction.getTransactionId(), Boolean.TRUE);
+        recentWrites.put(MERCHANT_PREFIX + transaction.getMerchantId(), Boolean.TRUE);
+    }
+
+    /**
+     * Run a read of one transaction, on a replica unless it was written within the window
+     */
+    public <T> T readTransaction(String transactionId, Supplier<T> query) {
+        return read(transactionId, query);
+    }
+
+    /**
+     * Run a read of a merchant's transactions, on a replica unless the merchant wrote within the window
+     *
+     * @param merchantId Merchant ID, or null for a read across merchants
+     */
+    public <T> T readMerchant(String merchantId, Supplier<T> query) {
+        return read(merchantId != null ? MERCHANT_PREFIX + merchantId : null, query);
+    }
+
+    /**
+     * @return Whether the current thread is running a query allowed on a replica
+     */
+    public static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+
+    private <T> T read(String key, Supplier<T> query) {
+        if (recentWrites == null || isActive() || (key != null && recentWrites.getIfPresent(key) != null)) {
+            return query.get();
+        }
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return query.get();
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+}
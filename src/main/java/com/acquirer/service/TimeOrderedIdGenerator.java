@@ -0,0 +1,164 @@
+package com.acquirer.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered 128-bit transaction IDs in the 26-character ULID text form
+ *
+ * Layout, most significant bits first: 48-bit Unix time in milliseconds,
+ * 16-bit sequence within the millisecond, 10-bit node ID and 54 random bits.
+ * IDs sort (as strings and as numbers) by creation time, so new primary keys
+ * are appended to the right edge of the index instead of splitting random
+ * pages. On one node they are strictly increasing, also if the clock moves
+ * back or more than 65536 IDs are issued in a millisecond. Replicas configured
+ * with distinct node IDs never issue the same ID. A node ID derived from the
+ * host name and process ID is only 10 bits of a hash, so two replicas share
+ * one with probability 1/1024 per pair; their IDs then rely on the 54 random
+ * bits alone. Deployments that need the guarantee set
+ * {@code acquirer.ids.require-node-id} so an unset node ID fails at startup.
+ * The random bits also keep IDs from being guessed from one another. Randomness comes from ThreadLocalRandom,
+ * not from the SecureRandom shared by {@link java.util.UUID#randomUUID()}.
+ */
+@Component
+@ConditionalOnProperty(name = "acquirer.ids.generator", havingValue = "time-ordered", matchIfMissing = true)
+@Slf4j
+public class TimeOrderedIdGenerator implements TransactionIdGenerator {
+
+    public static final int LENGTH = 26;
+    public static final int MAX_NODE_ID = 1023;
+
+    private static final int SEQUENCE_BITS = 16;
+    private static final int NODE_SHIFT = 54;
+    private static final long RANDOM_MASK = (1L << NODE_SHIFT) - 1;
+    // Crockford's base32: no I, L, O or U
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int TIMESTAMP_CHARS = 10;
+
+    private final long node;
+    // Time of the last ID in the upper 48 bits, its sequence in the lower 16
+    private final AtomicLong last = new AtomicLong();
+
+    /**
+     * @param nodeId Unique per replica, 0 to 1023; negative to derive it from the host name and process ID
+     */
+    public TimeOrderedIdGenerator(int nodeId) {
+        this(nodeId, false);
+    }
+
+    /**
+     * @param nodeId Unique per replica, 0 to 1023; negative to derive it from the host name and process ID
+     * @param requireNodeId Reject a negative node ID, for deployments with several replicas
+     */
+    @Autowired
+    public TimeOrderedIdGenerator(@Value("${acquirer.ids.node-id:-1}") int nodeId,
+                                  @Value("${acquirer.ids.require-node-id:false}") boolean requireNodeId) {
+        if (nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be at most " + MAX_NODE_ID + ": " + nodeId);
+        }
+        if (nodeId < 0 && requireNodeId) {
+            throw new IllegalArgumentException("acquirer.ids.node-id must be set to a value unique per replica, 0 to "
+                    + MAX_NODE_ID + ", when acquirer.ids.require-node-id is true");
+        }
+        int resolved = nodeId >= 0 ? nodeId
+                : Objects.hash(System.getenv("HOSTNAME"), ProcessHandle.current().pid()) & MAX_NODE_ID;
+        this.node = (long) resolved << NODE_SHIFT;
+        log.info("Time-ordered transaction IDs - node: {}", resolved);
+    }
+
+    @Override
+    public String nextId() {
+        return nextId(System.currentTimeMillis());
+    }
+
+    String nextId(long nowMillis) {
+        long state;
+        long next;
+        do {
+            state = last.get();
+            // Same millisecond or clock moved back: next sequence, carrying into the time bits when full
+            next = nowMillis > state >>> SEQUENCE_BITS ? nowMillis << SEQUENCE_BITS : state + 1;
+        } while (!last.compareAndSet(state, next));
+
+        return encode(next, node | (ThreadLocalRandom.current().nextLong() & RANDOM_MASK));
+    }
+
+    /**
+     * @param id ID issued by this generator
+     * @return Unix time in milliseconds encoded in the ID
+     */
+    public static long timestampOf(String id) {
+        if (id == null || id.length() != LENGTH) {
+            throw new IllegalArgumentException("Not a time-ordered transaction ID: " + id);
+        }
+        long timestamp = 0;
+        for (int i = 0; i < TIMESTAMP_CHARS; i++) {
+            int value = decode(id.charAt(i));
+            if (value < 0) {
+                throw new IllegalArgumentException("Not a time-ordered transaction ID: " + id);
+            }
+            timestamp = (timestamp << 5) | value;
+        }
+        return timestamp;
+    }
+
+    /**
+     * @return The smallest ID that can be issued at the given time, for range scans by creation time
+     */
+    public static String lowerBound(long timestampMillis) {
+        return encode(timestampMillis << SEQUENCE_BITS, 0);
+    }
+
+    /**
+     * @param id Transaction ID as given by a client
+     * @return The ID as stored: a 36-character UUID, as issued before IDs were
+     *         stored in 26 characters, in the text of {@link #fromUuid}; any other ID unchanged
+     */
+    public static String canonical(String id) {
+        if (id == null || id.length() != 36) {
+            return id;
+        }
+        try {
+            return fromUuid(UUID.fromString(id));
+        } catch (IllegalArgumentException e) {
+            return id;
+        }
+    }
+
+    /**
+     * @return The 128 bits of the UUID in the same 26-character text as the time-ordered IDs
+     */
+    public static String fromUuid(UUID uuid) {
+        return encode(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    private static String encode(long high, long low) {
+        char[] chars = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) low & 31];
+            low = (low >>> 5) | (high << 59);
+            high >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    private static int decode(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        for (int i = 10; i < ALPHABET.length; i++) {
+            if (ALPHABET[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
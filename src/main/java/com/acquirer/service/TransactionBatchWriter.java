@@ -0,0 +1,110 @@
+package com.acquirer.service;
+
+import com.acquirer.entity.Transaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.IncorrectUpdateSemanticsDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC batch inserts and status updates of transaction rows
+ *
+ * Runs in the caller's transaction. Timestamps must already be set on the
+ * transactions, since entity lifecycle callbacks do not apply here. Updates
+ * match on created_at as well as the ID, so a partitioned table only touches
+ * the partition holding the row. A batch in which any statement matches no
+ * row fails as a whole.
+ *
+ * When the {@link PaymentOutbox} is enabled, the outcome events of rows
+ * written with a final status go into the outbox in the same transaction,
+ * which is started here if the caller has none.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransactionBatchWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO transactions (transaction_id, merchant_id, amount, "
+            + "currency, card_token, card_expiry, operation_type, status, response_code, issuer_response, "
+            + "rejection_reason, issuer_latency_ms, created_at, updated_at, processed_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL = "UPDATE transactions SET status = ?, response_code = ?, "
+            + "issuer_response = ?, rejection_reason = ?, issuer_latency_ms = ?, updated_at = ?, processed_at = ? "
+            + "WHERE transaction_id = ? AND created_at = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PaymentOutbox outbox;
+
+    /**
+     * Insert new transaction rows in one JDBC batch
+     */
+    public void insertAll(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(transactions.size());
+        for (Transaction t : transactions) {
+            rows.add(new Object[]{
+                    t.getTransactionId(), t.getMerchantId(), t.getAmount(), t.getCurrency(),
+                    t.getCardToken(), t.getCardExpiry(), t.getOperationType(), t.getStatus().name(),
+                    t.getResponseCode(), t.getIssuerResponse(), t.getRejectionReason(), t.getIssuerLatencyMs(),
+                    timestamp(t.getCreatedAt()), timestamp(t.getUpdatedAt()), timestamp(t.getProcessedAt())});
+        }
+        write(INSERT_SQL, rows, transactions);
+    }
+
+    /**
+     * Update the status columns of existing transaction rows in one JDBC batch
+     */
+    public void updateAll(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(transactions.size());
+        for (Transaction t : transactions) {
+            rows.add(new Object[]{
+                    t.getStatus().name(), t.getResponseCode(), t.getIssuerResponse(), t.getRejectionReason(),
+                    t.getIssuerLatencyMs(), timestamp(t.getUpdatedAt()), timestamp(t.getProcessedAt()), t.getTransactionId(),
+                    timestamp(t.getCreatedAt())});
+        }
+        write(UPDATE_SQL, rows, transactions);
+    }
+
+    private void write(String sql, List<Object[]> rows, List<Transaction> transactions) {
+        if (!outbox.isEnabled()) {
+            requireEveryRow(jdbcTemplate.batchUpdate(sql, rows), transactions);
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            requireEveryRow(jdbcTemplate.batchUpdate(sql, rows), transactions);
+            outbox.append(transactions);
+        });
+    }
+
+    /**
+     * Fail the whole batch, and with it the transaction holding its outbox
+     * events, if any statement matched no row
+     */
+    private static void requireEveryRow(int[] counts, List<Transaction> transactions) {
+        for (int i = 0; i < counts.length; i++) {
+            // Drivers may report SUCCESS_NO_INFO instead of a row count
+            if (counts[i] == 0 || counts[i] == Statement.EXECUTE_FAILED) {
+                throw new IncorrectUpdateSemanticsDataAccessException("Transaction "
+                        + transactions.get(i).getTransactionId() + " matched no row; batch of "
+                        + transactions.size() + " not written");
+            }
+        }
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+}
@@ -0,0 +1,213 @@
+package com.acquirer.service;
+
+import com.acquirer.dto.TransactionExportRecord;
+import com.acquirer.entity.Transaction;
+import com.acquirer.entity.Transaction.TransactionStatus;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Streams transactions for reconciliation straight from a database cursor
+ *
+ * Rows are read with a fixed JDBC fetch size, written to the output as soon as
+ * they arrive and detached from the persistence context right after, so heap use
+ * does not depend on how many rows are exported.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String CSV_HEADER = "transaction_id,merchant_id,amount,currency,masked_card,"
+            + "operation_type,status,response_code,rejection_reason,created_at,processed_at";
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final ReplicaReads replicaReads;
+
+    @Value("${acquirer.export.fetch-size:500}")
+    private int fetchSize;
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Write every transaction matching the filters, oldest first
+     *
+     * @param merchantId Optional merchant filter
+     * @param status Optional status filter
+     * @param from Optional lower bound (inclusive) on the creation time
+     * @param to Optional upper bound (exclusive) on the creation time
+     * @param format Output format
+     * @param output Stream to write to; flushed but not closed
+     * @return Number of exported transactions
+     */
+    @Transactional(readOnly = true)
+    public long export(String merchantId, TransactionStatus status, LocalDateTime from, LocalDateTime to,
+                       Format format, OutputStream output) throws IOException {
+        log.info("Exporting transactions - Merchant: {}, Status: {}, From: {}, To: {}, Format: {}",
+                merchantId, status, from, to, format);
+
+        BufferedOutputStream buffered = new BufferedOutputStream(output, BUFFER_SIZE);
+        long exported;
+        try (Stream<Transaction> rows = replicaReads.readMerchant(merchantId,
+                () -> query(merchantId, status, from, to).getResultStream())) {
+            exported = format == Format.CSV ? writeCsv(rows, buffered) : writeNdjson(rows, buffered);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        buffered.flush();
+
+        log.info("Exported {} transactions", exported);
+        return exported;
+    }
+
+    private TypedQuery<Transaction> query(String merchantId, TransactionStatus status,
+                                          LocalDateTime from, LocalDateTime to) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Transaction> criteria = cb.createQuery(Transaction.class);
+        Root<Transaction> root = criteria.from(Transaction.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (merchantId != null) {
+            predicates.add(cb.equal(root.get("merchantId"), merchantId));
+        }
+        if (status != null) {
+            predicates.add(cb.equal(root.get("status"), status));
+        }
+        if (from != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), from));
+        }
+        if (to != null) {
+            predicates.add(cb.lessThan(root.get("createdAt"), to));
+        }
+
+        criteria.select(root)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(root.get("createdAt")), cb.asc(root.get("transactionId")));
+
+        return entityManager.createQuery(criteria)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+    }
+
+    private long writeNdjson(Stream<Transaction> rows, OutputStream output) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(TransactionExportRecord.class);
+        long[] count = {0};
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // One JSON document per line, no separator before the first
+            generator.setPrettyPrinter(new MinimalPrettyPrinter(""));
+            rows.forEach(detachAfter(record -> {
+                writer.writeValue(generator, record);
+                generator.writeRaw('\n');
+                count[0]++;
+            }));
+        }
+        return count[0];
+    }
+
+    private long writeCsv(Stream<Transaction> rows, OutputStream output) throws IOException {
+        Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        long[] count = {0};
+        rows.forEach(detachAfter(record -> {
+            writer.write(String.join(",",
+                    csv(record.transactionId()),
+                    csv(record.merchantId()),
+                    csv(record.amount() != null ? record.amount().toPlainString() : null),
+                    csv(record.currency()),
+                    csv(record.maskedCard()),
+                    csv(record.operationType()),
+                    csv(record.status()),
+                    csv(record.responseCode()),
+                    csv(record.rejectionReason()),
+                    csv(record.createdAt()),
+                    csv(record.processedAt())));
+            writer.write('\n');
+            count[0]++;
+        }));
+        writer.flush();
+        return count[0];
+    }
+
+    /**
+     * Convert each row, hand it to the writer and drop it from the persistence context
+     */
+    private Consumer<Transaction> detachAfter(RecordWriter writer) {
+        return transaction -> {
+            try {
+                writer.write(TransactionExportRecord.from(transaction));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                entityManager.detach(transaction);
+            }
+        };
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = Objects.toString(value);
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(TransactionExportRecord record) throws IOException;
+    }
+}
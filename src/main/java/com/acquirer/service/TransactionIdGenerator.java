@@ -0,0 +1,16 @@
+package com.acquirer.service;
+
+/**
+ * Source of the IDs assigned to new transactions
+ *
+ * Selected with {@code acquirer.ids.generator}: {@code time-ordered}
+ * ({@link TimeOrderedIdGenerator}, the default) or {@code uuid}
+ * ({@link RandomUuidGenerator}).
+ */
+public interface TransactionIdGenerator {
+
+    /**
+     * @return A new, unique transaction ID
+     */
+    String nextId();
+}
@@ -0,0 +1,258 @@
+package com.acquirer.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Range partitioning of the transactions table by created_at (PostgreSQL)
+ *
+ * At startup and then on a schedule, creates the partitions for the current
+ * and the next {@code premake} days or months, and detaches or drops the
+ * partitions that ended before the retention period. A row whose creation
+ * time falls outside every range partition lands in {@code transactions_default}.
+ *
+ * An empty unpartitioned table (as created by the migrations on a new database)
+ * is converted in place, keeping its indexes; a table that already holds rows must be converted with
+ * {@code db/partitioning/convert-transactions.sql}, since that copies the data.
+ */
+@Component
+@ConditionalOnProperty(name = "acquirer.partitioning.enabled", havingValue = "true")
+@Slf4j
+public class TransactionPartitionManager implements SmartInitializingSingleton {
+
+    /** Time span covered by each partition */
+    public enum Interval {
+        DAILY(DateTimeFormatter.BASIC_ISO_DATE),
+        MONTHLY(DateTimeFormatter.ofPattern("yyyyMM"));
+
+        private final DateTimeFormatter suffix;
+
+        Interval(DateTimeFormatter suffix) {
+            this.suffix = suffix;
+        }
+
+        LocalDate start(LocalDate date) {
+            return this == DAILY ? date : date.withDayOfMonth(1);
+        }
+
+        LocalDate next(LocalDate start) {
+            return this == DAILY ? start.plusDays(1) : start.plusMonths(1);
+        }
+
+        String suffix(LocalDate start) {
+            return suffix.format(start);
+        }
+
+        LocalDate parse(String suffix) {
+            return this == DAILY
+                    ? LocalDate.parse(suffix, this.suffix)
+                    : LocalDate.parse(suffix + "01", DateTimeFormatter.BASIC_ISO_DATE);
+        }
+    }
+
+    /** What to do with a partition older than the retention period */
+    public enum RetentionAction {
+        DETACH,
+        DROP
+    }
+
+    /**
+     * One range partition, covering [from, to)
+     */
+    record Partition(String name, LocalDate from, LocalDate to) {
+    }
+
+    static final String TABLE = "transactions";
+    static final String DEFAULT_PARTITION = TABLE + "_default";
+    private static final String PARTITION_PREFIX = TABLE + "_p";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Interval interval;
+    private final int premake;
+    private final Duration retention;
+    private final RetentionAction retentionAction;
+
+    public TransactionPartitionManager(JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${acquirer.partitioning.interval:DAILY}") Interval interval,
+                                       @Value("${acquirer.partitioning.premake:7}") int premake,
+                                       @Value("${acquirer.partitioning.retention:0d}") Duration retention,
+                                       @Value("${acquirer.partitioning.retention-action:DETACH}") RetentionAction retentionAction) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.interval = interval;
+        this.premake = premake;
+        this.retention = retention;
+        this.retentionAction = retentionAction;
+    }
+
+    /**
+     * Bring the partitions up to date before the service takes traffic
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        String database = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            log.warn("Transaction partitioning needs PostgreSQL, {} found; partitions are not managed", database);
+            return;
+        }
+        maintain();
+    }
+
+    /**
+     * Create the upcoming partitions and retire the expired ones
+     */
+    @Scheduled(cron = "${acquirer.partitioning.maintenance-cron:0 5 * * * *}")
+    public void maintain() {
+        try {
+            if (!ensurePartitioned()) {
+                return;
+            }
+            List<String> statements = maintenanceStatements(LocalDate.now(), existingPartitions());
+            for (String statement : statements) {
+                jdbcTemplate.execute(statement);
+                log.info("Partition maintenance: {}", statement);
+            }
+        } catch (RuntimeException e) {
+            log.error("Partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @param today Current date
+     * @param existing Names of the partitions already attached to the table
+     * @return DDL that creates the missing partitions and retires the expired ones
+     */
+    List<String> maintenanceStatements(LocalDate today, Collection<String> existing) {
+        List<String> statements = new ArrayList<>();
+        if (!existing.contains(DEFAULT_PARTITION)) {
+            statements.add("CREATE TABLE " + DEFAULT_PARTITION + " PARTITION OF " + TABLE + " DEFAULT");
+        }
+        for (Partition partition : upcomingPartitions(today)) {
+            if (!existing.contains(partition.name())) {
+                statements.add(String.format("CREATE TABLE %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                        partition.name(), TABLE, partition.from(), partition.to()));
+            }
+        }
+        for (String name : existing) {
+            Optional<Partition> partition = parse(name);
+            if (partition.isPresent() && isExpired(partition.get(), today)) {
+                statements.add(retentionAction == RetentionAction.DROP
+                        ? "DROP TABLE " + name
+                        : "ALTER TABLE " + TABLE + " DETACH PARTITION " + name);
+            }
+        }
+        return statements;
+    }
+
+    /**
+     * @return Partitions for the current interval and the next {@code premake} ones
+     */
+    List<Partition> upcomingPartitions(LocalDate today) {
+        List<Partition> partitions = new ArrayList<>(premake + 1);
+        LocalDate from = interval.start(today);
+        for (int i = 0; i <= premake; i++) {
+            LocalDate to = interval.next(from);
+            partitions.add(new Partition(PARTITION_PREFIX + interval.suffix(from), from, to));
+            from = to;
+        }
+        return partitions;
+    }
+
+    /**
+     * A partition expires once all of its rows are older than the retention period
+     */
+    boolean isExpired(Partition partition, LocalDate today) {
+        if (retention.isZero() || retention.isNegative()) {
+            return false;
+        }
+        return !partition.to().isAfter(today.minusDays(retention.toDays()));
+    }
+
+    /**
+     * @return The range of a partition created by this manager, or empty for any other table
+     */
+    Optional<Partition> parse(String name) {
+        if (!name.startsWith(PARTITION_PREFIX)) {
+            return Optional.empty();
+        }
+        try {
+            LocalDate from = interval.parse(name.substring(PARTITION_PREFIX.length()));
+            return Optional.of(new Partition(name, from, interval.next(from)));
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    private List<String> existingPartitions() {
+        return jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i "
+                + "JOIN pg_class c ON c.oid = i.inhrelid "
+                + "WHERE i.inhparent = to_regclass('" + TABLE + "')", String.class);
+    }
+
+    /**
+     * @return CREATE INDEX statements of the table's indexes other than the primary key
+     */
+    private List<String> indexDefinitions() {
+        return jdbcTemplate.queryForList("SELECT pg_get_indexdef(i.indexrelid) FROM pg_index i "
+                + "WHERE i.indrelid = to_regclass('" + TABLE + "') AND NOT i.indisprimary", String.class);
+    }
+
+    /**
+     * @return Whether the table is partitioned, converting it first if it is still empty
+     */
+    private boolean ensurePartitioned() {
+        String kind = jdbcTemplate.queryForObject(
+                "SELECT (SELECT relkind::text FROM pg_class WHERE oid = to_regclass('" + TABLE + "'))", String.class);
+        if ("p".equals(kind)) {
+            return true;
+        }
+        if (kind == null) {
+            log.warn("The {} table does not exist; partitions are not managed", TABLE);
+            return false;
+        }
+        Boolean converted = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("LOCK TABLE " + TABLE + " IN ACCESS EXCLUSIVE MODE");
+            Boolean empty = jdbcTemplate.queryForObject(
+                    "SELECT NOT EXISTS (SELECT 1 FROM " + TABLE + ")", Boolean.class);
+            if (!Boolean.TRUE.equals(empty)) {
+                return false;
+            }
+            List<String> indexes = indexDefinitions();
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME TO " + TABLE + "_unpartitioned");
+            jdbcTemplate.execute("CREATE TABLE " + TABLE + " (LIKE " + TABLE + "_unpartitioned "
+                    + "INCLUDING DEFAULTS INCLUDING CONSTRAINTS) PARTITION BY RANGE (created_at)");
+            // Dropped first to free the index names; the partition key must be part of the primary key
+            jdbcTemplate.execute("DROP TABLE " + TABLE + "_unpartitioned");
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD PRIMARY KEY (transaction_id, created_at)");
+            indexes.forEach(jdbcTemplate::execute);
+            return true;
+        });
+        if (Boolean.TRUE.equals(converted)) {
+            log.info("Converted the empty {} table to range partitioning on created_at", TABLE);
+            return true;
+        }
+        log.warn("The {} table holds rows and is not partitioned; convert it with "
+                + "db/partitioning/convert-transactions.sql during a maintenance window", TABLE);
+        return false;
+    }
+}
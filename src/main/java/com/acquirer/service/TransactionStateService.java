@@ -0,0 +1,154 @@
+package com.acquirer.service;
+
+import com.acquirer.entity.Transaction;
+import com.acquirer.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Persists the state transitions of a payment.
+ *
+ * Each write commits in its own short transaction so that no database
+ * connection is held while the payment waits on the issuer. The final status
+ * is a plain JDBC update keyed by ID and created_at, which needs no select of
+ * the row first and lets a partitioned table prune to one partition. When the write-behind stage is enabled, writes are handed to it
+ * instead and grouped with those of other payments into JDBC batches.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionStateService {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionBatchWriter batchWriter;
+    private final MerchantStatistics merchantStatistics;
+    private final ReplicaReads replicaReads;
+    private final Optional<TransactionWriteBehind> writeBehind;
+
+    /**
+     * Commit the initial PENDING record
+     *
+     * @param transaction Transaction in PENDING status
+     * @return Persisted transaction
+     */
+    public Transaction createPending(Transaction transaction) {
+        if (writeBehind.isPresent()) {
+            return createPendingAsync(transaction, Runnable::run).join();
+        }
+        Transaction saved = transactionRepository.save(transaction);
+        replicaReads.recordWrite(saved);
+        log.debug("Transaction created with PENDING status");
+        return saved;
+    }
+
+    /**
+     * Commit the final status (APPROVED, DECLINED or ERROR) of a transaction
+     *
+     * @param transaction Transaction with its final status set
+     * @return Persisted transaction
+     */
+    public Transaction finalizeTransaction(Transaction transaction) {
+        if (writeBehind.isPresent()) {
+            return finalizeTransactionAsync(transaction, Runnable::run).join();
+        }
+        transaction.setUpdatedAt(LocalDateTime.now());
+        batchWriter.updateAll(List.of(transaction));
+        replicaReads.recordWrite(transaction);
+        merchantStatistics.record(transaction);
+        return transaction;
+    }
+
+    /**
+     * Commit the initial PENDING record without blocking the caller
+     *
+     * @param transaction Transaction in PENDING status
+     * @param executor Executor for the write when write-behind is disabled
+     * @return Future completed with the persisted transaction
+     */
+    public CompletableFuture<Transaction> createPendingAsync(Transaction transaction, Executor executor) {
+        if (writeBehind.isEmpty()) {
+            return CompletableFuture.supplyAsync(() -> createPending(transaction), executor);
+        }
+        LocalDateTime now = Transaction.now();
+        transaction.setCreatedAt(now);
+        transaction.setUpdatedAt(now);
+        return writeBehind.get().insert(transaction).thenApply(committed -> {
+            replicaReads.recordWrite(transaction);
+            log.debug("Transaction created with PENDING status");
+            return transaction;
+        });
+    }
+
+    /**
+     * Commit the final status of a transaction without blocking the caller
+     *
+     * @param transaction Transaction with its final status set
+     * @param executor Executor for the write when write-behind is disabled
+     * @return Future completed with the persisted transaction
+     */
+    public CompletableFuture<Transaction> finalizeTransactionAsync(Transaction transaction, Executor executor) {
+        if (writeBehind.isEmpty()) {
+            return CompletableFuture.supplyAsync(() -> finalizeTransaction(transaction), executor);
+        }
+        transaction.setUpdatedAt(LocalDateTime.now());
+        return writeBehind.get().update(transaction).thenApply(committed -> {
+            replicaReads.recordWrite(transaction);
+            merchantStatistics.record(transaction);
+            return transaction;
+        });
+    }
+
+    /**
+     * Commit the initial records of a payment batch with one JDBC batch insert
+     *
+     * @param transactions Transactions in PENDING (or already final) status
+     */
+    @Transactional
+    public void createAll(List<Transaction> transactions) {
+        LocalDateTime now = Transaction.now();
+        for (Transaction transaction : transactions) {
+            transaction.setCreatedAt(now);
+            transaction.setUpdatedAt(now);
+        }
+        batchWriter.insertAll(transactions);
+        transactions.forEach(replicaReads::recordWrite);
+        // Items rejected by a business rule are inserted already final
+        recordAfterCommit(transactions);
+        log.debug("{} transactions created", transactions.size());
+    }
+
+    /**
+     * Commit the final status of a payment batch with one JDBC batch update
+     *
+     * @param transactions Transactions with their final status set
+     */
+    @Transactional
+    public void finalizeAll(List<Transaction> transactions) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Transaction transaction : transactions) {
+            transaction.setUpdatedAt(now);
+        }
+        batchWriter.updateAll(transactions);
+        transactions.forEach(replicaReads::recordWrite);
+        recordAfterCommit(transactions);
+    }
+
+    private void recordAfterCommit(List<Transaction> transactions) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                transactions.forEach(merchantStatistics::record);
+            }
+        });
+    }
+}
@@ -0,0 +1,220 @@
+package com.acquirer.service;
+
+import com.acquirer.entity.Transaction;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind stage that groups transaction writes from concurrent payments
+ * into JDBC batches committed together (group commit)
+ *
+ * A batch is flushed when it reaches the configured size or when its oldest
+ * write has waited for the configured linger time. The future returned to each
+ * caller completes only after the batch holding its write has been committed.
+ */
+@Component
+@ConditionalOnProperty(name = "acquirer.persistence.write-behind.enabled", havingValue = "true")
+@Slf4j
+public class TransactionWriteBehind implements SmartLifecycle {
+
+    private final TransactionBatchWriter batchWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final DistributionSummary batchSizes;
+    private final int batchSize;
+    private final long maxLingerNanos;
+    private final BlockingQueue<PendingWrite> queue;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public TransactionWriteBehind(TransactionBatchWriter batchWriter,
+                                  TransactionTemplate transactionTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${acquirer.persistence.write-behind.batch-size:100}") int batchSize,
+                                  @Value("${acquirer.persistence.write-behind.max-linger:5ms}") Duration maxLinger,
+                                  @Value("${acquirer.persistence.write-behind.queue-capacity:10000}") int queueCapacity) {
+        this.batchWriter = batchWriter;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxLingerNanos = maxLinger.toNanos();
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.batchSizes = DistributionSummary.builder("acquirer.writebehind.batch.size")
+                .description("Transaction writes committed per JDBC batch")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue the insert of a new transaction
+     *
+     * @param transaction Transaction with its timestamps set
+     * @return Future completed once the insert is committed
+     */
+    public CompletableFuture<Void> insert(Transaction transaction) {
+        return enqueue(new PendingWrite(true, transaction, new CompletableFuture<>()));
+    }
+
+    /**
+     * Queue the status update of an existing transaction
+     *
+     * @param transaction Transaction with its final status set
+     * @return Future completed once the update is committed
+     */
+    public CompletableFuture<Void> update(Transaction transaction) {
+        return enqueue(new PendingWrite(false, transaction, new CompletableFuture<>()));
+    }
+
+    private CompletableFuture<Void> enqueue(PendingWrite write) {
+        if (!running) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Write-behind stage is not running"));
+        }
+        try {
+            queue.put(write);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        // Stopped while queueing: the writer may already have made its last pass over the queue
+        if (!running && queue.remove(write)) {
+            write.result().completeExceptionally(new IllegalStateException("Write-behind stage is not running"));
+        }
+        return write.result();
+    }
+
+    private void runWriter() {
+        try {
+            drainWhileRunning();
+        } finally {
+            flushLeftovers();
+        }
+    }
+
+    private void drainWhileRunning() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxLingerNanos;
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingWrite next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                flush(batch);
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Write whatever is still queued when the writer exits, so no caller waits forever
+     */
+    private void flushLeftovers() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            write(batch);
+            batchSizes.record(batch.size());
+            batch.forEach(write -> write.result().complete(null));
+        } catch (RuntimeException e) {
+            log.warn("Batch of {} transaction writes failed, retrying individually: {}", batch.size(), e.getMessage());
+            for (PendingWrite write : batch) {
+                try {
+                    write(List.of(write));
+                    batchSizes.record(1);
+                    write.result().complete(null);
+                } catch (RuntimeException single) {
+                    write.result().completeExceptionally(single);
+                }
+            }
+        }
+    }
+
+    private void write(List<PendingWrite> batch) {
+        List<Transaction> inserts = new ArrayList<>();
+        List<Transaction> updates = new ArrayList<>();
+        for (PendingWrite write : batch) {
+            (write.insert() ? inserts : updates).add(write.transaction());
+        }
+
+        // Inserts go first so an update never precedes the row it targets
+        transactionTemplate.executeWithoutResult(status -> {
+            batchWriter.insertAll(inserts);
+            batchWriter.updateAll(updates);
+        });
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::runWriter, "transaction-write-behind");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Transaction write-behind started - batch size: {}, max linger: {} µs",
+                batchSize, TimeUnit.NANOSECONDS.toMicros(maxLingerNanos));
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Transaction write-behind stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Start before and stop after the web server, so in-flight payments can still
+     * flush. The web server starts and stops one step (1024) below its graceful
+     * shutdown phase, so this runs one step lower still.
+     */
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+    }
+
+    private record PendingWrite(boolean insert, Transaction transaction, CompletableFuture<Void> result) {
+    }
+}
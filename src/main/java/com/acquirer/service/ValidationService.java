@@ -1,13 +1,14 @@
 package com.acquirer.service;
 
-import com.acquirer.entity.Merchant;
+import com.acquirer.dto.MerchantSnapshot;
+import com.acquirer.util.CardTokens;
+import com.acquirer.util.Money;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.util.Arrays;
-import java.util.List;
 
 @Service
 @Slf4j
@@ -19,28 +20,114 @@ public class ValidationService {
     @Value("${acquirer.rules.blocked-card-patterns}")
     private String blockedCardPatterns;
 
+    @Value("${acquirer.rules.supported-currencies:USD,EUR,GBP,ARS,BRL}")
+    private String supportedCurrencyCodes;
+
+    @Value("${acquirer.rules.velocity.enabled:false}")
+    private boolean velocityEnabled;
+
+    @Value("${acquirer.rules.velocity.card.max-per-minute:10}")
+    private int cardMaxPerMinute;
+
+    @Value("${acquirer.rules.velocity.card.max-amount-per-hour:10000.00}")
+    private BigDecimal cardMaxAmountPerHour;
+
+    @Value("${acquirer.rules.velocity.card.capacity:1048576}")
+    private int cardCapacity;
+
+    @Value("${acquirer.rules.velocity.merchant.max-per-minute:30000}")
+    private int merchantMaxPerMinute;
+
+    @Value("${acquirer.rules.velocity.merchant.max-amount-per-hour:0}")
+    private BigDecimal merchantMaxAmountPerHour;
+
+    @Value("${acquirer.rules.velocity.merchant.capacity:4096}")
+    private int merchantCapacity;
+
+    private volatile BlockedCardMatcher blockedCardMatcher;
+    private CurrencySet supportedCurrencies;
+    private VelocityTracker cardVelocity;
+    private VelocityTracker cardAmountVelocity;
+    private VelocityTracker merchantVelocity;
+    private VelocityTracker merchantAmountVelocity;
+    private long defaultMaxUnits;
+
+    @PostConstruct
+    void compileRules() {
+        supportedCurrencies = CurrencySet.of(supportedCurrencyCodes);
+        for (String currency : supportedCurrencies.getCodes()) {
+            if (Money.exponentOf(currency) < 0) {
+                throw new IllegalArgumentException("Supported currency without ISO 4217 minor units: " + currency);
+            }
+        }
+        defaultMaxUnits = Money.toScaledUnits(defaultMaxAmount);
+        blockedCardMatcher = BlockedCardMatcher.compile(blockedCardPatterns);
+        log.info("Blocked card patterns loaded - literals: {}, regexes: {}",
+                blockedCardMatcher.getLiteralCount(), blockedCardMatcher.getRegexCount());
+
+        if (velocityEnabled) {
+            // Counts are kept per card or merchant, amounts per card or merchant and currency
+            cardVelocity = new VelocityTracker(cardCapacity, cardMaxPerMinute, 0);
+            cardAmountVelocity = amountTracker(cardCapacity, cardMaxAmountPerHour);
+            merchantVelocity = new VelocityTracker(merchantCapacity, merchantMaxPerMinute, 0);
+            merchantAmountVelocity = amountTracker(merchantCapacity, merchantMaxAmountPerHour);
+            long footprint = cardVelocity.getFootprintBytes()
+                    + (cardAmountVelocity == null ? 0 : cardAmountVelocity.getFootprintBytes());
+            log.info("Velocity checks enabled - card: {}/min, {}/h per currency ({} MB); merchant: {}/min, {}/h per currency",
+                    cardMaxPerMinute, cardMaxAmountPerHour, footprint >> 20,
+                    merchantMaxPerMinute, merchantMaxAmountPerHour);
+        }
+    }
+
+    private static VelocityTracker amountTracker(int capacity, BigDecimal maxAmountPerHour) {
+        long maxUnits = Money.toScaledUnits(maxAmountPerHour);
+        return maxUnits > 0 ? new VelocityTracker(capacity, 0, maxUnits) : null;
+    }
+
+    /**
+     * Replace the blocked card patterns without a restart
+     * 
+     * @param patterns Comma-separated regular expressions
+     * @return The newly active matcher
+     * @throws IllegalArgumentException if any pattern is invalid; the current patterns stay active
+     */
+    public BlockedCardMatcher reloadBlockedCardPatterns(String patterns) {
+        BlockedCardMatcher matcher = BlockedCardMatcher.compile(patterns);
+        blockedCardMatcher = matcher;
+        log.info("Blocked card patterns reloaded - literals: {}, regexes: {}",
+                matcher.getLiteralCount(), matcher.getRegexCount());
+        return matcher;
+    }
+
+    public BlockedCardMatcher getBlockedCardMatcher() {
+        return blockedCardMatcher;
+    }
+
     /**
      * Validate amount against merchant limits
      * 
      * @param amount Transaction amount
-     * @param merchant Merchant entity
+     * @param merchant Merchant snapshot
      * @return Validation result with reason if invalid
      */
-    public ValidationResult validateAmount(BigDecimal amount, Merchant merchant) {
-        BigDecimal maxAmount = merchant.getMaxTransactionAmount() != null 
-                ? merchant.getMaxTransactionAmount() 
-                : defaultMaxAmount;
+    public ValidationResult validateAmount(Money amount, MerchantSnapshot merchant) {
+        long maxUnits = merchant.maxTransactionAmount() != null 
+                ? merchant.maxTransactionUnits() 
+                : defaultMaxUnits;
 
-        if (amount.compareTo(maxAmount) > 0) {
+        if (amount.scaledUnits() > maxUnits) {
+            BigDecimal maxAmount = merchant.maxTransactionAmount() != null 
+                    ? merchant.maxTransactionAmount() 
+                    : defaultMaxAmount;
             String reason = String.format("Amount %.2f exceeds merchant limit %.2f", 
-                                        amount, maxAmount);
-            log.warn("Amount validation failed for merchant {}: {}", 
-                    merchant.getMerchantId(), reason);
+                                        amount.toBigDecimal(), maxAmount);
+            log.debug("Amount validation failed for merchant {}: {}", 
+                    merchant.merchantId(), reason);
             return ValidationResult.invalid(reason);
         }
 
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            log.warn("Invalid amount for merchant {}: {}", merchant.getMerchantId(), amount);
+        if (!amount.isPositive()) {
+            log.debug("Invalid amount for merchant {}: {}", merchant.merchantId(), amount);
             return ValidationResult.invalid("Amount must be greater than zero");
         }
 
@@ -54,41 +141,104 @@ public class ValidationService {
      * @return Validation result with reason if invalid
      */
     public ValidationResult validateCardToken(String cardToken) {
-        if (cardToken == null || cardToken.trim().isEmpty()) {
+        if (cardToken == null || cardToken.isBlank()) {
             return ValidationResult.invalid("Card token is required");
         }
 
-        List<String> patterns = Arrays.asList(blockedCardPatterns.split(","));
-        
-        for (String pattern : patterns) {
-            if (cardToken.matches(pattern.trim())) {
-                log.warn("Card token matches blocked pattern: {}", maskCardToken(cardToken));
-                return ValidationResult.invalid("Card is blocked");
-            }
+        if (blockedCardMatcher.isBlocked(cardToken)) {
+            log.debug("Card token matches blocked pattern: {}", CardTokens.mask(cardToken));
+            return ValidationResult.invalid("Card is blocked");
         }
 
         return ValidationResult.valid();
     }
 
+    /**
+     * Validate currency against the supported ISO 4217 codes (case-insensitive)
+     * 
+     * @param currency Currency code
+     * @return Validation result with reason if invalid
+     */
     public ValidationResult validateCurrency(String currency) {
-        List<String> supportedCurrencies = Arrays.asList("USD", "EUR", "GBP", "ARS", "BRL");
-        
-        if (!supportedCurrencies.contains(currency.toUpperCase())) {
-            log.warn("Unsupported currency: {}", currency);
+        if (!supportedCurrencies.contains(currency)) {
+            log.debug("Unsupported currency: {}", currency);
             return ValidationResult.invalid("Currency not supported: " + currency);
         }
 
         return ValidationResult.valid();
     }
+    
+    /**
+     * Count the payment against the card and merchant velocity limits
+     * (transactions per minute and amount per hour in the payment's currency,
+     * over sliding windows). A rejected payment is not counted against any
+     * limit. Always valid when velocity checks are disabled.
+     * 
+     * @param merchantId Merchant ID
+     * @param cardToken Card token or hash
+     * @param amount Transaction amount
+     * @return Validation result with reason if a limit would be exceeded
+     */
+    public ValidationResult validateVelocity(String merchantId, String cardToken, Money amount) {
+        if (cardVelocity == null) {
+            return ValidationResult.valid();
+        }
+        // Scaled units are only summed with amounts in the same currency
+        long units = amount.scaledUnits();
+        long now = System.currentTimeMillis();
+        long cardKey = VelocityTracker.hash(cardToken);
+        long cardAmountKey = VelocityTracker.hash(cardToken, amount.currency());
+
+        VelocityTracker.Decision card = record(cardVelocity, cardAmountVelocity, cardKey, cardAmountKey, units, now);
+        if (card != VelocityTracker.Decision.ALLOWED) {
+            log.debug("Card velocity limit exceeded ({}): {}", card, CardTokens.mask(cardToken));
+            return ValidationResult.invalid(card == VelocityTracker.Decision.COUNT_EXCEEDED
+                    ? "Card velocity limit exceeded: more than " + cardMaxPerMinute + " transactions per minute"
+                    : "Card velocity limit exceeded: amount per hour above " + cardMaxAmountPerHour
+                            + " " + amount.currency());
+        }
+
+        VelocityTracker.Decision merchant = record(merchantVelocity, merchantAmountVelocity,
+                VelocityTracker.hash(merchantId), VelocityTracker.hash(merchantId, amount.currency()), units, now);
+        if (merchant != VelocityTracker.Decision.ALLOWED) {
+            release(cardVelocity, cardAmountVelocity, cardKey, cardAmountKey, units, now);
+            log.debug("Merchant velocity limit exceeded ({}): {}", merchant, merchantId);
+            return ValidationResult.invalid(merchant == VelocityTracker.Decision.COUNT_EXCEEDED
+                    ? "Merchant velocity limit exceeded: more than " + merchantMaxPerMinute + " transactions per minute"
+                    : "Merchant velocity limit exceeded: amount per hour above " + merchantMaxAmountPerHour
+                            + " " + amount.currency());
+        }
+
+        return ValidationResult.valid();
+    }
 
-    private String maskCardToken(String cardToken) {
-        if (cardToken == null || cardToken.length() < 4) {
-            return "****";
+    private static VelocityTracker.Decision record(VelocityTracker counts, VelocityTracker amounts,
+                                                   long countKey, long amountKey, long units, long now) {
+        VelocityTracker.Decision decision = counts.tryRecord(countKey, 0, now);
+        if (decision == VelocityTracker.Decision.ALLOWED && amounts != null) {
+            decision = amounts.tryRecord(amountKey, units, now);
+            if (decision != VelocityTracker.Decision.ALLOWED) {
+                counts.release(countKey, 0, now);
+            }
         }
-        return "**** " + cardToken.substring(cardToken.length() - 4);
+        return decision;
     }
-    
+
+    private static void release(VelocityTracker counts, VelocityTracker amounts,
+                                long countKey, long amountKey, long units, long now) {
+        counts.release(countKey, 0, now);
+        if (amounts != null) {
+            amounts.release(amountKey, units, now);
+        }
+    }
+
+    /**
+     * Outcome of a validation check. Successful checks share a single instance,
+     * so only rejections allocate.
+     */
     public static class ValidationResult {
+        private static final ValidationResult VALID = new ValidationResult(true, null);
+
         private final boolean valid;
         private final String reason;
 
@@ -98,7 +248,7 @@ public class ValidationService {
         }
 
         public static ValidationResult valid() {
-            return new ValidationResult(true, null);
+            return VALID;
         }
 
         public static ValidationResult invalid(String reason) {
@@ -0,0 +1,273 @@
+package com.acquirer.service;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed-size in-memory velocity counters keyed by a 64-bit hash
+ *
+ * For every key it keeps the number of transactions per minute and the amount
+ * per hour as approximate sliding windows: the count of the current window plus
+ * the previous window's count weighted by how much of it still overlaps the
+ * last 60 seconds (or minutes). Amounts are summed as given, so a key must
+ * only ever see amounts in one currency.
+ *
+ * Entries live in open-addressing tables of primitive longs split into
+ * segments, each guarded by its own lock. Lookups probe a bounded number of
+ * slots, so a check is O(1). When no probed slot is free or expired, the entry
+ * touched longest ago is evicted, so memory stays fixed at the configured
+ * capacity regardless of how many distinct keys are seen.
+ */
+public final class VelocityTracker {
+
+    /** Outcome of a velocity check */
+    public enum Decision {
+        ALLOWED,
+        COUNT_EXCEEDED,
+        AMOUNT_EXCEEDED
+    }
+
+    private static final long MILLIS_PER_MINUTE = 60_000;
+    private static final long MILLIS_PER_HOUR = 3_600_000;
+    private static final int SEGMENTS = 64;
+    private static final int MAX_PROBES = 8;
+
+    // Slot layout (40 bytes): key hash, windows (minute << 32 | hour), counts (current << 32 | previous),
+    // amount in the current hour, amount in the previous hour
+    private static final int STRIDE = 5;
+    private static final int KEY = 0;
+    private static final int WINDOWS = 1;
+    private static final int COUNTS = 2;
+    private static final int AMOUNT = 3;
+    private static final int PREVIOUS_AMOUNT = 4;
+
+    private final int maxPerMinute;
+    private final long maxAmountPerHour;
+    private final Segment[] segments;
+    private final int slotsPerSegment;
+
+    /**
+     * @param capacity Number of keys to track, rounded up to a power of two
+     * @param maxPerMinute Transactions allowed per key per minute, or 0 for no limit
+     * @param maxAmountPerHour Amount (in Money scaled units) allowed per key per hour, or 0 for no limit
+     */
+    public VelocityTracker(int capacity, int maxPerMinute, long maxAmountPerHour) {
+        this.maxPerMinute = maxPerMinute;
+        this.maxAmountPerHour = maxAmountPerHour;
+        int perSegment = Integer.highestOneBit(Math.max(MAX_PROBES, (capacity + SEGMENTS - 1) / SEGMENTS) - 1) << 1;
+        this.slotsPerSegment = perSegment;
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    /**
+     * Count a transaction for the key unless it would exceed a limit
+     *
+     * @param keyHash 64-bit hash of the card token or merchant ID (and currency, when limiting amounts)
+     * @param amount Transaction amount in Money scaled units
+     * @param nowMillis Current time in epoch milliseconds
+     * @return ALLOWED if the transaction was counted, otherwise the exceeded limit
+     */
+    public Decision tryRecord(long keyHash, long amount, long nowMillis) {
+        long key = keyHash == 0 ? 1 : keyHash;
+        long minute = nowMillis / MILLIS_PER_MINUTE;
+        long hour = nowMillis / MILLIS_PER_HOUR;
+        double minuteOverlap = 1.0 - (double) (nowMillis % MILLIS_PER_MINUTE) / MILLIS_PER_MINUTE;
+        double hourOverlap = 1.0 - (double) (nowMillis % MILLIS_PER_HOUR) / MILLIS_PER_HOUR;
+
+        Segment segment = segments[(int) (key >>> 58) & (SEGMENTS - 1)];
+        segment.lock.lock();
+        try {
+            long[] table = segment.table;
+            int slot = segment.find(key, minute, hour);
+
+            int current = 0;
+            int previous = 0;
+            long amountCurrent = 0;
+            long amountPrevious = 0;
+            if (table[slot + KEY] == key) {
+                long storedMinute = minuteOf(table[slot + WINDOWS]);
+                long counts = table[slot + COUNTS];
+                if (storedMinute == minute) {
+                    current = (int) (counts >>> 32);
+                    previous = (int) counts;
+                } else if (storedMinute == minute - 1) {
+                    previous = (int) (counts >>> 32);
+                }
+                long storedHour = hourOf(table[slot + WINDOWS]);
+                if (storedHour == hour) {
+                    amountCurrent = table[slot + AMOUNT];
+                    amountPrevious = table[slot + PREVIOUS_AMOUNT];
+                } else if (storedHour == hour - 1) {
+                    amountPrevious = table[slot + AMOUNT];
+                }
+            }
+
+            if (maxPerMinute > 0 && current + 1 + previous * minuteOverlap > maxPerMinute) {
+                return Decision.COUNT_EXCEEDED;
+            }
+            if (maxAmountPerHour > 0 && amountCurrent + amount + amountPrevious * hourOverlap > maxAmountPerHour) {
+                return Decision.AMOUNT_EXCEEDED;
+            }
+
+            table[slot + KEY] = key;
+            table[slot + WINDOWS] = (minute << 32) | hour;
+            table[slot + COUNTS] = ((long) (current + 1) << 32) | (previous & 0xFFFFFFFFL);
+            table[slot + AMOUNT] = amountCurrent + amount;
+            table[slot + PREVIOUS_AMOUNT] = amountPrevious;
+            return Decision.ALLOWED;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Take back a transaction counted by {@link #tryRecord} at the same time,
+     * when a later check rejects the payment. Nothing changes if the key's
+     * windows have moved on or its entry was evicted in between.
+     */
+    public void release(long keyHash, long amount, long nowMillis) {
+        long key = keyHash == 0 ? 1 : keyHash;
+        long windows = ((nowMillis / MILLIS_PER_MINUTE) << 32) | (nowMillis / MILLIS_PER_HOUR);
+
+        Segment segment = segments[(int) (key >>> 58) & (SEGMENTS - 1)];
+        segment.lock.lock();
+        try {
+            long[] table = segment.table;
+            int slot = segment.slotOf(key);
+            if (slot < 0 || table[slot + WINDOWS] != windows) {
+                return;
+            }
+            long counts = table[slot + COUNTS];
+            int current = (int) (counts >>> 32);
+            if (current > 0) {
+                table[slot + COUNTS] = ((long) (current - 1) << 32) | (counts & 0xFFFFFFFFL);
+            }
+            table[slot + AMOUNT] = Math.max(0, table[slot + AMOUNT] - amount);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * @return Number of keys that fit in the tables
+     */
+    public long getCapacity() {
+        return (long) slotsPerSegment * SEGMENTS;
+    }
+
+    /**
+     * @return Bytes held by the counter tables
+     */
+    public long getFootprintBytes() {
+        return getCapacity() * STRIDE * Long.BYTES;
+    }
+
+    /**
+     * 64-bit hash of a string, without allocating
+     */
+    public static long hash(CharSequence value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        // Final avalanche so that similar tokens spread over segments and slots
+        return avalanche(h);
+    }
+
+    /**
+     * 64-bit hash of two strings joined by a separator, without allocating
+     */
+    public static long hash(CharSequence value, CharSequence qualifier) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= ':';
+        h *= 0x100000001b3L;
+        for (int i = 0; i < qualifier.length(); i++) {
+            h ^= qualifier.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return avalanche(h);
+    }
+
+    private static long avalanche(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static long minuteOf(long windows) {
+        return windows >>> 32;
+    }
+
+    private static long hourOf(long windows) {
+        return windows & 0xFFFFFFFFL;
+    }
+
+    private static final class Segment {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final long[] table;
+        private final int mask;
+
+        private Segment(int slots) {
+            this.table = new long[slots * STRIDE];
+            this.mask = slots - 1;
+        }
+
+        /**
+         * @return Offset of the key's slot, or -1 if it is not in the table
+         */
+        private int slotOf(long key) {
+            int home = (int) key & mask;
+            for (int probe = 0; probe < MAX_PROBES; probe++) {
+                int slot = ((home + probe) & mask) * STRIDE;
+                long stored = table[slot + KEY];
+                if (stored == key) {
+                    return slot;
+                }
+                if (stored == 0) {
+                    return -1;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * @return Offset of the key's slot, or of the slot to (re)use for it
+         */
+        private int find(long key, long minute, long hour) {
+            int home = (int) key & mask;
+            int victim = -1;
+            long victimAge = -1;
+            for (int probe = 0; probe < MAX_PROBES; probe++) {
+                int slot = ((home + probe) & mask) * STRIDE;
+                long stored = table[slot + KEY];
+                if (stored == key) {
+                    return slot;
+                }
+                if (stored == 0) {
+                    return victim >= 0 && victimAge == Long.MAX_VALUE ? victim : slot;
+                }
+                // Entries outside both windows no longer affect any decision
+                long windows = table[slot + WINDOWS];
+                long age = hourOf(windows) < hour - 1 && minuteOf(windows) < minute - 1
+                        ? Long.MAX_VALUE
+                        : minute - minuteOf(windows);
+                if (age > victimAge) {
+                    victim = slot;
+                    victimAge = age;
+                }
+            }
+            return victim;
+        }
+    }
+}
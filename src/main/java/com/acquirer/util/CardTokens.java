@@ -0,0 +1,23 @@
+package com.acquirer.util;
+
+/**
+ * Helpers to keep card tokens out of logs
+ */
+public final class CardTokens {
+
+    private CardTokens() {
+    }
+
+    /**
+     * Mask a card token, keeping only its last four characters
+     *
+     * @param cardToken Card token or hash
+     * @return Masked token, e.g. "**** 0366"
+     */
+    public static String mask(String cardToken) {
+        if (cardToken == null || cardToken.length() < 4) {
+            return "****";
+        }
+        return "**** " + cardToken.substring(cardToken.length() - 4);
+    }
+}
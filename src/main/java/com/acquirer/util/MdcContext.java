@@ -0,0 +1,45 @@
+package com.acquirer.util;
+
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Carries the MDC logging context (transactionId, merchantId) across threads
+ */
+public final class MdcContext {
+
+    private MdcContext() {
+    }
+
+    /**
+     * Wrap an executor so every task runs with the MDC context of the calling thread
+     * as it was when this method was invoked
+     *
+     * @param delegate Executor that runs the tasks
+     * @return Executor propagating the captured MDC context
+     */
+    public static Executor withCurrentContext(Executor delegate) {
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        return task -> delegate.execute(() -> runWithContext(context, task));
+    }
+
+    private static void runWithContext(Map<String, String> context, Runnable task) {
+        Map<String, String> previous = MDC.getCopyOfContextMap();
+        if (context != null) {
+            MDC.setContextMap(context);
+        } else {
+            MDC.clear();
+        }
+        try {
+            task.run();
+        } finally {
+            if (previous != null) {
+                MDC.setContextMap(previous);
+            } else {
+                MDC.clear();
+            }
+        }
+    }
+}
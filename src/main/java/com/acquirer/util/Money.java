@@ -0,0 +1,220 @@
+package com.acquirer.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Currency;
+
+/**
+ * Amount of money as a whole number of minor units of its currency
+ *
+ * The number of minor units per major unit follows the ISO 4217 exponent of
+ * the currency (2 for USD, 0 for JPY, 3 for KWD, 4 for CLF). Comparisons and
+ * sums are plain {@code long} arithmetic; BigDecimal is only used to convert
+ * at the JSON and database edges.
+ *
+ * Conversion from a decimal is exact by default: an amount with more decimals
+ * than its currency has (100.5 JPY, 10.001 USD) is rejected rather than
+ * silently rounded. A rounding mode can be given where rounding is intended.
+ */
+public final class Money implements Comparable<Money> {
+
+    /**
+     * Exponent of {@link #scaledUnits()}: the finest of any currency, so an amount in
+     * any currency can be compared with a currency-less limit. Scaled units of
+     * different currencies must not be summed; use {@link #plus(Money)}
+     */
+    public static final int SCALED_EXPONENT = 4;
+
+    /**
+     * Number of three-letter codes, the bound of {@link #currencyIndex(String)}
+     */
+    public static final int CURRENCY_CODE_SPACE = 26 * 26 * 26;
+
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000};
+    private static final int ALPHABET = 26;
+    // ISO 4217 exponent of every three-letter code, -1 if it is not a currency with minor units
+    private static final byte[] EXPONENTS = loadExponents();
+
+    private final long minorUnits;
+    private final String currency;
+    private final int exponent;
+
+    private Money(long minorUnits, String currency, int exponent) {
+        this.minorUnits = minorUnits;
+        this.currency = currency;
+        this.exponent = exponent;
+    }
+
+    /**
+     * @param amount Decimal amount, with at most as many decimals as the currency has
+     * @param currency ISO 4217 code (case-insensitive)
+     * @throws ArithmeticException if the amount has more decimals than the currency or does not fit
+     * @throws IllegalArgumentException if the currency is unknown
+     */
+    public static Money of(BigDecimal amount, String currency) {
+        return of(amount, currency, RoundingMode.UNNECESSARY);
+    }
+
+    /**
+     * @param amount Decimal amount
+     * @param currency ISO 4217 code (case-insensitive)
+     * @param rounding How to round decimals the currency does not have
+     * @throws ArithmeticException if rounding is UNNECESSARY and needed, or the amount does not fit
+     * @throws IllegalArgumentException if the currency is unknown
+     */
+    public static Money of(BigDecimal amount, String currency, RoundingMode rounding) {
+        int exponent = requireExponent(currency);
+        long minorUnits = amount.setScale(exponent, rounding).unscaledValue().longValueExact();
+        return new Money(minorUnits, currency.toUpperCase(), exponent);
+    }
+
+    /**
+     * @param minorUnits Amount in minor units (cents for USD, yen for JPY)
+     * @param currency ISO 4217 code (case-insensitive)
+     * @throws IllegalArgumentException if the currency is unknown
+     */
+    public static Money ofMinor(long minorUnits, String currency) {
+        return new Money(minorUnits, currency.toUpperCase(), requireExponent(currency));
+    }
+
+    /**
+     * @param currency ISO 4217 code (case-insensitive)
+     * @return Number of decimals of the currency, or -1 if it is unknown
+     */
+    public static int exponentOf(String currency) {
+        int index = currencyIndex(currency);
+        return index < 0 ? -1 : EXPONENTS[index];
+    }
+
+    /**
+     * Exact conversion of a currency-less decimal (a limit, a stored amount) to
+     * the units of {@link #scaledUnits()}, to compare with or add to them
+     *
+     * @throws ArithmeticException if the amount has more than 4 decimals or does not fit
+     */
+    public static long toScaledUnits(BigDecimal amount) {
+        return amount.setScale(SCALED_EXPONENT, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    /**
+     * @param scaledUnits Amount in units of {@link #scaledUnits()}
+     * @return The decimal amount, with at least 2 decimals and no trailing zeros beyond them
+     */
+    public static BigDecimal fromScaledUnits(long scaledUnits) {
+        BigDecimal amount = BigDecimal.valueOf(scaledUnits, SCALED_EXPONENT);
+        int scale = 2;
+        while (scale < SCALED_EXPONENT && scaledUnits % POWERS_OF_TEN[SCALED_EXPONENT - scale] != 0) {
+            scale++;
+        }
+        return amount.setScale(scale, RoundingMode.UNNECESSARY);
+    }
+
+    public long minorUnits() {
+        return minorUnits;
+    }
+
+    public String currency() {
+        return currency;
+    }
+
+    public int exponent() {
+        return exponent;
+    }
+
+    /**
+     * @return The amount in ten-thousandths of the major unit, whatever the currency
+     */
+    public long scaledUnits() {
+        return Math.multiplyExact(minorUnits, POWERS_OF_TEN[SCALED_EXPONENT - exponent]);
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the currencies differ
+     * @throws ArithmeticException on overflow
+     */
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency, exponent);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, exponent);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the currencies differ
+     */
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money other && minorUnits == other.minorUnits && currency.equals(other.currency);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(minorUnits) + currency.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency;
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " and " + other.currency);
+        }
+    }
+
+    private static int requireExponent(String currency) {
+        int exponent = exponentOf(currency);
+        if (exponent < 0) {
+            throw new IllegalArgumentException("Unknown currency: " + currency);
+        }
+        return exponent;
+    }
+
+    private static byte[] loadExponents() {
+        byte[] exponents = new byte[CURRENCY_CODE_SPACE];
+        Arrays.fill(exponents, (byte) -1);
+        for (Currency currency : Currency.getAvailableCurrencies()) {
+            int index = currencyIndex(currency.getCurrencyCode());
+            int digits = currency.getDefaultFractionDigits();
+            if (index >= 0 && digits >= 0 && digits <= SCALED_EXPONENT) {
+                exponents[index] = (byte) digits;
+            }
+        }
+        return exponents;
+    }
+
+    /**
+     * @param code Three-letter code (case-insensitive)
+     * @return Position of the code among all 26^3 three-letter codes, from 0 to
+     *         {@link #CURRENCY_CODE_SPACE} - 1, or -1 if it is not three letters
+     */
+    public static int currencyIndex(String code) {
+        if (code == null || code.length() != 3) {
+            return -1;
+        }
+        int index = 0;
+        for (int i = 0; i < 3; i++) {
+            char c = code.charAt(i);
+            int letter = c >= 'A' && c <= 'Z' ? c - 'A' : c >= 'a' && c <= 'z' ? c - 'a' : -1;
+            if (letter < 0) {
+                return -1;
+            }
+            index = index * ALPHABET + letter;
+        }
+        return index;
+    }
+}
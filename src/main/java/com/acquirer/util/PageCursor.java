@@ -0,0 +1,59 @@
+package com.acquirer.util;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque continuation token for keyset pagination over (createdAt, transactionId)
+ *
+ * The token is the URL-safe Base64 of the last row's keys, so clients can pass
+ * it back verbatim without depending on its contents.
+ */
+public final class PageCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private PageCursor() {
+    }
+
+    /**
+     * @param createdAt Creation time of the last row of the page
+     * @param transactionId ID of the last row of the page
+     * @return Token pointing right after that row
+     */
+    public static String encode(LocalDateTime createdAt, String transactionId) {
+        String keys = createdAt + String.valueOf(SEPARATOR) + transactionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(keys.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor Token from a previous page, or null for the first page
+     * @return Keyset position to continue scrolling from
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static KeysetScrollPosition decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String keys = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = keys.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == keys.length() - 1) {
+                throw new IllegalArgumentException("Invalid page cursor");
+            }
+            Map<String, Object> position = new LinkedHashMap<>();
+            position.put("createdAt", LocalDateTime.parse(keys.substring(0, separator)));
+            position.put("transactionId", keys.substring(separator + 1));
+            return ScrollPosition.forward(position);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid page cursor", e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package db.migration.common;
+
+import com.acquirer.service.TimeOrderedIdGenerator;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Stores transaction IDs as CHAR(26) instead of VARCHAR(255) / VARCHAR(36)
+ *
+ * Time-ordered IDs already are 26 characters. The 36-character random UUIDs
+ * issued before them are rewritten, in every table that holds them, to the
+ * same 128 bits in 26 characters ({@link TimeOrderedIdGenerator#fromUuid});
+ * lookups by the old form are translated the same way. Written in Java
+ * because neither engine has a base32 encoding to do it in SQL.
+ */
+public class V5__compact_transaction_ids extends BaseJavaMigration {
+
+    private static final List<String> TABLES = List.of("transactions", "idempotency_keys", "payment_outbox");
+    private static final int BATCH_SIZE = 1000;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        for (String table : TABLES) {
+            rewriteUuids(connection, table);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ALTER TABLE " + table + " ALTER COLUMN transaction_id SET DATA TYPE CHAR(26)");
+            }
+        }
+    }
+
+    private static void rewriteUuids(Connection connection, String table) throws SQLException {
+        List<String> uuids = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT DISTINCT transaction_id FROM " + table
+                     + " WHERE LENGTH(transaction_id) = 36")) {
+            while (rows.next()) {
+                uuids.add(rows.getString(1));
+            }
+        }
+        try (PreparedStatement update = connection.prepareStatement(
+                "UPDATE " + table + " SET transaction_id = ? WHERE transaction_id = ?")) {
+            for (int i = 0; i < uuids.size(); i++) {
+                update.setString(1, TimeOrderedIdGenerator.fromUuid(UUID.fromString(uuids.get(i))));
+                update.setString(2, uuids.get(i));
+                update.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0 || i == uuids.size() - 1) {
+                    update.executeBatch();
+                }
+            }
+        }
+    }
+}
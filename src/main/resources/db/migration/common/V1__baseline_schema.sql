@@ -0,0 +1,37 @@
+-- Schema of the first release, as Hibernate created it (ddl-auto: update) before
+-- migrations owned it. Databases created by that release are baselined at this
+-- version (spring.flyway.baseline-on-migrate) and only receive the later ones,
+-- so this file must not change.
+
+CREATE TABLE merchants (
+    merchant_id            VARCHAR(255)   NOT NULL,
+    merchant_name          VARCHAR(255)   NOT NULL,
+    max_transaction_amount NUMERIC(19, 2),
+    active                 BOOLEAN        NOT NULL,
+    created_at             TIMESTAMP(6)   NOT NULL,
+    updated_at             TIMESTAMP(6),
+    PRIMARY KEY (merchant_id)
+);
+
+CREATE TABLE transactions (
+    transaction_id    VARCHAR(255)   NOT NULL,
+    merchant_id       VARCHAR(255)   NOT NULL,
+    amount            NUMERIC(19, 2) NOT NULL,
+    currency          VARCHAR(3)     NOT NULL,
+    card_token        VARCHAR(255)   NOT NULL,
+    card_expiry       VARCHAR(7)     NOT NULL,
+    operation_type    VARCHAR(50)    NOT NULL,
+    status            VARCHAR(20)    NOT NULL CHECK (status IN ('PENDING', 'APPROVED', 'DECLINED', 'ERROR')),
+    response_code     VARCHAR(10),
+    issuer_response   VARCHAR(20),
+    rejection_reason  VARCHAR(255),
+    created_at        TIMESTAMP(6)   NOT NULL,
+    updated_at        TIMESTAMP(6),
+    processed_at      TIMESTAMP(6),
+    PRIMARY KEY (transaction_id)
+);
+
+CREATE INDEX idx_merchant_id ON transactions (merchant_id);
+CREATE INDEX idx_status ON transactions (status);
+CREATE INDEX idx_created_at ON transactions (created_at);
+CREATE INDEX idx_merchant_status ON transactions (merchant_id, status);
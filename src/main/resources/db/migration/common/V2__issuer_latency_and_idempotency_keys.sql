@@ -0,0 +1,16 @@
+-- Schema added after the first release. Databases that ran a build with
+-- ddl-auto: update may already have part of it, hence IF NOT EXISTS.
+
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS issuer_latency_ms INTEGER;
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(512) NOT NULL,
+    merchant_id     VARCHAR(255) NOT NULL,
+    request_hash    VARCHAR(64)  NOT NULL,
+    transaction_id  VARCHAR(36)  NOT NULL,
+    created_at      TIMESTAMP(6) NOT NULL,
+    expires_at      TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1,21 @@
+-- Outcome events of finalized payments, written in the same transaction as the
+-- status and removed by PaymentOutboxRelay once published
+
+CREATE TABLE payment_outbox (
+    event_id       BIGINT GENERATED ALWAYS AS IDENTITY,
+    shard          INTEGER        NOT NULL,
+    merchant_id    VARCHAR(255)   NOT NULL,
+    transaction_id VARCHAR(36)    NOT NULL,
+    payload        VARCHAR(4000)  NOT NULL,
+    created_at     TIMESTAMP(6)   NOT NULL,
+    PRIMARY KEY (event_id)
+);
+
+CREATE INDEX idx_payment_outbox_shard ON payment_outbox (shard, event_id);
+
+-- One row per shard; a relay drains only the shards whose rows it has locked,
+-- so each merchant's events are published by one relay at a time and in order
+CREATE TABLE payment_outbox_shards (
+    shard INTEGER NOT NULL,
+    PRIMARY KEY (shard)
+);
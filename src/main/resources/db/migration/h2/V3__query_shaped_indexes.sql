@@ -0,0 +1,28 @@
+-- Same key columns as the PostgreSQL migration; H2 has neither INCLUDE columns
+-- nor partial indexes, so the covering and PENDING-only variants are plain indexes
+
+-- Replaces the entity-annotation indexes: those of the first release and, on
+-- databases that ran a build with ddl-auto: update, the keyset ones added later
+DROP INDEX IF EXISTS idx_merchant_id;
+DROP INDEX IF EXISTS idx_status;
+DROP INDEX IF EXISTS idx_created_at;
+DROP INDEX IF EXISTS idx_merchant_status;
+DROP INDEX IF EXISTS idx_created_at_id;
+DROP INDEX IF EXISTS idx_merchant_created_at_id;
+DROP INDEX IF EXISTS idx_status_created_at_id;
+DROP INDEX IF EXISTS idx_merchant_status_created_at_id;
+
+CREATE INDEX IF NOT EXISTS idx_transactions_created_at_id
+    ON transactions (created_at DESC, transaction_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_transactions_merchant_created_at_id
+    ON transactions (merchant_id, created_at DESC, transaction_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_transactions_merchant_status_created_at_id
+    ON transactions (merchant_id, status, created_at DESC, transaction_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_transactions_status_created_at_id
+    ON transactions (status, created_at DESC, transaction_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_transactions_processed_at
+    ON transactions (processed_at);
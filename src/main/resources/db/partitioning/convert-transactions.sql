@@ -0,0 +1,60 @@
+-- Convert an existing transactions table to range partitioning on created_at (PostgreSQL 12+)
+--
+-- Run with the service stopped. Set the unit below to match
+-- acquirer.partitioning.interval ('day' for DAILY, 'month' for MONTHLY): the
+-- script creates one partition per unit from the oldest row up to the current
+-- one, and the service creates the future partitions when it starts.
+
+BEGIN;
+
+LOCK TABLE transactions IN ACCESS EXCLUSIVE MODE;
+
+-- The indexes created by the migrations, recreated on the partitioned table below
+CREATE TEMPORARY TABLE transactions_indexes ON COMMIT DROP AS
+SELECT pg_get_indexdef(indexrelid) AS definition
+FROM pg_index
+WHERE indrelid = 'transactions'::regclass AND NOT indisprimary;
+
+ALTER TABLE transactions RENAME TO transactions_unpartitioned;
+
+CREATE TABLE transactions (LIKE transactions_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (created_at);
+
+CREATE TABLE transactions_default PARTITION OF transactions DEFAULT;
+
+DO $$
+DECLARE
+    unit text := 'day';
+    step interval := CASE unit WHEN 'day' THEN interval '1 day' ELSE interval '1 month' END;
+    suffix text := CASE unit WHEN 'day' THEN 'YYYYMMDD' ELSE 'YYYYMM' END;
+    first_start timestamp;
+    partition_start timestamp;
+BEGIN
+    SELECT date_trunc(unit, coalesce(min(created_at), localtimestamp)) INTO first_start
+    FROM transactions_unpartitioned;
+    partition_start := first_start;
+    WHILE partition_start <= date_trunc(unit, localtimestamp) LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF transactions FOR VALUES FROM (%L) TO (%L)',
+                'transactions_p' || to_char(partition_start, suffix),
+                partition_start, partition_start + step);
+        partition_start := partition_start + step;
+    END LOOP;
+END $$;
+
+INSERT INTO transactions SELECT * FROM transactions_unpartitioned;
+
+-- Frees the primary key and index names for the partitioned table
+DROP TABLE transactions_unpartitioned;
+
+ALTER TABLE transactions ADD PRIMARY KEY (transaction_id, created_at);
+
+DO $$
+DECLARE
+    index_definition text;
+BEGIN
+    FOR index_definition IN SELECT definition FROM transactions_indexes LOOP
+        EXECUTE index_definition;
+    END LOOP;
+END $$;
+
+COMMIT;
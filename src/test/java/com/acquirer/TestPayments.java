@@ -0,0 +1,52 @@
+package com.acquirer;
+
+import com.acquirer.dto.PaymentRequest;
+
+import java.math.BigDecimal;
+
+/**
+ * Payment requests shared by the test suites: a valid 100.00 USD purchase by
+ * MERCHANT_001 with a card no rule blocks, optionally with another merchant,
+ * amount or field
+ */
+public final class TestPayments {
+
+    public static final String MERCHANT_ID = "MERCHANT_001";
+    public static final String CARD_TOKEN = "tok_4532015112830366";
+
+    private TestPayments() {
+    }
+
+    public static PaymentRequest paymentRequest() {
+        return builder().build();
+    }
+
+    public static PaymentRequest paymentRequest(String merchantId) {
+        return builder().merchantId(merchantId).build();
+    }
+
+    public static PaymentRequest paymentRequest(String merchantId, String amount) {
+        return builder().merchantId(merchantId).amount(new BigDecimal(amount)).build();
+    }
+
+    /**
+     * @return Readable transaction ID for a test row: the label padded with zeros
+     *         to the 26 characters of the CHAR(26) key
+     */
+    public static String transactionId(String label) {
+        return (label + "0".repeat(26)).substring(0, 26);
+    }
+
+    /**
+     * @return Builder holding the default payment, to change any other field
+     */
+    public static PaymentRequest.PaymentRequestBuilder builder() {
+        return PaymentRequest.builder()
+                .merchantId(MERCHANT_ID)
+                .amount(new BigDecimal("100.00"))
+                .currency("USD")
+                .cardToken(CARD_TOKEN)
+                .cardExpiry("12/2030")
+                .operationType("PURCHASE");
+    }
+}
@@ -0,0 +1,153 @@
+package com.acquirer.config;
+
+import com.acquirer.dto.PaymentPageResponse;
+import com.acquirer.dto.PaymentResponse;
+import com.acquirer.service.PaymentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.acquirer.TestPayments.paymentRequest;
+import static com.acquirer.TestPayments.transactionId;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "acquirer.read-replicas.enabled=true",
+        "acquirer.read-replicas.urls=" + ReadReplicaRoutingTest.REPLICA_0 + "," + ReadReplicaRoutingTest.REPLICA_1,
+        "acquirer.read-replicas.lag-query=SELECT lag_ms FROM replica_lag",
+        "acquirer.read-replicas.lag-check-interval=PT1H",
+        "acquirer.read-replicas.max-lag=1s"
+})
+@ActiveProfiles("test")
+@DisplayName("Read Replica Routing Tests")
+class ReadReplicaRoutingTest {
+
+    private static final String PRIMARY_ONLY = transactionId("primary-only");
+
+    static final String REPLICA_0 = "jdbc:h2:mem:acquirer_replica_0;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_1 = "jdbc:h2:mem:acquirer_replica_1;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+
+    private static final String INSERT_SQL = "INSERT INTO transactions (transaction_id, merchant_id, amount, "
+            + "currency, card_token, card_expiry, operation_type, status, created_at, updated_at) "
+            + "VALUES (?, 'MERCHANT_001', 100.00, 'USD', 'tok_4532015112830366', '12/2030', 'PURCHASE', "
+            + "'APPROVED', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    private JdbcTemplate primary;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<JdbcTemplate> replicas = List.of(replica(REPLICA_0), replica(REPLICA_1));
+
+    @BeforeEach
+    void createReplicas() {
+        // Stand-ins for streaming replicas: the schema and merchants of the primary, no transactions
+        primary.update("DELETE FROM transactions");
+        List<String> schema = primary.queryForList("SCRIPT TABLE merchants, transactions", String.class);
+        for (int i = 0; i < replicas.size(); i++) {
+            JdbcTemplate replica = replicas.get(i);
+            replica.execute("DROP ALL OBJECTS");
+            schema.stream()
+                    .filter(statement -> !statement.startsWith("--") && !statement.startsWith("CREATE USER"))
+                    .forEach(replica::execute);
+            replica.execute("CREATE TABLE replica_lag (lag_ms BIGINT)");
+            replica.update("INSERT INTO replica_lag VALUES (0)");
+            replica.update(INSERT_SQL, transactionId("replica-" + i));
+        }
+        primary.update(INSERT_SQL, PRIMARY_ONLY);
+        routingDataSource.checkLag();
+    }
+
+    @Test
+    @DisplayName("Should send read-only queries to the replicas in turn and writes to the primary")
+    void shouldRouteReadsToReplicasInTurn() {
+        // Given
+        double replicaReadsBefore = reads("replica");
+
+        // When
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            PaymentPageResponse page = paymentService.queryTransactions(null, null, null, 10);
+            page.getItems().forEach(item -> seen.add(item.getTransactionId()));
+        }
+        PaymentResponse created = paymentService.processPayment(paymentRequest());
+
+        // Then - both replicas answered, the primary did not
+        assertEquals(Set.of(transactionId("replica-0"), transactionId("replica-1")), seen);
+        assertEquals(4, reads("replica") - replicaReadsBefore);
+        // The payment was written to the primary only
+        assertEquals(1, count(primary, created.getTransactionId()));
+        assertEquals(0, count(replicas.get(0), created.getTransactionId()));
+        assertEquals(0, count(replicas.get(1), created.getTransactionId()));
+    }
+
+    @Test
+    @DisplayName("Should read a transaction the client just created from the primary")
+    void shouldReadYourWrites() {
+        // Given
+        PaymentResponse created = paymentService.processPayment(paymentRequest());
+
+        // When
+        PaymentResponse read = paymentService.getTransaction(created.getTransactionId());
+        PaymentPageResponse merchantPage = paymentService.queryTransactions("MERCHANT_001", null, null, 10);
+
+        // Then - found although no replica has it yet
+        assertEquals(created.getStatus(), read.getStatus());
+        assertTrue(merchantPage.getItems().stream()
+                .anyMatch(item -> item.getTransactionId().equals(created.getTransactionId())));
+        // A row the service did not write itself is read from a replica, which lacks it
+        assertThrows(RuntimeException.class, () -> paymentService.getTransaction(PRIMARY_ONLY));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the primary while the replicas lag, then return to them")
+    void shouldFallBackWhileReplicasLag() {
+        // Given
+        replicas.forEach(replica -> replica.update("UPDATE replica_lag SET lag_ms = 60000"));
+
+        // When
+        routingDataSource.checkLag();
+
+        // Then
+        assertEquals(PRIMARY_ONLY, paymentService.getTransaction(PRIMARY_ONLY).getTransactionId());
+        assertEquals(60_000, meterRegistry.get("acquirer.datasource.replica.lag")
+                .tag("replica", "replica-0").gauge().value());
+
+        // When - the replicas catch up
+        replicas.forEach(replica -> replica.update("UPDATE replica_lag SET lag_ms = 0"));
+        routingDataSource.checkLag();
+
+        // Then
+        assertThrows(RuntimeException.class, () -> paymentService.getTransaction(PRIMARY_ONLY));
+    }
+
+    private double reads(String target) {
+        return meterRegistry.get("acquirer.datasource.reads").tag("target", target).counter().count();
+    }
+
+    private static int count(JdbcTemplate database, String transactionId) {
+        return database.queryForObject("SELECT COUNT(*) FROM transactions WHERE transaction_id = ?",
+                Integer.class, transactionId);
+    }
+
+    private static JdbcTemplate replica(String url) {
+        return new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+    }
+}
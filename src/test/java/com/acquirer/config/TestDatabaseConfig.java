@@ -0,0 +1,25 @@
+package com.acquirer.config;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Starts each test application context on an empty schema
+ *
+ * The in-memory database outlives the contexts that use it, so the schema is
+ * dropped and migrated again, as ddl-auto create-drop did before.
+ */
+@Configuration
+@Profile("test")
+public class TestDatabaseConfig {
+
+    @Bean
+    public FlywayMigrationStrategy cleanMigrateStrategy() {
+        return flyway -> {
+            flyway.clean();
+            flyway.migrate();
+        };
+    }
+}
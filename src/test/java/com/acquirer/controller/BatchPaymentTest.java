@@ -0,0 +1,130 @@
+package com.acquirer.controller;
+
+import com.acquirer.dto.BatchPaymentItemResult;
+import com.acquirer.TestPayments;
+import com.acquirer.dto.BatchPaymentRequest;
+import com.acquirer.dto.BatchPaymentResponse;
+import com.acquirer.dto.PaymentRequest;
+import com.acquirer.entity.Transaction;
+import com.acquirer.entity.Transaction.TransactionStatus;
+import com.acquirer.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "acquirer.rules.issuer.min-latency-ms=100",
+        "acquirer.rules.issuer.max-latency-ms=100",
+        "acquirer.batch.issuer-parallelism=20"
+})
+@ActiveProfiles("test")
+@DisplayName("Batch Payment Tests")
+class BatchPaymentTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should return a result per item without failing on bad items")
+    void shouldProcessMixedBatch() {
+        // Given
+        PaymentRequest invalid = paymentRequest("MERCHANT_001", "tok_4532015112830366");
+        invalid.setCurrency(null);
+        List<PaymentRequest> payments = List.of(
+                paymentRequest("MERCHANT_001", "tok_4532015112830366"),
+                invalid,
+                paymentRequest("UNKNOWN_MERCHANT", "tok_4532015112830366"),
+                paymentRequest("MERCHANT_001", "4111111111111111"),
+                paymentRequest("MERCHANT_002", "tok_5425233430109903"));
+
+        // When
+        ResponseEntity<BatchPaymentResponse> response = restTemplate.postForEntity(
+                "/payments/batch", new BatchPaymentRequest(payments), BatchPaymentResponse.class);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        BatchPaymentResponse batch = response.getBody();
+        assertEquals(5, batch.getTotal());
+        assertEquals(1, batch.getRejected());
+        assertEquals(2, batch.getFailed());
+        assertEquals(2, batch.getApproved() + batch.getDeclined());
+
+        List<BatchPaymentItemResult> results = batch.getResults();
+        assertEquals(List.of(0, 1, 2, 3, 4), results.stream().map(BatchPaymentItemResult::getIndex).toList());
+        assertNull(results.get(1).getPayment());
+        assertEquals(List.of("Currency is required"), results.get(1).getErrors());
+        assertEquals(TransactionStatus.ERROR, results.get(2).getPayment().getStatus());
+        assertTrue(results.get(2).getPayment().getMessage().contains("UNKNOWN_MERCHANT"));
+        assertEquals(TransactionStatus.ERROR, results.get(3).getPayment().getStatus());
+
+        // Every processed item is persisted with its final status
+        assertEquals(4, transactionRepository.count());
+        for (int i : List.of(0, 2, 3, 4)) {
+            Transaction persisted = transactionRepository
+                    .findById(results.get(i).getPayment().getTransactionId()).orElseThrow();
+            assertEquals(results.get(i).getPayment().getStatus(), persisted.getStatus());
+            assertNotNull(persisted.getProcessedAt());
+        }
+    }
+
+    @Test
+    @DisplayName("Should authorize batch items concurrently")
+    void shouldAuthorizeConcurrently() {
+        // Given - 100 issuer calls of 100 ms each would take 10 s one after another
+        List<PaymentRequest> payments = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            payments.add(paymentRequest("MERCHANT_001", "tok_4532015112830366"));
+        }
+
+        // When
+        long start = System.nanoTime();
+        ResponseEntity<BatchPaymentResponse> response = restTemplate.postForEntity(
+                "/payments/batch", new BatchPaymentRequest(payments), BatchPaymentResponse.class);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(100, response.getBody().getApproved() + response.getBody().getDeclined());
+        assertEquals(100, transactionRepository.count());
+        assertTrue(elapsedMs < 5_000, "Batch took " + elapsedMs + " ms");
+    }
+
+    @Test
+    @DisplayName("Should reject empty and oversized batches")
+    void shouldRejectInvalidBatchSize() {
+        // Given
+        List<PaymentRequest> oversized = Collections.nCopies(BatchPaymentRequest.MAX_PAYMENTS + 1,
+                paymentRequest("MERCHANT_001", "tok_4532015112830366"));
+
+        // When / Then
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.postForEntity(
+                "/payments/batch", new BatchPaymentRequest(List.of()), String.class).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.postForEntity(
+                "/payments/batch", new BatchPaymentRequest(oversized), String.class).getStatusCode());
+    }
+
+    private PaymentRequest paymentRequest(String merchantId, String cardToken) {
+        return TestPayments.builder().merchantId(merchantId).cardToken(cardToken).build();
+    }
+}
@@ -0,0 +1,271 @@
+package com.acquirer.controller;
+
+import com.acquirer.TestPayments;
+import com.acquirer.dto.PaymentRequest;
+import com.acquirer.dto.PaymentResponse;
+import com.acquirer.entity.IdempotencyRecord;
+import com.acquirer.entity.Transaction;
+import com.acquirer.entity.Transaction.TransactionStatus;
+import com.acquirer.exception.IssuerUnavailableException;
+import com.acquirer.repository.IdempotencyRecordRepository;
+import com.acquirer.repository.TransactionRepository;
+import com.acquirer.service.IdempotencyService;
+import com.acquirer.service.IssuerService;
+import com.acquirer.service.TransactionIdGenerator;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.acquirer.TestPayments.paymentRequest;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@DisplayName("Idempotency Key Tests")
+class IdempotencyTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @SpyBean
+    private IssuerService issuerService;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        idempotencyRecordRepository.deleteAll();
+        ((Cache<?, ?>) ReflectionTestUtils.getField(idempotencyService, "entries")).invalidateAll();
+        reset(issuerService);
+    }
+
+    @Test
+    @DisplayName("Should return the original response for a retried key")
+    void shouldReplayRetriedKey() {
+        // When
+        ResponseEntity<PaymentResponse> first = post("key-1", paymentRequest("MERCHANT_001", "100.00"));
+        ResponseEntity<PaymentResponse> retry = post("key-1", paymentRequest("MERCHANT_001", "100.00"));
+
+        // Then
+        assertEquals(HttpStatus.CREATED, first.getStatusCode());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals(first.getBody().getTransactionId(), retry.getBody().getTransactionId());
+        assertEquals(first.getBody().getStatus(), retry.getBody().getStatus());
+        assertEquals(1, transactionRepository.count());
+        verifyIssuerCalls(1);
+    }
+
+    @Test
+    @DisplayName("Should coalesce concurrent requests with the same key")
+    void shouldCoalesceConcurrentRequests() {
+        // When
+        List<CompletableFuture<ResponseEntity<PaymentResponse>>> requests = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            requests.add(CompletableFuture.supplyAsync(() -> post("key-2", paymentRequest("MERCHANT_001", "100.00"))));
+        }
+
+        // Then
+        List<String> transactionIds = requests.stream()
+                .map(CompletableFuture::join)
+                .peek(response -> assertEquals(HttpStatus.CREATED, response.getStatusCode()))
+                .map(response -> response.getBody().getTransactionId())
+                .distinct()
+                .toList();
+        assertEquals(1, transactionIds.size());
+        assertEquals(1, transactionRepository.count());
+        verifyIssuerCalls(1);
+    }
+
+    @Test
+    @DisplayName("Should replay from the database once the key left memory")
+    void shouldReplayFromDurableStore() {
+        // Given
+        ResponseEntity<PaymentResponse> first = post("key-3", paymentRequest("MERCHANT_001", "100.00"));
+        ((Cache<?, ?>) ReflectionTestUtils.getField(idempotencyService, "entries")).invalidateAll();
+
+        // When
+        ResponseEntity<PaymentResponse> retry = post("key-3", paymentRequest("MERCHANT_001", "100.00"));
+
+        // Then
+        assertEquals(first.getBody().getTransactionId(), retry.getBody().getTransactionId());
+        assertEquals(1, transactionRepository.count());
+        verifyIssuerCalls(1);
+    }
+
+    @Test
+    @DisplayName("Should reject a key reused for a different payment")
+    void shouldRejectReusedKey() {
+        // Given
+        post("key-4", paymentRequest("MERCHANT_001", "100.00"));
+
+        // When
+        ResponseEntity<String> reused = restTemplate.postForEntity("/payments",
+                new HttpEntity<>(paymentRequest("MERCHANT_001", "250.00"), headers("key-4")), String.class);
+
+        // Then
+        assertEquals(HttpStatus.CONFLICT, reused.getStatusCode());
+        verifyIssuerCalls(1);
+    }
+
+    @Test
+    @DisplayName("Should scope keys per merchant and run again after a failed attempt")
+    void shouldScopeKeysAndForgetFailures() {
+        // When
+        ResponseEntity<PaymentResponse> merchant1 = post("key-5", paymentRequest("MERCHANT_001", "100.00"));
+        ResponseEntity<PaymentResponse> merchant2 = post("key-5", paymentRequest("MERCHANT_002", "100.00"));
+        ResponseEntity<String> unknown = restTemplate.postForEntity("/payments",
+                new HttpEntity<>(paymentRequest("UNKNOWN_MERCHANT", "100.00"), headers("key-6")), String.class);
+        ResponseEntity<String> unknownRetry = restTemplate.postForEntity("/payments",
+                new HttpEntity<>(paymentRequest("UNKNOWN_MERCHANT", "100.00"), headers("key-6")), String.class);
+
+        // Then
+        assertNotEquals(merchant1.getBody().getTransactionId(), merchant2.getBody().getTransactionId());
+        assertEquals(HttpStatus.NOT_FOUND, unknown.getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, unknownRetry.getStatusCode());
+        assertEquals(2, idempotencyRecordRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should keep the key and replay the ERROR outcome after an issuer failure")
+    void shouldReplayIssuerFailure() {
+        // Given - the issuer may have authorized before the call timed out
+        doReturn(CompletableFuture.failedFuture(new IssuerUnavailableException("Issuer timed out")))
+                .when(issuerService).authorizeTransactionAsync(anyString(), any(), anyString());
+        ResponseEntity<String> first = restTemplate.postForEntity("/payments",
+                new HttpEntity<>(paymentRequest("MERCHANT_001", "100.00"), headers("key-7")), String.class);
+        ((Cache<?, ?>) ReflectionTestUtils.getField(idempotencyService, "entries")).invalidateAll();
+
+        // When
+        ResponseEntity<PaymentResponse> retry = post("key-7", paymentRequest("MERCHANT_001", "100.00"));
+
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, first.getStatusCode());
+        assertEquals(TransactionStatus.ERROR, retry.getBody().getStatus());
+        assertEquals(IssuerUnavailableException.RESPONSE_CODE, retry.getBody().getResponseCode());
+        assertEquals(1, transactionRepository.count());
+        verifyIssuerCalls(1);
+    }
+
+    @Test
+    @DisplayName("Should process an abandoned claim under a new transaction ID")
+    void shouldProcessAbandonedClaimUnderNewId() {
+        // Given - claimed hours ago by an instance that died before creating the transaction
+        LocalDateTime claimedAt = LocalDateTime.now().minusHours(3);
+        idempotencyRecordRepository.save(IdempotencyRecord.builder()
+                .idempotencyKey("MERCHANT_001:key-8")
+                .merchantId("MERCHANT_001")
+                .requestHash(requestHash(paymentRequest("MERCHANT_001", "100.00")))
+                .transactionId("01ABANDONED000000000000000")
+                .createdAt(claimedAt)
+                .expiresAt(claimedAt.plusHours(24))
+                .build());
+
+        // When
+        ResponseEntity<PaymentResponse> response = post("key-8", paymentRequest("MERCHANT_001", "100.00"));
+
+        // Then - the new transaction can be looked up by its ID and the claim points to it
+        String transactionId = response.getBody().getTransactionId();
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertNotEquals("01ABANDONED000000000000000", transactionId);
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity("/payments/" + transactionId, String.class)
+                .getStatusCode());
+        IdempotencyRecord reclaimed = idempotencyRecordRepository.findById("MERCHANT_001:key-8").orElseThrow();
+        assertEquals(transactionId, reclaimed.getTransactionId());
+        assertTrue(reclaimed.getCreatedAt().isAfter(claimedAt.plusHours(1)));
+        verifyIssuerCalls(1);
+    }
+
+    @Test
+    @DisplayName("Should answer 409 while the original payment is still PENDING on another instance")
+    void shouldNotReplayPendingOutcome() {
+        // Given - claimed by another instance, which created the transaction but has not finished it
+        String transactionId = transactionIdGenerator.nextId();
+        LocalDateTime claimedAt = LocalDateTime.now();
+        idempotencyRecordRepository.save(IdempotencyRecord.builder()
+                .idempotencyKey("MERCHANT_001:key-9")
+                .merchantId("MERCHANT_001")
+                .requestHash(requestHash(paymentRequest("MERCHANT_001", "100.00")))
+                .transactionId(transactionId)
+                .createdAt(claimedAt)
+                .expiresAt(claimedAt.plusHours(24))
+                .build());
+        Transaction pending = transactionRepository.save(Transaction.builder()
+                .transactionId(transactionId)
+                .merchantId("MERCHANT_001")
+                .amount(new BigDecimal("100.00"))
+                .currency("USD")
+                .cardToken(TestPayments.CARD_TOKEN)
+                .cardExpiry("12/2030")
+                .operationType("PURCHASE")
+                .status(TransactionStatus.PENDING)
+                .build());
+
+        // When
+        ResponseEntity<String> inFlight = restTemplate.postForEntity("/payments",
+                new HttpEntity<>(paymentRequest("MERCHANT_001", "100.00"), headers("key-9")), String.class);
+        pending.setStatus(TransactionStatus.APPROVED);
+        pending.setResponseCode("00");
+        transactionRepository.save(pending);
+        ResponseEntity<PaymentResponse> finished = post("key-9", paymentRequest("MERCHANT_001", "100.00"));
+
+        // Then - only the final outcome is replayed, and the issuer is never called again
+        assertEquals(HttpStatus.CONFLICT, inFlight.getStatusCode());
+        assertEquals(HttpStatus.CREATED, finished.getStatusCode());
+        assertEquals(transactionId, finished.getBody().getTransactionId());
+        assertEquals(TransactionStatus.APPROVED, finished.getBody().getStatus());
+        verifyIssuerCalls(0);
+    }
+
+    private String requestHash(PaymentRequest request) {
+        return (String) ReflectionTestUtils.invokeMethod(IdempotencyService.class, "hash", request);
+    }
+
+    private void verifyIssuerCalls(int calls) {
+        verify(issuerService, times(calls)).authorizeTransactionAsync(anyString(), any(), anyString());
+    }
+
+    private ResponseEntity<PaymentResponse> post(String idempotencyKey, PaymentRequest request) {
+        return restTemplate.postForEntity("/payments", new HttpEntity<>(request, headers(idempotencyKey)),
+                PaymentResponse.class);
+    }
+
+    private HttpHeaders headers(String idempotencyKey) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Idempotency-Key", idempotencyKey);
+        return headers;
+    }
+}
@@ -0,0 +1,114 @@
+package com.acquirer.controller;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.acquirer.dto.ErrorResponse;
+import com.acquirer.dto.PaymentResponse;
+import com.acquirer.entity.Transaction.TransactionStatus;
+import com.acquirer.exception.IssuerUnavailableException;
+import com.acquirer.service.IssuerService;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+
+import static com.acquirer.TestPayments.paymentRequest;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@DisplayName("Payment Controller Async Tests")
+class PaymentControllerAsyncTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    private final Logger issuerLogger = (Logger) LoggerFactory.getLogger(IssuerService.class);
+    private final ListAppender<ILoggingEvent> issuerLogs = new ListAppender<>();
+    private Level originalLevel;
+
+    @BeforeEach
+    void setUp() {
+        originalLevel = issuerLogger.getLevel();
+        issuerLogger.setLevel(Level.DEBUG);
+        issuerLogs.start();
+        issuerLogger.addAppender(issuerLogs);
+    }
+
+    @AfterEach
+    void tearDown() {
+        issuerLogger.detachAppender(issuerLogs);
+        issuerLogger.setLevel(originalLevel);
+    }
+
+    @Test
+    @DisplayName("Should complete payment asynchronously with 201")
+    void shouldCompletePaymentAsynchronously() {
+        // When
+        ResponseEntity<PaymentResponse> response = restTemplate.postForEntity(
+                "/payments", paymentRequest("MERCHANT_001"), PaymentResponse.class);
+
+        // Then
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertNotNull(response.getBody().getTransactionId());
+        assertNotEquals(TransactionStatus.PENDING, response.getBody().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should carry MDC context to the issuer completion thread")
+    void shouldCarryMdcContextToIssuerThread() {
+        // When
+        ResponseEntity<PaymentResponse> response = restTemplate.postForEntity(
+                "/payments", paymentRequest("MERCHANT_001"), PaymentResponse.class);
+
+        // Then
+        ILoggingEvent issuerDecision = issuerLogs.list.stream()
+                .filter(event -> event.getMessage().startsWith("Issuer "))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+        assertNotEquals(Thread.currentThread().getName(), issuerDecision.getThreadName());
+        assertEquals(response.getBody().getTransactionId(),
+                issuerDecision.getMDCPropertyMap().get("transactionId"));
+        assertEquals("MERCHANT_001", issuerDecision.getMDCPropertyMap().get("merchantId"));
+    }
+
+    @Test
+    @DisplayName("Should map async merchant failure to 404")
+    void shouldMapAsyncMerchantFailureTo404() {
+        // When
+        ResponseEntity<ErrorResponse> response = restTemplate.postForEntity(
+                "/payments", paymentRequest("UNKNOWN_MERCHANT"), ErrorResponse.class);
+
+        // Then
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("Merchant Not Found", response.getBody().getError());
+    }
+
+    @Test
+    @DisplayName("Should document the 503 returned while the issuer is unavailable")
+    void shouldDocumentIssuerUnavailableResponse() {
+        // When
+        JsonNode responses = restTemplate.getForObject("/api-docs", JsonNode.class)
+                .path("paths").path("/payments").path("post").path("responses");
+
+        // Then
+        JsonNode unavailable = responses.path("503");
+        assertTrue(unavailable.path("description").asText().contains(IssuerUnavailableException.RESPONSE_CODE),
+                unavailable.toString());
+        assertEquals("integer", unavailable.path("headers").path("Retry-After").path("schema").path("type").asText());
+        assertTrue(unavailable.path("content").path("*/*").path("schema").path("$ref").asText()
+                .endsWith("/ErrorResponse"), unavailable.toString());
+    }
+}
@@ -0,0 +1,130 @@
+package com.acquirer.controller;
+
+import com.acquirer.dto.PaymentResponse;
+import com.acquirer.entity.Transaction.TransactionStatus;
+import com.acquirer.service.PaymentMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.acquirer.TestPayments.paymentRequest;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "acquirer.rules.issuer.min-latency-ms=20",
+        "acquirer.rules.issuer.max-latency-ms=20"
+})
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+@DisplayName("Payment Metrics Tests")
+class PaymentMetricsTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Should time every stage of a processed payment")
+    void shouldTimeEveryStage() {
+        // Given
+        long paymentsBefore = paymentCount("MERCHANT_001", "approved") + paymentCount("MERCHANT_001", "declined");
+        double issuerResponsesBefore = issuerResponses();
+
+        // When
+        ResponseEntity<PaymentResponse> response = restTemplate.postForEntity(
+                "/payments", paymentRequest("MERCHANT_001"), PaymentResponse.class);
+
+        // Then
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        for (PaymentMetrics.Stage stage : PaymentMetrics.Stage.values()) {
+            Timer timer = meterRegistry.find(PaymentMetrics.STAGE_TIMER)
+                    .tags("stage", stage.name().toLowerCase(), "merchant", "MERCHANT_001", "outcome", "success")
+                    .timer();
+            assertNotNull(timer, "No timer for stage " + stage);
+            assertTrue(timer.count() > 0);
+        }
+        Timer issuer = meterRegistry.get(PaymentMetrics.STAGE_TIMER)
+                .tags("stage", "issuer", "merchant", "MERCHANT_001", "outcome", "success").timer();
+        assertTrue(issuer.max(TimeUnit.MILLISECONDS) >= 20);
+
+        String outcome = response.getBody().getStatus() == TransactionStatus.APPROVED ? "approved" : "declined";
+        assertEquals(paymentsBefore + 1, paymentCount("MERCHANT_001", "approved") + paymentCount("MERCHANT_001", "declined"));
+        assertTrue(paymentCount("MERCHANT_001", outcome) > 0);
+        assertEquals(issuerResponsesBefore + 1, issuerResponses());
+        assertNotNull(meterRegistry.find(PaymentMetrics.ISSUER_RESPONSES)
+                .tags("result", outcome, "response_code", response.getBody().getResponseCode()).counter());
+    }
+
+    @Test
+    @DisplayName("Should tag rejected payments of unknown merchants without their ID")
+    void shouldTagUnknownMerchants() {
+        // When
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                "/payments", paymentRequest("NO_SUCH_MERCHANT_42"), String.class);
+
+        // Then
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertTrue(paymentCount("unknown", "rejected") > 0);
+        assertNotNull(meterRegistry.find(PaymentMetrics.STAGE_TIMER)
+                .tags("stage", "merchant_validation", "merchant", "unknown", "outcome", "rejected").timer());
+        assertNull(meterRegistry.find(PaymentMetrics.PAYMENT_TIMER).tag("merchant", "NO_SUCH_MERCHANT_42").timer());
+    }
+
+    @Test
+    @DisplayName("Should expose percentiles and connection pool gauges to Prometheus")
+    void shouldExposePrometheusMetrics() {
+        // Given
+        restTemplate.postForEntity("/payments", paymentRequest("MERCHANT_001"), PaymentResponse.class);
+
+        // When
+        ResponseEntity<String> response = restTemplate.getForEntity("/actuator/prometheus", String.class);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        String scrape = response.getBody();
+        assertTrue(scrape.contains("acquirer_payment_stage_seconds{"), "Missing stage timer");
+        assertTrue(scrape.contains("quantile=\"0.99\""), "Missing p99");
+        assertTrue(scrape.contains("acquirer_payment_seconds_bucket{"), "Missing histogram");
+        assertTrue(scrape.contains("acquirer_issuer_responses_total{"), "Missing issuer counter");
+        assertTrue(scrape.contains("hikaricp_connections_active{"), "Missing pool gauge");
+        assertTrue(scrape.contains("hikaricp_connections_pending{"), "Missing pool gauge");
+    }
+
+    @Test
+    @DisplayName("Should report health on the path used by the container healthcheck")
+    @SuppressWarnings("unchecked")
+    void shouldReportHealth() {
+        // When
+        ResponseEntity<Map> response = restTemplate.getForEntity("/payments/health", Map.class);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("UP", response.getBody().get("status"));
+    }
+
+    private long paymentCount(String merchant, String outcome) {
+        Timer timer = meterRegistry.find(PaymentMetrics.PAYMENT_TIMER)
+                .tags("merchant", merchant, "outcome", outcome).timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    private double issuerResponses() {
+        return meterRegistry.find(PaymentMetrics.ISSUER_RESPONSES).counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+}
@@ -0,0 +1,147 @@
+package com.acquirer.controller;
+
+import com.acquirer.entity.Transaction.TransactionStatus;
+import com.acquirer.repository.TransactionRepository;
+import com.acquirer.service.TransactionExportService;
+import com.acquirer.service.TransactionExportService.Format;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.acquirer.TestPayments.transactionId;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "acquirer.export.fetch-size=10"
+})
+@ActiveProfiles("test")
+@DisplayName("Transaction Export Tests")
+class TransactionExportTest {
+
+    private static final int TRANSACTIONS = 60;
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private TransactionExportService transactionExportService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void seedTransactions() {
+        transactionRepository.deleteAll();
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            LocalDateTime createdAt = BASE_TIME.plusMinutes(i);
+            jdbcTemplate.update("INSERT INTO transactions (transaction_id, merchant_id, amount, currency, "
+                            + "card_token, card_expiry, operation_type, status, rejection_reason, created_at, updated_at) "
+                            + "VALUES (?, ?, 100.00, 'USD', 'tok_4532015112830366', '12/2030', 'PURCHASE', ?, ?, ?, ?)",
+                    transactionId(String.format("tx-%03d", i)),
+                    i % 2 == 0 ? "MERCHANT_001" : "MERCHANT_002",
+                    i % 3 == 0 ? TransactionStatus.DECLINED.name() : TransactionStatus.APPROVED.name(),
+                    i % 3 == 0 ? "Limit exceeded, \"daily\"" : null,
+                    Timestamp.valueOf(createdAt), Timestamp.valueOf(createdAt));
+        }
+    }
+
+    @Test
+    @DisplayName("Should stream NDJSON oldest first with masked card tokens")
+    void shouldStreamNdjson() throws Exception {
+        // When
+        ResponseEntity<String> response = restTemplate.getForEntity("/payments/export", String.class);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getHeaders().getContentType().toString().startsWith("application/x-ndjson"));
+        List<String> lines = response.getBody().lines().toList();
+        assertEquals(TRANSACTIONS, lines.size());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals(transactionId("tx-000"), first.get("transactionId").asText());
+        assertEquals("**** 0366", first.get("maskedCard").asText());
+        assertFalse(response.getBody().contains("tok_4532015112830366"));
+        assertEquals(transactionId("tx-059"), objectMapper.readTree(lines.get(TRANSACTIONS - 1)).get("transactionId").asText());
+    }
+
+    @Test
+    @DisplayName("Should apply merchant, status and time range filters")
+    void shouldApplyFilters() {
+        // When - MERCHANT_001 (even i), DECLINED (i % 3 == 0), minutes [12, 48)
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                "/payments/export?merchantId=MERCHANT_001&status=DECLINED"
+                        + "&from=2026-01-01T12:12:00&to=2026-01-01T12:48:00", String.class);
+
+        // Then - i in {12, 18, 24, 30, 36, 42}
+        List<String> lines = response.getBody().lines().toList();
+        assertEquals(6, lines.size());
+        assertTrue(lines.get(0).contains("\"" + transactionId("tx-012") + "\""));
+        assertTrue(lines.get(5).contains("\"" + transactionId("tx-042") + "\""));
+    }
+
+    @Test
+    @DisplayName("Should stream CSV with a header and escaped fields")
+    void shouldStreamCsv() {
+        // When
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                "/payments/export?format=CSV&merchantId=MERCHANT_001", String.class);
+
+        // Then
+        assertTrue(response.getHeaders().getContentType().toString().startsWith("text/csv"));
+        List<String> lines = response.getBody().lines().toList();
+        assertEquals(TRANSACTIONS / 2 + 1, lines.size());
+        assertTrue(lines.get(0).startsWith("transaction_id,merchant_id,amount"));
+        assertTrue(lines.get(1).startsWith(transactionId("tx-000") + ",MERCHANT_001,100.00,USD,**** 0366,PURCHASE,DECLINED,"));
+        assertTrue(lines.get(1).contains(",\"Limit exceeded, \"\"daily\"\"\","));
+    }
+
+    @Test
+    @DisplayName("Should leave no exported entity in the persistence context")
+    void shouldDetachExportedEntities() {
+        // When
+        long[] managedAfterExport = new long[1];
+        long exported = transactionTemplate.execute(status -> {
+            try {
+                long count = transactionExportService.export(null, null, null, null, Format.NDJSON,
+                        new ByteArrayOutputStream());
+                managedAfterExport[0] = entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+                return count;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // Then
+        assertEquals(TRANSACTIONS, exported);
+        assertEquals(0, managedAfterExport[0]);
+    }
+}
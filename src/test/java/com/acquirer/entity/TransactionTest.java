@@ -307,4 +307,21 @@ class TransactionTest {
         assertNull(transaction.getRejectionReason());
         assertNull(transaction.getProcessedAt());
     }
+
+    @Test
+    @DisplayName("Should be new until persisted or loaded despite its assigned ID")
+    void shouldBeNewUntilPersisted() {
+        // Given
+        transaction.setTransactionId("txn-123");
+
+        // Then
+        assertTrue(transaction.isNew());
+        assertEquals("txn-123", transaction.getId());
+
+        // When
+        transaction.onPersisted();
+
+        // Then
+        assertFalse(transaction.isNew());
+    }
 }
@@ -0,0 +1,240 @@
+package com.acquirer.repository;
+
+import com.acquirer.dto.TransactionSummary;
+import com.acquirer.entity.Transaction.TransactionStatus;
+import com.acquirer.service.TransactionExportService;
+import com.acquirer.service.TransactionExportService.Format;
+import com.acquirer.util.PageCursor;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs EXPLAIN on the SQL that Hibernate generates for each repository query
+ * and fails if any of them scans a whole table, i.e. if the migrations stop
+ * providing an index for a query shape.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Repository Query Plan Tests")
+class QueryPlanTest {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    // H2 comments each table read with the index used and, after a colon, the conditions
+    // bounding it; without conditions (or as "tableScan") the read covers every row...
+    private static final Pattern FULL_SCAN = Pattern.compile("/\\* [\\w.]+ \\*/");
+    // ...which is still a good plan when the index supplies the ORDER BY of a LIMIT query
+    private static final String INDEX_SORTED = "/* index sorted */";
+
+    @TestConfiguration
+    static class RecordingConfig {
+
+        @Bean
+        SqlRecorder sqlRecorder() {
+            return new SqlRecorder();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementInspector(SqlRecorder sqlRecorder) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlRecorder);
+        }
+    }
+
+    /**
+     * Collects the SQL issued by the test thread only, not by scheduled jobs
+     */
+    static class SqlRecorder implements StatementInspector {
+
+        private final ThreadLocal<List<String>> statements = new ThreadLocal<>();
+
+        @Override
+        public String inspect(String sql) {
+            List<String> recording = statements.get();
+            if (recording != null) {
+                recording.add(sql);
+            }
+            return sql;
+        }
+    }
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private MerchantRepository merchantRepository;
+
+    @Autowired
+    private TransactionExportService exportService;
+
+    @Autowired
+    private SqlRecorder sqlRecorder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void seedTransactions() {
+        jdbcTemplate.update("DELETE FROM transactions");
+        for (int i = 0; i < 10; i++) {
+            Timestamp createdAt = Timestamp.valueOf(BASE_TIME.plusSeconds(i));
+            boolean pending = i % 5 == 4;
+            jdbcTemplate.update("INSERT INTO transactions (transaction_id, merchant_id, amount, currency, "
+                            + "card_token, card_expiry, operation_type, status, created_at, updated_at, processed_at) "
+                            + "VALUES (?, 'MERCHANT_001', 100.00, 'USD', 'tok_4532015112830366', '12/2030', "
+                            + "'PURCHASE', ?, ?, ?, ?)",
+                    String.format("tx-%03d", i), pending ? "PENDING" : "APPROVED", createdAt, createdAt,
+                    pending ? null : createdAt);
+        }
+    }
+
+    @Test
+    @DisplayName("Should look up transactions by ID through the primary key")
+    void shouldLookUpTransactionsByPrimaryKey() {
+        assertIndexed("findSummaryById", () -> transactionRepository.findSummaryById("tx-001"));
+        assertIndexed("findSummaryByIdCreatedBetween", () -> transactionRepository.findSummaryByIdCreatedBetween(
+                "tx-001", BASE_TIME.minusHours(1), BASE_TIME.plusHours(1)));
+        assertIndexed("findById", () -> transactionRepository.findById("tx-001"));
+    }
+
+    @Test
+    @DisplayName("Should read the first and following keyset pages of every filter through an index")
+    void shouldScrollThroughIndexes() {
+        assertPagesIndexed("all", position -> transactionRepository
+                .findByOrderByCreatedAtDescTransactionIdDesc(position, Limit.of(3), TransactionSummary.class));
+        assertPagesIndexed("by merchant", position -> transactionRepository
+                .findByMerchantIdOrderByCreatedAtDescTransactionIdDesc(
+                        "MERCHANT_001", position, Limit.of(3), TransactionSummary.class));
+        assertPagesIndexed("by status", position -> transactionRepository
+                .findByStatusOrderByCreatedAtDescTransactionIdDesc(
+                        TransactionStatus.APPROVED, position, Limit.of(3), TransactionSummary.class));
+        assertPagesIndexed("by pending status", position -> transactionRepository
+                .findByStatusOrderByCreatedAtDescTransactionIdDesc(
+                        TransactionStatus.PENDING, position, Limit.of(1), TransactionSummary.class));
+        assertPagesIndexed("by merchant and status", position -> transactionRepository
+                .findByMerchantIdAndStatusOrderByCreatedAtDescTransactionIdDesc(
+                        "MERCHANT_001", TransactionStatus.APPROVED, position, Limit.of(3), TransactionSummary.class));
+    }
+
+    @Test
+    @DisplayName("Should stream processed transactions for statistics through an index")
+    void shouldStreamProcessedThroughIndex() {
+        assertIndexed("streamProcessedSince", () -> {
+            try (Stream<TransactionRepository.ProcessedTransaction> rows = transactionRepository
+                    .streamProcessedSince(BASE_TIME, BASE_TIME.minusHours(1))) {
+                assertEquals(8, rows.count());
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Should export each filter combination through an index")
+    void shouldExportThroughIndexes() {
+        LocalDateTime from = BASE_TIME.minusHours(1);
+        LocalDateTime to = BASE_TIME.plusHours(1);
+        assertIndexed("export by merchant", () -> export("MERCHANT_001", null, null, null));
+        assertIndexed("export by merchant and range", () -> export("MERCHANT_001", null, from, to));
+        assertIndexed("export by merchant, status and range",
+                () -> export("MERCHANT_001", TransactionStatus.APPROVED, from, to));
+        assertIndexed("export by status and range", () -> export(null, TransactionStatus.DECLINED, from, to));
+        assertIndexed("export by range", () -> export(null, null, from, to));
+    }
+
+    @Test
+    @DisplayName("Should read idempotency keys and merchants through indexes")
+    void shouldReadKeysAndMerchantsThroughIndexes() {
+        assertIndexed("idempotency findById", () -> idempotencyRecordRepository.findById("MERCHANT_001:key"));
+        assertIndexed("idempotency deleteExpired", () -> idempotencyRecordRepository.deleteExpired(BASE_TIME));
+        assertIndexed("merchant findById", () -> merchantRepository.findById("MERCHANT_001"));
+        assertIndexed("findByMerchantIdAndActiveTrue",
+                () -> merchantRepository.findByMerchantIdAndActiveTrue("MERCHANT_001"));
+        // findByActiveTrue lists every merchant, so scanning the table is its right plan
+    }
+
+    private void assertPagesIndexed(String query,
+                                    Function<ScrollPosition, Window<TransactionSummary>> scroll) {
+        List<ScrollPosition> next = new ArrayList<>();
+        assertIndexed(query + " first page", () -> {
+            Window<TransactionSummary> page = scroll.apply(ScrollPosition.keyset());
+            TransactionSummary last = page.getContent().get(page.size() - 1);
+            next.add(PageCursor.decode(PageCursor.encode(last.createdAt(), last.transactionId())));
+        });
+        assertIndexed(query + " next page", () -> scroll.apply(next.get(0)));
+    }
+
+    /**
+     * Run the queries in one transaction and check the plan of each statement they issued
+     */
+    private void assertIndexed(String query, Runnable queries) {
+        List<String> statements = new ArrayList<>();
+        sqlRecorder.statements.set(statements);
+        try {
+            transactionTemplate.executeWithoutResult(status -> queries.run());
+        } finally {
+            sqlRecorder.statements.remove();
+        }
+
+        assertFalse(statements.isEmpty(), query + " issued no SQL");
+        for (String sql : statements) {
+            String plan = explain(sql);
+            boolean fullScan = FULL_SCAN.matcher(plan).find() && !plan.contains(INDEX_SORTED);
+            assertFalse(fullScan, query + " scans a whole table:\n" + plan);
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute("EXPLAIN " + sql, (PreparedStatementCallback<String>) statement -> {
+            // The plan does not depend on the values, only on which columns are compared
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setObject(i, null);
+            }
+            try (ResultSet result = statement.executeQuery()) {
+                result.next();
+                return result.getString(1);
+            }
+        });
+    }
+
+    private void export(String merchantId, TransactionStatus status, LocalDateTime from, LocalDateTime to) {
+        try {
+            exportService.export(merchantId, status, from, to, Format.NDJSON, OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
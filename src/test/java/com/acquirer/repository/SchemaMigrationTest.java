@@ -0,0 +1,103 @@
+package com.acquirer.repository;
+
+import com.acquirer.service.TimeOrderedIdGenerator;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Upgrades a database created by the first release (Hibernate DDL, no Flyway
+ * history) and checks it ends up with the same schema as a new database
+ */
+@DisplayName("Schema Migration Tests")
+class SchemaMigrationTest {
+
+    @Test
+    @DisplayName("Should baseline a first-release database and apply every later migration")
+    void shouldUpgradeFirstReleaseDatabase() {
+        // Given
+        DataSource dataSource = dataSource("first_release");
+        new ResourceDatabasePopulator(new ClassPathResource("db/first-release-schema.sql")).execute(dataSource);
+
+        // When
+        Flyway flyway = flyway(dataSource);
+        flyway.migrate();
+
+        // Then
+        MigrationInfo[] applied = flyway.info().applied();
+        assertEquals("1", applied[0].getVersion().getVersion());
+        assertEquals("BASELINE", applied[0].getType().name());
+        assertEquals(0, flyway.info().pending().length);
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        assertEquals(List.of(TimeOrderedIdGenerator.fromUuid(UUID.fromString("550e8400-e29b-41d4-a716-446655440000"))),
+                jdbc.queryForList("SELECT transaction_id FROM transactions", String.class));
+        Set<String> columns = columns(jdbc);
+        assertTrue(columns.contains("TRANSACTIONS.ISSUER_LATENCY_MS INTEGER"));
+        assertTrue(columns.contains("TRANSACTIONS.TRANSACTION_ID CHARACTER"));
+        assertTrue(columns.contains("IDEMPOTENCY_KEYS.REQUEST_HASH CHARACTER VARYING"));
+        Set<String> indexes = indexes(jdbc);
+        assertFalse(indexes.contains("TRANSACTIONS.IDX_MERCHANT_ID"));
+        assertFalse(indexes.contains("TRANSACTIONS.IDX_MERCHANT_STATUS"));
+        assertTrue(indexes.contains("TRANSACTIONS.IDX_TRANSACTIONS_MERCHANT_CREATED_AT_ID"));
+    }
+
+    @Test
+    @DisplayName("Should leave an upgraded database with the same tables, columns and indexes as a new one")
+    void shouldMatchNewDatabase() {
+        // Given
+        DataSource upgraded = dataSource("upgraded");
+        new ResourceDatabasePopulator(new ClassPathResource("db/first-release-schema.sql")).execute(upgraded);
+        DataSource created = dataSource("created");
+
+        // When
+        flyway(upgraded).migrate();
+        flyway(created).migrate();
+
+        // Then
+        JdbcTemplate upgradedJdbc = new JdbcTemplate(upgraded);
+        JdbcTemplate createdJdbc = new JdbcTemplate(created);
+        assertEquals(columns(createdJdbc), columns(upgradedJdbc));
+        assertEquals(indexes(createdJdbc), indexes(upgradedJdbc));
+    }
+
+    private static DataSource dataSource(String name) {
+        return new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "_" + System.nanoTime() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    // Same settings as spring.flyway in application.yml, with {vendor} resolved to h2
+    private static Flyway flyway(DataSource dataSource) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
+    }
+
+    private static Set<String> columns(JdbcTemplate jdbc) {
+        return new TreeSet<>(jdbc.queryForList("SELECT TABLE_NAME || '.' || COLUMN_NAME || ' ' || DATA_TYPE "
+                + "FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = 'PUBLIC' "
+                + "AND TABLE_NAME <> 'flyway_schema_history'", String.class));
+    }
+
+    private static Set<String> indexes(JdbcTemplate jdbc) {
+        return new TreeSet<>(jdbc.queryForList("SELECT TABLE_NAME || '.' || INDEX_NAME "
+                + "FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_SCHEMA = 'PUBLIC' "
+                + "AND TABLE_NAME <> 'flyway_schema_history' AND INDEX_TYPE_NAME <> 'PRIMARY KEY'", String.class));
+    }
+}
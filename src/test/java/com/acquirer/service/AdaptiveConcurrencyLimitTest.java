@@ -0,0 +1,133 @@
+package com.acquirer.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Adaptive Concurrency Limit and Circuit Breaker Tests")
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    @DisplayName("Should reject calls above the limit instead of queueing them")
+    void shouldRejectAboveLimit() {
+        // Given
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(3, 1, 10);
+
+        // When / Then
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        assertEquals(3, limit.getInFlight());
+
+        limit.release(RTT, false);
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Should grow while latency is stable and shrink when it spikes")
+    void shouldFollowLatency() {
+        // Given
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 4, 200);
+
+        // When - saturated with a steady RTT
+        runSaturated(limit, RTT, 200);
+        int grown = limit.getLimit();
+
+        // Then
+        assertTrue(grown > 20, "Limit did not grow: " + grown);
+
+        // When - RTT jumps tenfold
+        runSaturated(limit, RTT * 10, 30);
+
+        // Then
+        assertTrue(limit.getLimit() < grown / 4, "Limit did not shrink: " + limit.getLimit());
+    }
+
+    @Test
+    @DisplayName("Should shrink on timeouts down to the minimum")
+    void shouldShrinkOnTimeouts() {
+        // Given
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(50, 5, 100);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(RTT, true);
+        }
+
+        // Then
+        assertEquals(5, limit.getLimit());
+    }
+
+    @Test
+    @DisplayName("Should open after failures, then close after successful trial calls")
+    void shouldOpenAndClose() throws InterruptedException {
+        // Given
+        CircuitBreaker breaker = new CircuitBreaker(0.5, 4, 10, Duration.ofMillis(100), 2);
+
+        // When - 2 of 4 calls fail
+        for (boolean success : new boolean[] {true, false, true, false}) {
+            assertTrue(breaker.tryAcquirePermission());
+            breaker.onResult(success);
+        }
+
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+
+        // When - after the open duration only the trial calls get through
+        Thread.sleep(150);
+        assertTrue(breaker.tryAcquirePermission());
+        assertTrue(breaker.tryAcquirePermission());
+        assertFalse(breaker.tryAcquirePermission());
+        breaker.onResult(true);
+        breaker.onResult(true);
+
+        // Then
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    @DisplayName("Should reopen when a trial call fails")
+    void shouldReopenOnFailedTrial() throws InterruptedException {
+        // Given
+        CircuitBreaker breaker = new CircuitBreaker(0.5, 2, 10, Duration.ofMillis(50), 1);
+        breaker.onResult(false);
+        breaker.onResult(false);
+        Thread.sleep(80);
+
+        // When
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onResult(false);
+
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+    }
+
+    /**
+     * Keep the limiter full: every released call is replaced by a new one
+     */
+    private void runSaturated(AdaptiveConcurrencyLimit limit, long rttNanos, int calls) {
+        while (limit.tryAcquire()) {
+            // fill up
+        }
+        for (int i = 0; i < calls; i++) {
+            limit.release(rttNanos, false);
+            while (limit.tryAcquire()) {
+                // refill up to the new limit
+            }
+        }
+        while (limit.getInFlight() > 0) {
+            limit.release(rttNanos, false);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.acquirer.service;
+
+import com.acquirer.dto.PaymentRequest;
+import com.acquirer.dto.PaymentResponse;
+import com.acquirer.exception.ValidationException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.acquirer.TestPayments.paymentRequest;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "acquirer.audit.sampling.merchant-validated=1.0",
+        "acquirer.audit.sampling.rules-passed=1.0"
+})
+@ActiveProfiles("test")
+@DisplayName("Audit Log Tests")
+class AuditLogTest {
+
+    private static final Path AUDIT_FILE = createAuditFile();
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void auditFile(DynamicPropertyRegistry registry) {
+        registry.add("acquirer.audit.file", AUDIT_FILE::toString);
+    }
+
+    @Test
+    @DisplayName("Should write one JSON line per payment stage with the card masked")
+    void shouldWriteEveryStage() throws Exception {
+        // Given
+        PaymentRequest request = paymentRequest("MERCHANT_001", "100.00");
+
+        // When
+        PaymentResponse response = paymentService.processPaymentAsync(request).get(5, TimeUnit.SECONDS);
+
+        // Then
+        List<JsonNode> events = awaitEvents(response.getTransactionId(), 5);
+        assertEquals(List.of("RECEIVED", "MERCHANT_VALIDATED", "RULES_PASSED", "ISSUER_RESPONDED", "COMPLETED"),
+                events.stream().map(event -> event.get("event").asText()).toList());
+
+        JsonNode received = events.get(0);
+        assertEquals("MERCHANT_001", received.get("merchantId").asText());
+        assertEquals(100.00, received.get("amount").asDouble());
+        assertFalse(received.get("card").asText().contains("4532015112830366"));
+        assertTrue(events.get(3).get("latencyMs").asLong() >= 0);
+
+        JsonNode completed = events.get(4);
+        assertEquals(response.getStatus().name(), completed.get("status").asText());
+        assertEquals(response.getResponseCode(), completed.get("responseCode").asText());
+    }
+
+    @Test
+    @DisplayName("Should record a rejected payment with its reason")
+    void shouldRecordRejection() throws Exception {
+        // Given - above the merchant limit
+        PaymentRequest request = paymentRequest("MERCHANT_001", "999999.00");
+
+        // When
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> paymentService.processPaymentAsync(request).join());
+        assertInstanceOf(ValidationException.class, e.getCause());
+
+        // Then
+        JsonNode rejected = awaitLast("REJECTED");
+        assertEquals("ERROR", rejected.get("status").asText());
+        assertEquals(e.getCause().getMessage(), rejected.get("detail").asText());
+    }
+
+    @Test
+    @DisplayName("Should sample the same payments at every sampled stage and drop when full")
+    void shouldSampleAndDrop() {
+        // Given - sampled stages at 25%, a ring of 1024 events and no writer draining it
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AuditLog idle = new AuditLog(registry, true, 1024, AuditLog.OverflowPolicy.DROP, "",
+                1.0, 0.25, 0.25, 1.0);
+        ReflectionTestUtils.setField(idle, "running", true);
+
+        // When
+        int sampled = 0;
+        for (int i = 0; i < 2_000; i++) {
+            String transactionId = "tx-" + i;
+            long before = idle.getRing().getBacklog();
+            idle.passed(AuditEvent.Type.MERCHANT_VALIDATED, transactionId, "MERCHANT_001");
+            boolean merchantSampled = idle.getRing().getBacklog() > before;
+            idle.passed(AuditEvent.Type.RULES_PASSED, transactionId, "MERCHANT_001");
+            boolean rulesSampled = idle.getRing().getBacklog() > before + (merchantSampled ? 1 : 0);
+            assertEquals(merchantSampled, rulesSampled);
+            if (merchantSampled) {
+                sampled++;
+            }
+        }
+
+        // Then - about a quarter of the payments, until the ring filled up
+        assertTrue(sampled > 350 && sampled < 650, sampled + " payments sampled");
+        for (int i = 0; i < 2_000; i++) {
+            idle.finished(AuditEvent.Type.COMPLETED, null, "tx-" + i, null);
+        }
+        assertEquals(1024, idle.getRing().getBacklog());
+        assertTrue(registry.get("acquirer.audit.dropped").counter().count() > 0);
+    }
+
+    private List<JsonNode> awaitEvents(String transactionId, int expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        List<JsonNode> events;
+        do {
+            events = readEvents().stream()
+                    .filter(event -> transactionId.equals(event.path("transactionId").asText()))
+                    .toList();
+            if (events.size() >= expected) {
+                return events;
+            }
+            Thread.sleep(20);
+        } while (System.nanoTime() < deadline);
+        fail("Only " + events.size() + " audit events for " + transactionId);
+        return events;
+    }
+
+    private JsonNode awaitLast(String type) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        do {
+            List<JsonNode> events = readEvents();
+            if (!events.isEmpty() && type.equals(events.get(events.size() - 1).get("event").asText())) {
+                return events.get(events.size() - 1);
+            }
+            Thread.sleep(20);
+        } while (System.nanoTime() < deadline);
+        return fail("No " + type + " audit event written");
+    }
+
+    private List<JsonNode> readEvents() throws IOException {
+        List<JsonNode> events = new ArrayList<>();
+        for (String line : Files.readAllLines(AUDIT_FILE)) {
+            events.add(objectMapper.readTree(line));
+        }
+        return events;
+    }
+
+    private static Path createAuditFile() {
+        try {
+            Path file = Files.createTempFile("payment-audit", ".ndjson");
+            file.toFile().deleteOnExit();
+            return file;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.acquirer.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Audit Ring Buffer Tests")
+class AuditRingBufferTest {
+
+    @Test
+    @DisplayName("Should hand events to the consumer in publish order")
+    void shouldDrainInOrder() {
+        // Given
+        AuditRingBuffer ring = new AuditRingBuffer(8);
+        for (int i = 0; i < 5; i++) {
+            publish(ring, ring.tryClaim(), "tx-" + i);
+        }
+
+        // When
+        List<String> drained = new ArrayList<>();
+        int handled = ring.drain(event -> drained.add(event.getTransactionId()), 100);
+
+        // Then
+        assertEquals(5, handled);
+        assertEquals(List.of("tx-0", "tx-1", "tx-2", "tx-3", "tx-4"), drained);
+        assertEquals(0, ring.getBacklog());
+    }
+
+    @Test
+    @DisplayName("Should refuse claims when full until the consumer frees slots")
+    void shouldRefuseClaimsWhenFull() {
+        // Given
+        AuditRingBuffer ring = new AuditRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            publish(ring, ring.tryClaim(), "tx-" + i);
+        }
+
+        // When / Then
+        assertEquals(-1, ring.tryClaim());
+        assertEquals(4, ring.getBacklog());
+
+        ring.drain(event -> { }, 1);
+        long sequence = ring.tryClaim();
+        assertEquals(4, sequence);
+        // The recycled slot holds the event of the new sequence
+        publish(ring, sequence, "tx-4");
+        assertEquals(-1, ring.tryClaim());
+    }
+
+    @Test
+    @DisplayName("Should stop at a claimed but unpublished slot")
+    void shouldStopAtUnpublishedSlot() {
+        // Given
+        AuditRingBuffer ring = new AuditRingBuffer(8);
+        long first = ring.tryClaim();
+        long second = ring.tryClaim();
+        publish(ring, second, "tx-1");
+
+        // When / Then - the later event waits for the earlier one
+        assertEquals(0, ring.drain(event -> { }, 100));
+
+        publish(ring, first, "tx-0");
+        List<String> drained = new ArrayList<>();
+        ring.drain(event -> drained.add(event.getTransactionId()), 100);
+        assertEquals(List.of("tx-0", "tx-1"), drained);
+    }
+
+    @Test
+    @DisplayName("Should not lose events with many producers and a blocking claim")
+    void shouldNotLoseEventsWithManyProducers() throws Exception {
+        // Given
+        int producers = 8;
+        int perProducer = 20_000;
+        AuditRingBuffer ring = new AuditRingBuffer(64);
+        Set<String> seen = new HashSet<>();
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+
+        // When
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            futures.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    publish(ring, ring.claim(), producer + "-" + i);
+                }
+            }, executor));
+        }
+        CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+        while (!all.isDone() || ring.getBacklog() > 0) {
+            ring.drain(event -> seen.add(event.getTransactionId()), 256);
+        }
+        all.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // Then
+        assertEquals(producers * perProducer, seen.size());
+    }
+
+    private void publish(AuditRingBuffer ring, long sequence, String transactionId) {
+        ring.get(sequence).reset(AuditEvent.Type.RECEIVED, transactionId, "MERCHANT_001");
+        ring.publish(sequence);
+    }
+}
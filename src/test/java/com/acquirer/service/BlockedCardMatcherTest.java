@@ -0,0 +1,97 @@
+package com.acquirer.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Blocked Card Matcher Tests")
+class BlockedCardMatcherTest {
+
+    @Test
+    @DisplayName("Should put anchored literal patterns in the literal set")
+    void shouldPutAnchoredLiteralsInLiteralSet() {
+        // When
+        BlockedCardMatcher matcher = BlockedCardMatcher.compile("^4111111111111111$, ^5555555555554444$");
+
+        // Then
+        assertEquals(2, matcher.getLiteralCount());
+        assertEquals(0, matcher.getRegexCount());
+        assertTrue(matcher.isBlocked("4111111111111111"));
+        assertTrue(matcher.isBlocked("5555555555554444"));
+        assertFalse(matcher.isBlocked("41111111111111112"));
+        assertFalse(matcher.isBlocked("tok_4111111111111111"));
+    }
+
+    @Test
+    @DisplayName("Should match real regexes with full-match semantics")
+    void shouldMatchRegexesWithFullMatchSemantics() {
+        // When
+        BlockedCardMatcher matcher = BlockedCardMatcher.compile("^4111111111111111$,^tok_9999.*,\\d{4}-\\d{4}");
+
+        // Then
+        assertEquals(1, matcher.getLiteralCount());
+        assertEquals(2, matcher.getRegexCount());
+        assertTrue(matcher.isBlocked("tok_99991234"));
+        assertTrue(matcher.isBlocked("1234-5678"));
+        assertFalse(matcher.isBlocked("x1234-5678"));
+        assertFalse(matcher.isBlocked("tok_8999"));
+    }
+
+    @Test
+    @DisplayName("Should agree with String.matches for every pattern")
+    void shouldAgreeWithStringMatches() {
+        // Given
+        String patterns = "^4111111111111111$,^5555.*,^tok_(1|2)[0-9]+$,abc";
+        BlockedCardMatcher matcher = BlockedCardMatcher.compile(patterns);
+        String[] tokens = {"4111111111111111", "5555000011112222", "tok_123", "tok_323", "abc", "abcd", ""};
+
+        // Then
+        for (String token : tokens) {
+            boolean expected = false;
+            for (String pattern : patterns.split(",")) {
+                expected |= token.matches(pattern.trim());
+            }
+            assertEquals(expected, matcher.isBlocked(token), token);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep backreferences and named groups pointing at their own pattern")
+    void shouldMatchBackreferencesPerPattern() {
+        // Given - the first regex's group would become \1 of the second one in a shared alternation
+        String patterns = "^tok_(9)\\d+$,^(\\d)\\1{15}$,^(?<d>5)\\k<d>\\d+$,^(?<d>6)\\k<d>\\d+$";
+        BlockedCardMatcher matcher = BlockedCardMatcher.compile(patterns);
+        String[] tokens = {"4444444444444444", "4444444444444445", "tok_999", "9999999999999999",
+                "55123", "56123", "66123", "65123"};
+
+        // Then
+        assertEquals(4, matcher.getRegexCount());
+        assertTrue(matcher.isBlocked("4444444444444444"));
+        assertTrue(matcher.isBlocked("66123"));
+        for (String token : tokens) {
+            boolean expected = false;
+            for (String pattern : patterns.split(",")) {
+                expected |= token.matches(pattern);
+            }
+            assertEquals(expected, matcher.isBlocked(token), token);
+        }
+    }
+
+    @Test
+    @DisplayName("Should ignore empty entries")
+    void shouldIgnoreEmptyEntries() {
+        // When
+        BlockedCardMatcher matcher = BlockedCardMatcher.compile(" , ,");
+
+        // Then
+        assertTrue(matcher.getPatterns().isEmpty());
+        assertFalse(matcher.isBlocked("4111111111111111"));
+    }
+
+    @Test
+    @DisplayName("Should reject invalid patterns")
+    void shouldRejectInvalidPatterns() {
+        assertThrows(IllegalArgumentException.class, () -> BlockedCardMatcher.compile("^4111$,[unclosed"));
+    }
+}
@@ -0,0 +1,165 @@
+package com.acquirer.service;
+
+import com.acquirer.dto.ErrorResponse;
+import com.acquirer.dto.PaymentResponse;
+import com.acquirer.entity.Transaction;
+import com.acquirer.entity.Transaction.TransactionStatus;
+import com.acquirer.exception.IssuerUnavailableException;
+import com.acquirer.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.acquirer.TestPayments.paymentRequest;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "acquirer.rules.issuer.min-latency-ms=20",
+        "acquirer.rules.issuer.max-latency-ms=20",
+        "acquirer.issuer.timeout=300ms",
+        "acquirer.issuer.concurrency.initial-limit=20",
+        "acquirer.issuer.concurrency.min-limit=4",
+        "acquirer.issuer.concurrency.max-limit=20",
+        "acquirer.issuer.circuit-breaker.minimum-calls=10",
+        "acquirer.issuer.circuit-breaker.window-size=20",
+        "acquirer.issuer.circuit-breaker.open-duration=3s",
+        "acquirer.issuer.circuit-breaker.half-open-calls=2"
+})
+@ActiveProfiles("test")
+@DisplayName("Issuer Resilience Tests")
+class IssuerResilienceTest {
+
+    private static final int SPIKE_PAYMENTS = 100;
+    private static final int ISSUER_LIMIT = 20;
+    private static final int SPIKE_LATENCY_MS = 1_000;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private IssuerService issuerService;
+
+    @Autowired
+    private IssuerBulkhead issuerBulkhead;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    @DisplayName("Should fail fast with bounded in-flight calls during an issuer latency spike, then recover")
+    void shouldBoundQueueingDuringLatencySpike() throws Exception {
+        // Given - a healthy issuer
+        for (int i = 0; i < 5; i++) {
+            PaymentResponse response = paymentService.processPaymentAsync(paymentRequest()).get(5, TimeUnit.SECONDS);
+            assertNotEquals(TransactionStatus.ERROR, response.getStatus());
+        }
+
+        // When - the issuer becomes slower than the timeout and a burst of payments arrives
+        setIssuerLatency(SPIKE_LATENCY_MS);
+        double timeoutsBefore = rejections("timeout");
+        List<CompletableFuture<PaymentResponse>> futures = new ArrayList<>();
+        List<long[]> elapsed = new ArrayList<>();
+        long burstStart = System.nanoTime();
+        for (int i = 0; i < SPIKE_PAYMENTS; i++) {
+            long[] done = new long[1];
+            elapsed.add(done);
+            futures.add(paymentService.processPaymentAsync(paymentRequest())
+                    .whenComplete((response, e) -> done[0] = System.nanoTime()));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .exceptionally(e -> null)
+                .get(10, TimeUnit.SECONDS);
+
+        // Then - every payment failed fast with the issuer-unavailable error
+        for (CompletableFuture<PaymentResponse> future : futures) {
+            CompletionException e = assertThrows(CompletionException.class, future::join);
+            assertInstanceOf(IssuerUnavailableException.class, e.getCause());
+        }
+        // Nobody waited for the slow issuer to answer
+        long slowestMs = elapsed.stream()
+                .mapToLong(done -> TimeUnit.NANOSECONDS.toMillis(done[0] - burstStart))
+                .max().orElseThrow();
+        assertTrue(slowestMs < SPIKE_LATENCY_MS, "Slowest payment took " + slowestMs + " ms");
+        // At most the concurrency limit reached the issuer; the rest were rejected up front
+        double admitted = rejections("timeout") - timeoutsBefore;
+        assertTrue(admitted <= ISSUER_LIMIT, admitted + " calls reached the issuer");
+        assertEquals(0, issuerBulkhead.getConcurrencyLimit().getInFlight());
+        assertEquals(CircuitBreaker.State.OPEN, issuerBulkhead.getCircuitBreaker().getState());
+
+        Transaction failed = transactionRepository.findAll().stream()
+                .filter(t -> t.getStatus() == TransactionStatus.ERROR)
+                .findFirst().orElseThrow();
+        assertEquals(IssuerUnavailableException.RESPONSE_CODE, failed.getResponseCode());
+
+        // When - the circuit is open
+        double timeoutsWhileOpen = rejections("timeout");
+        ResponseEntity<ErrorResponse> rejected = restTemplate.postForEntity(
+                "/payments", paymentRequest(), ErrorResponse.class);
+
+        // Then - rejected without calling the issuer
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatusCode());
+        assertEquals(IssuerUnavailableException.RESPONSE_CODE, rejected.getBody().getResponseCode());
+        assertNotNull(rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(timeoutsWhileOpen, rejections("timeout"));
+
+        // When - the issuer recovers and the open period ends
+        setIssuerLatency(20);
+        Thread.sleep(3_500);
+        for (int i = 0; i < 5; i++) {
+            PaymentResponse response = paymentService.processPaymentAsync(paymentRequest()).get(5, TimeUnit.SECONDS);
+            assertNotEquals(TransactionStatus.ERROR, response.getStatus());
+        }
+
+        // Then
+        assertEquals(CircuitBreaker.State.CLOSED, issuerBulkhead.getCircuitBreaker().getState());
+    }
+
+    @Test
+    @DisplayName("Should time out blocking issuer calls")
+    void shouldTimeOutBlockingCalls() {
+        // Given
+        setIssuerLatency(SPIKE_LATENCY_MS);
+        try {
+            // When
+            long start = System.nanoTime();
+            assertThrows(IssuerUnavailableException.class,
+                    () -> issuerService.authorizeTransaction("tok_4532015112830366", BigDecimal.TEN, "USD"));
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // Then
+            assertTrue(elapsedMs < SPIKE_LATENCY_MS, "Blocked for " + elapsedMs + " ms");
+        } finally {
+            setIssuerLatency(20);
+        }
+    }
+
+    private void setIssuerLatency(int latencyMs) {
+        ReflectionTestUtils.setField(issuerService, "minLatencyMs", latencyMs);
+        ReflectionTestUtils.setField(issuerService, "maxLatencyMs", latencyMs);
+    }
+
+    private double rejections(String reason) {
+        return meterRegistry.get("acquirer.issuer.rejections").tag("reason", reason).counter().count();
+    }
+}
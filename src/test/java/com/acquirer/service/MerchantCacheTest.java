@@ -0,0 +1,150 @@
+package com.acquirer.service;
+
+import com.acquirer.dto.MerchantSnapshot;
+import com.acquirer.entity.Merchant;
+import com.acquirer.repository.MerchantRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Merchant Cache Tests")
+class MerchantCacheTest {
+
+    private MerchantRepository merchantRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private MerchantCache merchantCache;
+
+    @BeforeEach
+    void setUp() {
+        merchantRepository = mock(MerchantRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        merchantCache = new MerchantCache(merchantRepository, meterRegistry,
+                100, Duration.ofMinutes(10), Duration.ofMinutes(5));
+    }
+
+    @Test
+    @DisplayName("Should load merchant once and serve repeated lookups from cache")
+    void shouldServeRepeatedLookupsFromCache() {
+        // Given
+        when(merchantRepository.findById("MERCHANT_001")).thenReturn(Optional.of(merchant("MERCHANT_001", true)));
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            merchantCache.get("MERCHANT_001");
+        }
+
+        // Then
+        verify(merchantRepository, times(1)).findById("MERCHANT_001");
+        assertEquals(9.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Should run a single loader for concurrent misses")
+    void shouldRunSingleLoaderForConcurrentMisses() throws Exception {
+        // Given
+        when(merchantRepository.findById("MERCHANT_001")).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return Optional.of(merchant("MERCHANT_001", true));
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(20);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<MerchantSnapshot>>> futures = new ArrayList<>();
+
+        // When
+        try {
+            for (int i = 0; i < 20; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return merchantCache.get("MERCHANT_001");
+                }));
+            }
+            start.countDown();
+
+            // Then
+            for (Future<Optional<MerchantSnapshot>> future : futures) {
+                assertTrue(future.get().isPresent());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(merchantRepository, times(1)).findById("MERCHANT_001");
+    }
+
+    @Test
+    @DisplayName("Should not cache unknown merchants, so one created later is found")
+    void shouldNotCacheUnknownMerchants() {
+        // Given
+        when(merchantRepository.findById("MERCHANT_NEW"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(merchant("MERCHANT_NEW", true)));
+
+        // When
+        Optional<MerchantSnapshot> beforeCreation = merchantCache.get("MERCHANT_NEW");
+        Optional<MerchantSnapshot> afterCreation = merchantCache.get("MERCHANT_NEW");
+
+        // Then
+        assertTrue(beforeCreation.isEmpty());
+        assertTrue(afterCreation.orElseThrow().active());
+        verify(merchantRepository, times(2)).findById("MERCHANT_NEW");
+    }
+
+    @Test
+    @DisplayName("Should reload merchant after invalidation")
+    void shouldReloadMerchantAfterInvalidation() {
+        // Given
+        when(merchantRepository.findById("MERCHANT_001"))
+                .thenReturn(Optional.of(merchant("MERCHANT_001", true)))
+                .thenReturn(Optional.of(merchant("MERCHANT_001", false)));
+        assertTrue(merchantCache.get("MERCHANT_001").orElseThrow().active());
+
+        // When
+        merchantCache.invalidate("MERCHANT_001");
+
+        // Then
+        assertFalse(merchantCache.get("MERCHANT_001").orElseThrow().active());
+        verify(merchantRepository, times(2)).findById("MERCHANT_001");
+    }
+
+    @Test
+    @DisplayName("Should invalidate merchants written by the default merchant setup")
+    void shouldInvalidateDefaultMerchants() {
+        // Given - a lookup that cached MERCHANT_001 before it was (re)created
+        MerchantService merchantService = new MerchantService(merchantRepository, merchantCache);
+        when(merchantRepository.findById("MERCHANT_001"))
+                .thenReturn(Optional.of(merchant("MERCHANT_001", false)))
+                .thenReturn(Optional.of(merchant("MERCHANT_001", true)));
+        when(merchantRepository.save(any(Merchant.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        assertFalse(merchantService.isMerchantActive("MERCHANT_001"));
+
+        // When
+        merchantService.initializeDefaultMerchants();
+
+        // Then
+        assertTrue(merchantService.isMerchantActive("MERCHANT_001"));
+        verify(merchantRepository, times(2)).findById("MERCHANT_001");
+    }
+
+    private Merchant merchant(String merchantId, boolean active) {
+        return Merchant.builder()
+                .merchantId(merchantId)
+                .merchantName("Test Merchant")
+                .maxTransactionAmount(new BigDecimal("5000.00"))
+                .active(active)
+                .build();
+    }
+}
@@ -0,0 +1,171 @@
+package com.acquirer.service;
+
+import com.acquirer.dto.MerchantStatsResponse;
+import com.acquirer.dto.PaymentResponse;
+import com.acquirer.entity.Transaction;
+import com.acquirer.entity.Transaction.TransactionStatus;
+import com.acquirer.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static com.acquirer.TestPayments.paymentRequest;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "acquirer.rules.issuer.min-latency-ms=20",
+        "acquirer.rules.issuer.max-latency-ms=40"
+})
+@ActiveProfiles("test")
+@DisplayName("Merchant Statistics Tests")
+class MerchantStatisticsTest {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should count finalized payments and serve them from the stats endpoint")
+    void shouldServeStatsOfProcessedPayments() {
+        // Given - MERCHANT_003 sees no other traffic in the test suite
+        MerchantStatsResponse before = restTemplate.getForObject("/merchants/MERCHANT_003/stats",
+                MerchantStatsResponse.class);
+
+        // When
+        List<PaymentResponse> responses = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            responses.add(paymentService.processPayment(paymentRequest("MERCHANT_003", "10.25")));
+        }
+
+        // Then
+        ResponseEntity<MerchantStatsResponse> response = restTemplate.getForEntity(
+                "/merchants/MERCHANT_003/stats?minutes=5", MerchantStatsResponse.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        MerchantStatsResponse stats = response.getBody();
+        long approved = responses.stream().filter(r -> r.getStatus() == TransactionStatus.APPROVED).count();
+
+        assertEquals(5, stats.getWindowMinutes());
+        assertEquals(before.getTotalCount() + 10, stats.getTotalCount());
+        assertEquals(before.getApprovedCount() + approved, stats.getApprovedCount());
+        BigDecimal approvedBefore = before.getApprovedAmount().getOrDefault("USD", BigDecimal.ZERO);
+        assertEquals(0, approvedBefore.add(new BigDecimal("10.25").multiply(BigDecimal.valueOf(approved)))
+                .compareTo(stats.getApprovedAmount().getOrDefault("USD", BigDecimal.ZERO)));
+        assertTrue(stats.getIssuerLatencyAvgMs() >= 20);
+        assertTrue(stats.getIssuerLatencyMaxMs() >= 20);
+    }
+
+    @Test
+    @DisplayName("Should reject unknown merchants and invalid windows")
+    void shouldRejectInvalidStatsRequests() {
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.getForEntity(
+                "/merchants/UNKNOWN_MERCHANT/stats", String.class).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.getForEntity(
+                "/merchants/MERCHANT_001/stats?minutes=0", String.class).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.getForEntity(
+                "/merchants/MERCHANT_001/stats?minutes=61", String.class).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Should rebuild the counters from the database at startup")
+    void shouldRebuildFromDatabase() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        insertProcessed("tx-recent-1", TransactionStatus.APPROVED, "100.00", "USD", 120, now.minusMinutes(1));
+        insertProcessed("tx-recent-2", TransactionStatus.DECLINED, "50.50", "USD", 80, now.minusMinutes(10));
+        insertProcessed("tx-recent-3", TransactionStatus.ERROR, "20.00", "USD", null, now.minusMinutes(30));
+        insertProcessed("tx-recent-4", TransactionStatus.APPROVED, "5000", "JPY", null, now.minusMinutes(20));
+        insertProcessed("tx-too-old", TransactionStatus.APPROVED, "999.00", "USD", 300, now.minusHours(2));
+
+        // When
+        MerchantStatistics restarted = new MerchantStatistics(
+                transactionRepository, transactionManager, Duration.ofMinutes(60));
+        restarted.afterSingletonsInstantiated();
+
+        // Then
+        MerchantStatsResponse stats = restarted.getStats("MERCHANT_001", 60);
+        assertEquals(4, stats.getTotalCount());
+        assertEquals(2, stats.getApprovedCount());
+        assertEquals(1, stats.getDeclinedCount());
+        assertEquals(1, stats.getErrorCount());
+        // Summed per currency: 5000 JPY is not added to 100.00 USD
+        assertEquals(Map.of("JPY", new BigDecimal("5000"), "USD", new BigDecimal("100.00")), stats.getApprovedAmount());
+        assertEquals(Map.of("USD", new BigDecimal("50.50")), stats.getDeclinedAmount());
+        assertEquals(Map.of("USD", new BigDecimal("20.00")), stats.getErrorAmount());
+        assertEquals(100.0, stats.getIssuerLatencyAvgMs(), 0.001);
+        assertEquals(120, stats.getIssuerLatencyMaxMs());
+        assertEquals(1, restarted.getStats("MERCHANT_001", 5).getTotalCount());
+    }
+
+    @Test
+    @DisplayName("Should not lose updates under concurrent recording")
+    void shouldCountConcurrentUpdatesExactly() {
+        // Given
+        MerchantStatistics statistics = new MerchantStatistics(
+                transactionRepository, transactionManager, Duration.ofMinutes(60));
+        Transaction transaction = Transaction.builder()
+                .merchantId("MERCHANT_001")
+                .status(TransactionStatus.APPROVED)
+                .amount(new BigDecimal("1.01"))
+                .currency("USD")
+                .issuerLatencyMs(10)
+                .build();
+
+        // When
+        List<CompletableFuture<Void>> writers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            writers.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    statistics.record(transaction);
+                }
+            }));
+        }
+        writers.forEach(CompletableFuture::join);
+
+        // Then
+        MerchantStatsResponse stats = statistics.getStats("MERCHANT_001", 60);
+        assertEquals(80_000, stats.getApprovedCount());
+        assertEquals(Map.of("USD", new BigDecimal("80800.00")), stats.getApprovedAmount());
+    }
+
+    private void insertProcessed(String transactionId, TransactionStatus status, String amount, String currency,
+                                 Integer issuerLatencyMs, LocalDateTime processedAt) {
+        jdbcTemplate.update("INSERT INTO transactions (transaction_id, merchant_id, amount, currency, card_token, "
+                        + "card_expiry, operation_type, status, issuer_latency_ms, created_at, updated_at, processed_at) "
+                        + "VALUES (?, 'MERCHANT_001', ?, ?, 'tok_4532015112830366', '12/2030', 'PURCHASE', ?, ?, ?, ?, ?)",
+                transactionId, new BigDecimal(amount), currency, status.name(), issuerLatencyMs,
+                Timestamp.valueOf(processedAt), Timestamp.valueOf(processedAt), Timestamp.valueOf(processedAt));
+    }
+}
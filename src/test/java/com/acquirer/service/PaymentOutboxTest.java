@@ -0,0 +1,279 @@
+package com.acquirer.service;
+
+import com.acquirer.dto.PaymentResponse;
+import com.acquirer.entity.Transaction;
+import com.acquirer.entity.Transaction.TransactionStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.IncorrectUpdateSemanticsDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.acquirer.TestPayments.paymentRequest;
+import static com.acquirer.TestPayments.transactionId;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "acquirer.outbox.enabled=true",
+        "acquirer.outbox.poll-interval=20ms",
+        "acquirer.rules.issuer.min-latency-ms=5",
+        "acquirer.rules.issuer.max-latency-ms=5"
+})
+@ActiveProfiles("test")
+// Stops the relay so it does not poll the schema recreated by later test contexts
+@DirtiesContext
+@DisplayName("Payment Outbox Tests")
+class PaymentOutboxTest {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PublishedEvents published;
+
+    @Autowired
+    private TransactionBatchWriter batchWriter;
+
+    @Autowired
+    private PaymentOutbox outbox;
+
+    @Autowired
+    private PaymentOutboxRelay relay;
+
+    @Test
+    @DisplayName("Should publish one outcome per payment in order per merchant")
+    void shouldPublishOutcomesInOrderPerMerchant() throws Exception {
+        // Given
+        published.events.clear();
+        long lagsBefore = meterRegistry.get("acquirer.outbox.delivery.lag").timer().count();
+        List<PaymentResponse> responses = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            responses.add(paymentService.processPayment(paymentRequest("MERCHANT_001")));
+            responses.add(paymentService.processPayment(paymentRequest("MERCHANT_002")));
+        }
+
+        // Then
+        List<OutboxEvent> events = awaitEvents(responses.size());
+        Map<String, List<String>> publishedByMerchant = events.stream().collect(Collectors.groupingBy(
+                OutboxEvent::merchantId, Collectors.mapping(OutboxEvent::transactionId, Collectors.toList())));
+        Map<String, List<String>> processedByMerchant = responses.stream().collect(Collectors.groupingBy(
+                PaymentResponse::getMerchantId, Collectors.mapping(PaymentResponse::getTransactionId, Collectors.toList())));
+        assertEquals(processedByMerchant, publishedByMerchant);
+
+        JsonNode outcome = objectMapper.readTree(events.get(0).payload());
+        PaymentResponse first = responses.get(0);
+        assertEquals(first.getTransactionId(), outcome.get("transactionId").asText());
+        assertEquals(first.getStatus().name(), outcome.get("status").asText());
+        assertEquals(first.getResponseCode(), outcome.get("responseCode").asText());
+
+        assertEquals(0, outboxSize());
+        assertEquals(lagsBefore + responses.size(),
+                meterRegistry.get("acquirer.outbox.delivery.lag").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should skip shards locked by another relay until they are released")
+    void shouldSkipLockedShards() throws Exception {
+        // Given - an event written while the relay is paused, then every shard held by another relay
+        published.events.clear();
+        relay.stop();
+        PaymentResponse response = paymentService.processPayment(paymentRequest("MERCHANT_003"));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> otherRelay = CompletableFuture.runAsync(() ->
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.queryForList("SELECT shard FROM payment_outbox_shards FOR UPDATE", Integer.class);
+                    locked.countDown();
+                    await(release);
+                }));
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        // When
+        relay.start();
+        Thread.sleep(300);
+
+        // Then - the event waits in the outbox instead of blocking the relay
+        assertTrue(published.events.isEmpty());
+        assertEquals(1, outboxSize());
+
+        release.countDown();
+        otherRelay.get(5, TimeUnit.SECONDS);
+        List<OutboxEvent> events = awaitEvents(1);
+        assertEquals(response.getTransactionId(), events.get(0).transactionId());
+        assertEquals(0, outboxSize());
+    }
+
+    @Test
+    @DisplayName("Should not publish an outcome whose status update matched no row")
+    void shouldNotPublishUnwrittenOutcome() throws Exception {
+        // Given
+        published.events.clear();
+        Transaction missing = Transaction.builder()
+                .transactionId(transactionId("tx-never-created"))
+                .merchantId("MERCHANT_001")
+                .amount(new BigDecimal("100.00"))
+                .currency("USD")
+                .status(TransactionStatus.APPROVED)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+
+        // When / Then
+        assertThrows(IncorrectUpdateSemanticsDataAccessException.class, () -> batchWriter.updateAll(List.of(missing)));
+        Thread.sleep(100);
+        assertEquals(0, outboxSize());
+        assertTrue(published.events.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should claim a bounded set of shards per cycle so relays drain in parallel")
+    void shouldClaimBoundedShardsPerCycle() throws Exception {
+        // Given - the background relay is paused so only the two simulated relays claim
+        relay.stop();
+        try {
+            CountDownLatch claimed = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            CompletableFuture<List<Integer>> first = CompletableFuture.supplyAsync(() ->
+                    transactionTemplate.execute(status -> {
+                        List<Integer> shards = relay.claimShards();
+                        claimed.countDown();
+                        await(release);
+                        return shards;
+                    }));
+            assertTrue(claimed.await(5, TimeUnit.SECONDS));
+
+            // When
+            List<Integer> second = transactionTemplate.execute(status -> relay.claimShards());
+            release.countDown();
+
+            // Then
+            List<Integer> firstShards = first.get(5, TimeUnit.SECONDS);
+            assertEquals(4, firstShards.size());
+            assertEquals(4, second.size());
+            assertTrue(Collections.disjoint(firstShards, second), firstShards + " and " + second);
+        } finally {
+            relay.start();
+        }
+    }
+
+    @Test
+    @DisplayName("Should make writers of a shard take turns so events are published in commit order")
+    void shouldPublishInCommitOrderPerShard() throws Exception {
+        // Given - a writer that inserted its event first but has not committed yet
+        published.events.clear();
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> slow = CompletableFuture.runAsync(() ->
+                transactionTemplate.executeWithoutResult(status -> {
+                    outbox.append(List.of(finalized(transactionId("tx-slow"))));
+                    inserted.countDown();
+                    await(commit);
+                }));
+        assertTrue(inserted.await(5, TimeUnit.SECONDS));
+
+        // When - a second writer of the same merchant has to wait for it
+        CompletableFuture<Void> fast = CompletableFuture.runAsync(() ->
+                transactionTemplate.executeWithoutResult(status -> outbox.append(List.of(finalized(transactionId("tx-fast"))))));
+        Thread.sleep(300);
+        assertFalse(fast.isDone());
+        assertTrue(published.events.isEmpty());
+        commit.countDown();
+        slow.get(5, TimeUnit.SECONDS);
+        fast.get(5, TimeUnit.SECONDS);
+
+        // Then
+        List<String> order = awaitEvents(2).stream().map(OutboxEvent::transactionId).toList();
+        assertEquals(List.of(transactionId("tx-slow"), transactionId("tx-fast")), order);
+    }
+
+    private static Transaction finalized(String transactionId) {
+        return Transaction.builder()
+                .transactionId(transactionId)
+                .merchantId("MERCHANT_001")
+                .amount(new BigDecimal("100.00"))
+                .currency("USD")
+                .status(TransactionStatus.APPROVED)
+                .responseCode("00")
+                .createdAt(LocalDateTime.now())
+                .processedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<OutboxEvent> awaitEvents(int expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        do {
+            if (published.events.size() >= expected && outboxSize() == 0) {
+                return List.copyOf(published.events);
+            }
+            Thread.sleep(20);
+        } while (System.nanoTime() < deadline);
+        return fail("Only " + published.events.size() + " outbox events published");
+    }
+
+    private int outboxSize() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM payment_outbox", Integer.class);
+    }
+
+    static class PublishedEvents {
+
+        private final List<OutboxEvent> events = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        void onEvent(OutboxEvent event) {
+            events.add(event);
+        }
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        PublishedEvents publishedEvents() {
+            return new PublishedEvents();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.acquirer.service;
+
+import com.acquirer.dto.PaymentResponse;
+import com.acquirer.entity.Transaction.TransactionStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+
+import static com.acquirer.TestPayments.paymentRequest;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Payment Response Cache Tests")
+class PaymentResponseCacheTest {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Should serve polls of a finalized payment without reading the database")
+    void shouldServePollsFromCache() {
+        // Given - a finalized payment whose row is then removed behind the service's back
+        PaymentResponse created = paymentService.processPayment(paymentRequest());
+        jdbcTemplate.update("DELETE FROM transactions WHERE transaction_id = ?", created.getTransactionId());
+        double hitsBefore = gets("hit");
+
+        // When
+        PaymentResponse polled = paymentService.getTransaction(created.getTransactionId());
+
+        // Then
+        assertEquals(created.getTransactionId(), polled.getTransactionId());
+        assertEquals(created.getStatus(), polled.getStatus());
+        assertEquals(created.getResponseCode(), polled.getResponseCode());
+        assertEquals(1, gets("hit") - hitsBefore);
+        assertTrue(meterRegistry.get("cache.hit.ratio").tag("cache", "payments").gauge().value() > 0);
+    }
+
+    @Test
+    @DisplayName("Should only cache final responses, and nothing while disabled")
+    void shouldOnlyCacheFinalResponses() {
+        // Given
+        PaymentResponseCache cache = new PaymentResponseCache(
+                new SimpleMeterRegistry(), true, 10, Duration.ofMinutes(1));
+        PaymentResponseCache disabled = new PaymentResponseCache(
+                new SimpleMeterRegistry(), false, 10, Duration.ofMinutes(1));
+
+        // When
+        cache.put(response("tx-pending", TransactionStatus.PENDING));
+        cache.put(response("tx-declined", TransactionStatus.DECLINED));
+        disabled.put(response("tx-approved", TransactionStatus.APPROVED));
+
+        // Then
+        assertNull(cache.get("tx-pending"));
+        assertEquals(TransactionStatus.DECLINED, cache.get("tx-declined").getStatus());
+        assertNull(disabled.get("tx-approved"));
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "payments").tag("result", result)
+                .functionCounter().count();
+    }
+
+    private static PaymentResponse response(String transactionId, TransactionStatus status) {
+        return PaymentResponse.builder().transactionId(transactionId).status(status).build();
+    }
+}
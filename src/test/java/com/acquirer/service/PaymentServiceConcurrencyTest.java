@@ -0,0 +1,70 @@
+package com.acquirer.service;
+
+import com.acquirer.dto.PaymentResponse;
+import com.acquirer.entity.Transaction.TransactionStatus;
+import com.acquirer.repository.TransactionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.acquirer.TestPayments.paymentRequest;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=10",
+        "spring.datasource.hikari.connection-timeout=2000"
+})
+@ActiveProfiles("test")
+@DisplayName("Payment Service Concurrency Tests")
+class PaymentServiceConcurrencyTest {
+
+    private static final int CONCURRENT_PAYMENTS = 200;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    @DisplayName("Should complete 200 concurrent payments with a pool of 10 connections")
+    void shouldCompleteConcurrentPaymentsWithSmallPool() throws Exception {
+        // Given
+        transactionRepository.deleteAll();
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_PAYMENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<PaymentResponse>> futures = new ArrayList<>();
+
+        // When
+        try {
+            for (int i = 0; i < CONCURRENT_PAYMENTS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return paymentService.processPayment(paymentRequest());
+                }));
+            }
+            start.countDown();
+
+            // Then
+            for (Future<PaymentResponse> future : futures) {
+                PaymentResponse response = future.get();
+                assertTrue(response.getStatus() == TransactionStatus.APPROVED
+                        || response.getStatus() == TransactionStatus.DECLINED);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(CONCURRENT_PAYMENTS, transactionRepository.count());
+        assertTrue(transactionRepository.findAll().stream().noneMatch(t -> t.getStatus() == TransactionStatus.PENDING));
+    }
+}
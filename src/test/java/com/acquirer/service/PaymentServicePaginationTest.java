@@ -0,0 +1,162 @@
+package com.acquirer.service;
+
+import com.acquirer.dto.PaymentPageResponse;
+import com.acquirer.dto.PaymentResponse;
+import com.acquirer.entity.Transaction.TransactionStatus;
+import com.acquirer.exception.ValidationException;
+import com.acquirer.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.acquirer.TestPayments.transactionId;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Payment Service Pagination Tests")
+class PaymentServicePaginationTest {
+
+    private static final int TRANSACTIONS = 40;
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /** Expected order (newest first) of the seeded transaction IDs */
+    private final List<String> newestFirst = new ArrayList<>();
+
+    @BeforeEach
+    void seedTransactions() {
+        transactionRepository.deleteAll();
+        newestFirst.clear();
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            // Pairs of rows share a timestamp so the transaction ID must break ties
+            LocalDateTime createdAt = BASE_TIME.plusSeconds(i / 2);
+            String transactionId = transactionId(String.format("tx-%03d", i));
+            String merchantId = i % 2 == 0 ? "MERCHANT_001" : "MERCHANT_002";
+            TransactionStatus status = i % 3 == 0 ? TransactionStatus.DECLINED : TransactionStatus.APPROVED;
+            jdbcTemplate.update("INSERT INTO transactions (transaction_id, merchant_id, amount, currency, "
+                            + "card_token, card_expiry, operation_type, status, created_at, updated_at) "
+                            + "VALUES (?, ?, 100.00, 'USD', 'tok_4532015112830366', '12/2030', 'PURCHASE', ?, ?, ?)",
+                    transactionId, merchantId, status.name(), Timestamp.valueOf(createdAt), Timestamp.valueOf(createdAt));
+            newestFirst.add(0, transactionId);
+        }
+    }
+
+    @Test
+    @DisplayName("Should page through all transactions without gaps or duplicates")
+    void shouldPageThroughAllTransactions() {
+        // When
+        List<String> paged = pageThrough(null, null, 7);
+
+        // Then
+        assertEquals(newestFirst, paged);
+    }
+
+    @Test
+    @DisplayName("Should page through each filter combination")
+    void shouldPageThroughFilterCombinations() {
+        // Given
+        List<String> merchant = idsOf("MERCHANT_001", null);
+        List<String> declined = idsOf(null, TransactionStatus.DECLINED);
+        List<String> merchantDeclined = idsOf("MERCHANT_001", TransactionStatus.DECLINED);
+
+        // When / Then
+        assertEquals(merchant, pageThrough("MERCHANT_001", null, 6));
+        assertEquals(declined, pageThrough(null, TransactionStatus.DECLINED, 4));
+        assertEquals(merchantDeclined, pageThrough("MERCHANT_001", TransactionStatus.DECLINED, 3));
+    }
+
+    @Test
+    @DisplayName("Should mark the last page without a cursor")
+    void shouldEndWithoutCursor() {
+        // When
+        PaymentPageResponse page = paymentService.queryTransactions(null, null, null, TRANSACTIONS);
+
+        // Then
+        assertEquals(TRANSACTIONS, page.getItems().size());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid page sizes and cursors")
+    void shouldRejectInvalidPageRequests() {
+        assertThrows(ValidationException.class,
+                () -> paymentService.queryTransactions(null, null, null, 0));
+        assertThrows(ValidationException.class,
+                () -> paymentService.queryTransactions(null, null, null, PaymentService.MAX_PAGE_SIZE + 1));
+        assertThrows(ValidationException.class,
+                () -> paymentService.queryTransactions(null, null, "not-a-cursor", 10));
+    }
+
+    @Test
+    @DisplayName("Should find transactions by time-ordered, random and legacy IDs")
+    void shouldFindTransactionsById() {
+        // Given - a time-ordered ID whose row was created with it, and random IDs that encode no time
+        String timeOrdered = new TimeOrderedIdGenerator(1).nextId();
+        UUID uuid = UUID.randomUUID();
+        String random = TimeOrderedIdGenerator.fromUuid(uuid);
+        insert(timeOrdered, LocalDateTime.now());
+        insert(random, LocalDateTime.now());
+
+        // When / Then - a UUID issued in its 36-character form is found by that form too
+        assertEquals(timeOrdered, paymentService.getTransaction(timeOrdered).getTransactionId());
+        assertEquals(random, paymentService.getTransaction(random).getTransactionId());
+        assertEquals(random, paymentService.getTransaction(uuid.toString()).getTransactionId());
+        assertEquals(transactionId("tx-007"), paymentService.getTransaction(transactionId("tx-007")).getTransactionId());
+        assertThrows(RuntimeException.class,
+                () -> paymentService.getTransaction(new TimeOrderedIdGenerator(1).nextId()));
+    }
+
+    private void insert(String transactionId, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO transactions (transaction_id, merchant_id, amount, currency, "
+                        + "card_token, card_expiry, operation_type, status, created_at, updated_at) "
+                        + "VALUES (?, 'MERCHANT_001', 100.00, 'USD', 'tok_4532015112830366', '12/2030', 'PURCHASE', "
+                        + "'APPROVED', ?, ?)",
+                transactionId, Timestamp.valueOf(createdAt), Timestamp.valueOf(createdAt));
+    }
+
+    private List<String> pageThrough(String merchantId, TransactionStatus status, int limit) {
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            PaymentPageResponse page = paymentService.queryTransactions(merchantId, status, cursor, limit);
+            assertTrue(page.getItems().size() <= limit);
+            page.getItems().stream().map(PaymentResponse::getTransactionId).forEach(ids::add);
+            cursor = page.getNextCursor();
+            assertEquals(cursor != null, page.isHasMore());
+        } while (cursor != null);
+        return ids;
+    }
+
+    private List<String> idsOf(String merchantId, TransactionStatus status) {
+        return newestFirst.stream()
+                .filter(id -> {
+                    int i = Integer.parseInt(id.substring(3, 6));
+                    boolean merchantMatches = merchantId == null
+                            || merchantId.equals(i % 2 == 0 ? "MERCHANT_001" : "MERCHANT_002");
+                    boolean statusMatches = status == null
+                            || status == (i % 3 == 0 ? TransactionStatus.DECLINED : TransactionStatus.APPROVED);
+                    return merchantMatches && statusMatches;
+                })
+                .toList();
+    }
+}
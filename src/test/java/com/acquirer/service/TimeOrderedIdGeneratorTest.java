@@ -0,0 +1,116 @@
+package com.acquirer.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Time-Ordered ID Generator Tests")
+class TimeOrderedIdGeneratorTest {
+
+    private static final long NOW = 1_767_225_600_000L; // 2026-01-01T00:00:00Z
+
+    @Test
+    @DisplayName("Should issue 26-character IDs that encode their creation time")
+    void shouldEncodeCreationTime() {
+        // Given
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(7);
+
+        // When
+        String id = generator.nextId(NOW);
+
+        // Then
+        assertEquals(TimeOrderedIdGenerator.LENGTH, id.length());
+        assertTrue(id.matches("[0-7][0-9A-HJKMNP-TV-Z]{25}"), id);
+        assertEquals(NOW, TimeOrderedIdGenerator.timestampOf(id));
+        assertTrue(TimeOrderedIdGenerator.lowerBound(NOW).compareTo(id) <= 0);
+        assertTrue(TimeOrderedIdGenerator.lowerBound(NOW + 1).compareTo(id) > 0);
+    }
+
+    @Test
+    @DisplayName("Should increase strictly within a millisecond and when the clock moves back")
+    void shouldIncreaseStrictly() {
+        // Given
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(1);
+        List<String> ids = new ArrayList<>();
+
+        // When - 100k IDs in one millisecond (sequence overflows), then the clock jumps back
+        for (int i = 0; i < 100_000; i++) {
+            ids.add(generator.nextId(NOW));
+        }
+        ids.add(generator.nextId(NOW - 5_000));
+        ids.add(generator.nextId(NOW + 10_000));
+
+        // Then
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0, ids.get(i - 1) + " >= " + ids.get(i));
+        }
+        assertEquals(NOW + 10_000, TimeOrderedIdGenerator.timestampOf(ids.get(ids.size() - 1)));
+    }
+
+    @Test
+    @DisplayName("Should not repeat IDs across threads or nodes")
+    void shouldBeUnique() throws Exception {
+        // Given - two nodes sharing a clock
+        TimeOrderedIdGenerator first = new TimeOrderedIdGenerator(1);
+        TimeOrderedIdGenerator second = new TimeOrderedIdGenerator(2);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // When
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            TimeOrderedIdGenerator generator = t % 2 == 0 ? first : second;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    ids.add(generator.nextId());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(200_000, ids.size());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid node IDs and foreign IDs")
+    void shouldRejectInvalidInput() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TimeOrderedIdGenerator(TimeOrderedIdGenerator.MAX_NODE_ID + 1));
+        assertThrows(IllegalArgumentException.class, () -> new TimeOrderedIdGenerator(-1, true));
+        assertDoesNotThrow(() -> new TimeOrderedIdGenerator(-1, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> TimeOrderedIdGenerator.timestampOf("550e8400-e29b-41d4-a716-446655440000"));
+    }
+
+    @Test
+    @DisplayName("Should write UUIDs in the same 26 characters and translate their old form")
+    void shouldEncodeUuids() {
+        // Given
+        String legacy = "550e8400-e29b-41d4-a716-446655440000";
+        String timeOrdered = new TimeOrderedIdGenerator(1).nextId();
+
+        // When / Then
+        assertEquals("00000000000000000000000000", TimeOrderedIdGenerator.fromUuid(new UUID(0, 0)));
+        assertEquals("7ZZZZZZZZZZZZZZZZZZZZZZZZZ", TimeOrderedIdGenerator.fromUuid(new UUID(-1, -1)));
+        assertEquals(TimeOrderedIdGenerator.fromUuid(UUID.fromString(legacy)), TimeOrderedIdGenerator.canonical(legacy));
+        assertEquals(TimeOrderedIdGenerator.LENGTH, TimeOrderedIdGenerator.canonical(legacy).length());
+        assertEquals(timeOrdered, TimeOrderedIdGenerator.canonical(timeOrdered));
+        assertEquals("not-a-uuid-but-36-characters-long-xx", TimeOrderedIdGenerator.canonical(
+                "not-a-uuid-but-36-characters-long-xx"));
+        assertEquals(TimeOrderedIdGenerator.LENGTH, new RandomUuidGenerator().nextId().length());
+    }
+}
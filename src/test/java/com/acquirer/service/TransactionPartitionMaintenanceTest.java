@@ -0,0 +1,245 @@
+package com.acquirer.service;
+
+import com.acquirer.service.TransactionPartitionManager.Interval;
+import com.acquirer.service.TransactionPartitionManager.RetentionAction;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs partition maintenance against a real PostgreSQL, migrated by Flyway
+ *
+ * Uses the server in the {@code acquirer.test.postgres-url} system property
+ * (a JDBC URL carrying user and password) when set, otherwise an embedded
+ * PostgreSQL; the PostgreSQL tests are skipped when neither can be started,
+ * for example when running as root. Each test migrates a schema of its own.
+ */
+@DisplayName("Transaction Partition Maintenance Tests")
+class TransactionPartitionMaintenanceTest {
+
+    private static final DateTimeFormatter DAY = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private static EmbeddedPostgres embedded;
+    private static String postgresUrl;
+    private static String unavailable;
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        if (embedded != null) {
+            embedded.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should convert the empty table, premake partitions and detach or drop the expired ones")
+    void shouldMaintainPartitions() {
+        // Given - a new database, as the migrations leave it
+        JdbcTemplate jdbc = new JdbcTemplate(migratedSchema());
+        LocalDate today = LocalDate.now();
+        Set<String> indexesBefore = indexColumns(jdbc);
+
+        // When
+        manager(jdbc, Duration.ofDays(3), RetentionAction.DETACH).maintain();
+
+        // Then - partitioned in place, with the indexes of the migrations
+        assertEquals("p", relkind(jdbc, "transactions"));
+        assertEquals(partitions("transactions_default", today, today.plusDays(1), today.plusDays(2)),
+                partitions(jdbc));
+        assertEquals(indexesBefore, indexColumns(jdbc));
+        assertEquals(List.of("transaction_id", "created_at"), jdbc.queryForList(
+                "SELECT a.attname FROM pg_index i JOIN pg_attribute a ON a.attrelid = i.indrelid "
+                        + "AND a.attnum = ANY (i.indkey) WHERE i.indrelid = to_regclass('transactions') "
+                        + "AND i.indisprimary ORDER BY array_position(i.indkey::int2[], a.attnum)", String.class));
+
+        // Given - partitions left from earlier days, one holding a row
+        LocalDate expired = today.minusDays(10);
+        LocalDate kept = today.minusDays(1);
+        createPartition(jdbc, expired);
+        createPartition(jdbc, kept);
+        insert(jdbc, "tx-expired", expired);
+
+        // When
+        manager(jdbc, Duration.ofDays(3), RetentionAction.DETACH).maintain();
+
+        // Then - the expired partition is detached with its rows, the recent one stays attached
+        assertEquals(partitions("transactions_default", kept, today, today.plusDays(1), today.plusDays(2)),
+                partitions(jdbc));
+        assertEquals("r", relkind(jdbc, "transactions_p" + DAY.format(expired)));
+        assertEquals(1, count(jdbc, "transactions_p" + DAY.format(expired)));
+        assertEquals(0, count(jdbc, "transactions"));
+
+        // Given - another expired partition, retired with DROP
+        LocalDate dropped = today.minusDays(5);
+        createPartition(jdbc, dropped);
+
+        // When
+        manager(jdbc, Duration.ofDays(3), RetentionAction.DROP).maintain();
+
+        // Then
+        assertNull(relkind(jdbc, "transactions_p" + DAY.format(dropped)));
+        assertEquals(partitions("transactions_default", kept, today, today.plusDays(1), today.plusDays(2)),
+                partitions(jdbc));
+    }
+
+    @Test
+    @DisplayName("Should convert a table holding rows with the script and prune partitions by created_at")
+    void shouldConvertExistingTableWithScript() throws IOException {
+        // Given - rows from earlier days, which maintenance must not convert on its own
+        JdbcTemplate jdbc = new JdbcTemplate(migratedSchema());
+        LocalDate today = LocalDate.now();
+        insert(jdbc, "tx-old", today.minusDays(2));
+        insert(jdbc, "tx-today", today);
+        Set<String> indexesBefore = indexColumns(jdbc);
+        manager(jdbc, Duration.ZERO, RetentionAction.DETACH).maintain();
+        assertEquals("r", relkind(jdbc, "transactions"));
+
+        // When
+        jdbc.execute(new ClassPathResource("db/partitioning/convert-transactions.sql")
+                .getContentAsString(StandardCharsets.UTF_8));
+        manager(jdbc, Duration.ZERO, RetentionAction.DETACH).maintain();
+
+        // Then - one partition per day from the oldest row, plus the ones maintenance premakes
+        assertEquals("p", relkind(jdbc, "transactions"));
+        assertEquals(partitions("transactions_default", today.minusDays(2), today.minusDays(1), today,
+                today.plusDays(1), today.plusDays(2)), partitions(jdbc));
+        assertEquals(indexesBefore, indexColumns(jdbc));
+        assertEquals(2, count(jdbc, "transactions"));
+        assertEquals(1, count(jdbc, "transactions_p" + DAY.format(today.minusDays(2))));
+
+        // A day's query only scans that day's partition
+        String plan = String.join("\n", jdbc.queryForList("EXPLAIN SELECT transaction_id FROM transactions "
+                + "WHERE merchant_id = 'MERCHANT_001' AND created_at >= ? AND created_at < ? "
+                + "ORDER BY created_at DESC, transaction_id DESC", String.class,
+                Timestamp.valueOf(today.atStartOfDay()), Timestamp.valueOf(today.plusDays(1).atStartOfDay())));
+        assertTrue(plan.contains("transactions_p" + DAY.format(today)), plan);
+        assertFalse(plan.contains("transactions_p" + DAY.format(today.minusDays(2))), plan);
+        assertFalse(plan.contains("transactions_default"), plan);
+    }
+
+    @Test
+    @DisplayName("Should leave the table untouched on a database other than PostgreSQL")
+    void shouldSkipOtherDatabases() {
+        // Given - H2, as in the other test suites
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:partitions_" + System.nanoTime()
+                + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        flyway(dataSource, "h2").migrate();
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+        // When
+        manager(jdbc, Duration.ofDays(3), RetentionAction.DROP).afterSingletonsInstantiated();
+
+        // Then
+        insert(jdbc, "tx-h2", LocalDate.now());
+        assertEquals(1, count(jdbc, "transactions"));
+        assertEquals(List.of("TRANSACTIONS"), jdbc.queryForList("SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES "
+                + "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME LIKE 'TRANSACTIONS%'", String.class));
+    }
+
+    /**
+     * @return Data source on a new schema migrated like a new database
+     */
+    private static DataSource migratedSchema() {
+        String url = postgresUrl();
+        String schema = "partitions_" + System.nanoTime();
+        new JdbcTemplate(new DriverManagerDataSource(url)).execute("CREATE SCHEMA " + schema);
+        DataSource dataSource = new DriverManagerDataSource(
+                url + (url.contains("?") ? "&" : "?") + "currentSchema=" + schema);
+        flyway(dataSource, "postgresql").migrate();
+        return dataSource;
+    }
+
+    private static synchronized String postgresUrl() {
+        if (postgresUrl == null && unavailable == null) {
+            postgresUrl = System.getProperty("acquirer.test.postgres-url");
+            if (postgresUrl == null) {
+                try {
+                    embedded = EmbeddedPostgres.start();
+                    postgresUrl = embedded.getJdbcUrl("postgres", "postgres");
+                } catch (IOException | RuntimeException e) {
+                    unavailable = e.getMessage();
+                }
+            }
+        }
+        assumeTrue(postgresUrl != null, () -> "PostgreSQL is not available: " + unavailable);
+        return postgresUrl;
+    }
+
+    // Same settings as spring.flyway in application.yml, with {vendor} resolved
+    private static Flyway flyway(DataSource dataSource, String vendor) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/" + vendor)
+                .load();
+    }
+
+    private static TransactionPartitionManager manager(JdbcTemplate jdbc, Duration retention,
+                                                       RetentionAction action) {
+        return new TransactionPartitionManager(jdbc, new DataSourceTransactionManager(jdbc.getDataSource()),
+                Interval.DAILY, 2, retention, action);
+    }
+
+    private static void createPartition(JdbcTemplate jdbc, LocalDate day) {
+        jdbc.execute(String.format("CREATE TABLE transactions_p%s PARTITION OF transactions "
+                + "FOR VALUES FROM ('%s') TO ('%s')", DAY.format(day), day, day.plusDays(1)));
+    }
+
+    private static void insert(JdbcTemplate jdbc, String transactionId, LocalDate day) {
+        jdbc.update("INSERT INTO transactions (transaction_id, merchant_id, amount, currency, card_token, "
+                        + "card_expiry, operation_type, status, created_at) "
+                        + "VALUES (?, 'MERCHANT_001', 100.00, 'USD', 'tok_4532015112830366', '12/2030', "
+                        + "'PURCHASE', 'APPROVED', ?)",
+                transactionId, Timestamp.valueOf(day.atTime(12, 0)));
+    }
+
+    private static Set<String> partitions(String defaultPartition, LocalDate... days) {
+        Set<String> names = new TreeSet<>(Set.of(defaultPartition));
+        for (LocalDate day : days) {
+            names.add("transactions_p" + DAY.format(day));
+        }
+        return names;
+    }
+
+    private static Set<String> partitions(JdbcTemplate jdbc) {
+        return new TreeSet<>(jdbc.queryForList("SELECT c.relname FROM pg_inherits i "
+                + "JOIN pg_class c ON c.oid = i.inhrelid "
+                + "WHERE i.inhparent = to_regclass('transactions')", String.class));
+    }
+
+    /**
+     * @return Definitions of the table's secondary indexes, without their names
+     */
+    private static Set<String> indexColumns(JdbcTemplate jdbc) {
+        return new TreeSet<>(jdbc.queryForList("SELECT regexp_replace(pg_get_indexdef(indexrelid), "
+                + "'^.* USING ', '') FROM pg_index "
+                + "WHERE indrelid = to_regclass('transactions') AND NOT indisprimary", String.class));
+    }
+
+    private static String relkind(JdbcTemplate jdbc, String table) {
+        return jdbc.queryForObject("SELECT (SELECT relkind::text FROM pg_class WHERE oid = to_regclass(?))",
+                String.class, table);
+    }
+
+    private static int count(JdbcTemplate jdbc, String table) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+}
@@ -0,0 +1,103 @@
+package com.acquirer.service;
+
+import com.acquirer.service.TransactionPartitionManager.Interval;
+import com.acquirer.service.TransactionPartitionManager.RetentionAction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Transaction Partition Manager Tests")
+class TransactionPartitionManagerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 12, 30);
+
+    @Test
+    @DisplayName("Should create the default partition and the upcoming daily partitions")
+    void shouldCreateUpcomingDailyPartitions() {
+        // Given
+        TransactionPartitionManager manager = manager(Interval.DAILY, 2, Duration.ZERO, RetentionAction.DETACH);
+
+        // When
+        List<String> statements = manager.maintenanceStatements(TODAY, List.of());
+
+        // Then
+        assertEquals(List.of(
+                "CREATE TABLE transactions_default PARTITION OF transactions DEFAULT",
+                "CREATE TABLE transactions_p20261230 PARTITION OF transactions "
+                        + "FOR VALUES FROM ('2026-12-30') TO ('2026-12-31')",
+                "CREATE TABLE transactions_p20261231 PARTITION OF transactions "
+                        + "FOR VALUES FROM ('2026-12-31') TO ('2027-01-01')",
+                "CREATE TABLE transactions_p20270101 PARTITION OF transactions "
+                        + "FOR VALUES FROM ('2027-01-01') TO ('2027-01-02')"), statements);
+    }
+
+    @Test
+    @DisplayName("Should only create the partitions that are missing")
+    void shouldSkipExistingPartitions() {
+        // Given
+        TransactionPartitionManager manager = manager(Interval.MONTHLY, 1, Duration.ZERO, RetentionAction.DETACH);
+
+        // When
+        List<String> upToDate = manager.maintenanceStatements(TODAY,
+                List.of("transactions_default", "transactions_p202612", "transactions_p202701"));
+        List<String> nextMonth = manager.maintenanceStatements(TODAY.plusDays(2),
+                List.of("transactions_default", "transactions_p202612", "transactions_p202701"));
+
+        // Then
+        assertTrue(upToDate.isEmpty(), upToDate.toString());
+        assertEquals(List.of("CREATE TABLE transactions_p202702 PARTITION OF transactions "
+                + "FOR VALUES FROM ('2027-02-01') TO ('2027-03-01')"), nextMonth);
+    }
+
+    @Test
+    @DisplayName("Should detach or drop partitions that ended before the retention period")
+    void shouldRetireExpiredPartitions() {
+        // Given - partitions of the last days, retention of 3 days
+        List<String> existing = List.of("transactions_default", "transactions_p20261225",
+                "transactions_p20261226", "transactions_p20261227", "transactions_p20261228",
+                "transactions_p20261230", "transactions_archive");
+        TransactionPartitionManager detach = manager(Interval.DAILY, 0, Duration.ofDays(3), RetentionAction.DETACH);
+        TransactionPartitionManager drop = manager(Interval.DAILY, 0, Duration.ofDays(3), RetentionAction.DROP);
+
+        // When
+        List<String> detached = detach.maintenanceStatements(TODAY, existing);
+        List<String> dropped = drop.maintenanceStatements(TODAY, existing);
+
+        // Then - only partitions ending on or before 2026-12-27 expire; other tables are left alone
+        assertEquals(List.of(
+                "ALTER TABLE transactions DETACH PARTITION transactions_p20261225",
+                "ALTER TABLE transactions DETACH PARTITION transactions_p20261226"), detached);
+        assertEquals(List.of(
+                "DROP TABLE transactions_p20261225",
+                "DROP TABLE transactions_p20261226"), dropped);
+    }
+
+    @Test
+    @DisplayName("Should map partition names back to their ranges")
+    void shouldParsePartitionNames() {
+        // Given
+        TransactionPartitionManager daily = manager(Interval.DAILY, 0, Duration.ZERO, RetentionAction.DETACH);
+        TransactionPartitionManager monthly = manager(Interval.MONTHLY, 0, Duration.ZERO, RetentionAction.DETACH);
+
+        // When / Then
+        assertEquals(new TransactionPartitionManager.Partition("transactions_p20261231",
+                        LocalDate.of(2026, 12, 31), LocalDate.of(2027, 1, 1)),
+                daily.parse("transactions_p20261231").orElseThrow());
+        assertEquals(new TransactionPartitionManager.Partition("transactions_p202602",
+                        LocalDate.of(2026, 2, 1), LocalDate.of(2026, 3, 1)),
+                monthly.parse("transactions_p202602").orElseThrow());
+        assertTrue(daily.parse("transactions_default").isEmpty());
+        assertTrue(daily.parse("transactions_p202602").isEmpty());
+        assertTrue(monthly.parse("transactions_old").isEmpty());
+    }
+
+    private TransactionPartitionManager manager(Interval interval, int premake, Duration retention,
+                                                RetentionAction action) {
+        return new TransactionPartitionManager(null, null, interval, premake, retention, action);
+    }
+}
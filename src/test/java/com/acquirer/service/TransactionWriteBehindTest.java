@@ -0,0 +1,167 @@
+package com.acquirer.service;
+
+import com.acquirer.dto.PaymentResponse;
+import com.acquirer.entity.Transaction;
+import com.acquirer.entity.Transaction.TransactionStatus;
+import com.acquirer.repository.TransactionRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.IncorrectUpdateSemanticsDataAccessException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.acquirer.TestPayments.paymentRequest;
+import static com.acquirer.TestPayments.transactionId;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "acquirer.persistence.write-behind.enabled=true",
+        "acquirer.persistence.write-behind.max-linger=20ms",
+        "acquirer.rules.issuer.min-latency-ms=50",
+        "acquirer.rules.issuer.max-latency-ms=50"
+})
+@ActiveProfiles("test")
+@DisplayName("Transaction Write-Behind Tests")
+class TransactionWriteBehindTest {
+
+    private static final int CONCURRENT_PAYMENTS = 200;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TransactionWriteBehind writeBehind;
+
+    @Autowired
+    private TransactionBatchWriter batchWriter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("Should persist concurrent payments in shared batches before responding")
+    void shouldGroupWritesOfConcurrentPayments() throws Exception {
+        // Given
+        transactionRepository.deleteAll();
+        DistributionSummary batchSizes = meterRegistry.get("acquirer.writebehind.batch.size").summary();
+        long batchesBefore = batchSizes.count();
+        List<CompletableFuture<PaymentResponse>> futures = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < CONCURRENT_PAYMENTS; i++) {
+            futures.add(paymentService.processPaymentAsync(paymentRequest()));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+
+        // Then - every response is backed by a committed final row
+        for (CompletableFuture<PaymentResponse> future : futures) {
+            PaymentResponse response = future.join();
+            Transaction persisted = transactionRepository.findById(response.getTransactionId()).orElseThrow();
+            assertEquals(response.getStatus(), persisted.getStatus());
+            assertNotEquals(TransactionStatus.PENDING, persisted.getStatus());
+        }
+        assertEquals(CONCURRENT_PAYMENTS, transactionRepository.count());
+
+        // Two writes per payment were committed in far fewer batches
+        long batches = batchSizes.count() - batchesBefore;
+        assertTrue(batches < CONCURRENT_PAYMENTS * 2, "Expected grouped writes but got " + batches + " batches");
+    }
+
+    @Test
+    @DisplayName("Should keep the synchronous path working through the write-behind stage")
+    void shouldProcessSynchronousPayment() {
+        // When
+        PaymentResponse response = paymentService.processPayment(paymentRequest());
+
+        // Then
+        Transaction persisted = transactionRepository.findById(response.getTransactionId()).orElseThrow();
+        assertEquals(response.getStatus(), persisted.getStatus());
+        assertNotNull(persisted.getProcessedAt());
+    }
+
+    @Test
+    @DisplayName("Should fail only the update that matched no row, not its batch")
+    void shouldFailUpdateOfMissingRow() {
+        // Given
+        PaymentResponse response = paymentService.processPayment(paymentRequest());
+        Transaction existing = transactionRepository.findById(response.getTransactionId()).orElseThrow();
+        existing.setResponseCode("99");
+        Transaction missing = Transaction.builder()
+                .transactionId(transactionId("tx-never-created"))
+                .merchantId("MERCHANT_001")
+                .status(TransactionStatus.APPROVED)
+                .createdAt(existing.getCreatedAt())
+                .updatedAt(existing.getUpdatedAt())
+                .build();
+
+        // When - both land in the same batch within the linger time
+        CompletableFuture<Void> lost = writeBehind.update(missing);
+        CompletableFuture<Void> written = writeBehind.update(existing);
+
+        // Then
+        CompletionException failure = assertThrows(CompletionException.class, lost::join);
+        assertInstanceOf(IncorrectUpdateSemanticsDataAccessException.class, failure.getCause());
+        written.join();
+        assertEquals("99", transactionRepository.findById(existing.getTransactionId()).orElseThrow().getResponseCode());
+    }
+
+    @Test
+    @DisplayName("Should complete every write queued while the stage stops")
+    void shouldCompleteWritesRacingWithStop() throws Exception {
+        // Given - a stage of its own, so stopping it leaves the shared one running
+        PaymentResponse response = paymentService.processPayment(paymentRequest());
+        Transaction existing = transactionRepository.findById(response.getTransactionId()).orElseThrow();
+        TransactionWriteBehind stage = new TransactionWriteBehind(batchWriter, transactionTemplate,
+                new SimpleMeterRegistry(), 10, Duration.ofMillis(5), 10_000);
+        stage.start();
+        ConcurrentLinkedQueue<CompletableFuture<Void>> futures = new ConcurrentLinkedQueue<>();
+        CountDownLatch writing = new CountDownLatch(8);
+        ExecutorService writers = Executors.newFixedThreadPool(8);
+
+        // When - writers keep queueing before, during and after stop()
+        try {
+            for (int i = 0; i < 8; i++) {
+                writers.submit(() -> {
+                    writing.countDown();
+                    for (int j = 0; j < 2_000; j++) {
+                        futures.add(stage.update(existing));
+                    }
+                });
+            }
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+            stage.stop();
+        } finally {
+            writers.shutdown();
+            assertTrue(writers.awaitTermination(30, TimeUnit.SECONDS));
+        }
+
+        // Then - none is left waiting: each was either committed or failed
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .handle((ignored, error) -> null)
+                .get(10, TimeUnit.SECONDS);
+        assertFalse(stage.isRunning());
+        assertTrue(futures.stream().allMatch(CompletableFuture::isDone));
+    }
+}
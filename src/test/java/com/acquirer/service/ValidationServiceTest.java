@@ -0,0 +1,180 @@
+package com.acquirer.service;
+
+import com.acquirer.dto.MerchantSnapshot;
+import com.acquirer.service.ValidationService.ValidationResult;
+import com.acquirer.util.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Validation Service Tests")
+class ValidationServiceTest {
+
+    private static final int ITERATIONS = 200_000;
+
+    private ValidationService validationService;
+    private MerchantSnapshot merchant;
+
+    @BeforeEach
+    void setUp() {
+        validationService = new ValidationService();
+        ReflectionTestUtils.setField(validationService, "defaultMaxAmount", new BigDecimal("10000.00"));
+        ReflectionTestUtils.setField(validationService, "blockedCardPatterns", "^4111111111111111$,^5555555555554444$");
+        ReflectionTestUtils.setField(validationService, "supportedCurrencyCodes", "USD,EUR,GBP,ARS,BRL");
+        validationService.compileRules();
+        merchant = new MerchantSnapshot("MERCHANT_001", "Test Store Alpha", new BigDecimal("5000.00"), true);
+    }
+
+    @Test
+    @DisplayName("Should share a single instance for successful validations")
+    void shouldShareSingleValidResult() {
+        assertSame(ValidationResult.valid(), validationService.validateCurrency("USD"));
+        assertSame(ValidationResult.valid(), validationService.validateCardToken("tok_4532015112830366"));
+        assertSame(ValidationResult.valid(), validationService.validateAmount(usd("10.00"), merchant));
+    }
+
+    @Test
+    @DisplayName("Should validate currencies case-insensitively")
+    void shouldValidateCurrenciesCaseInsensitively() {
+        assertTrue(validationService.validateCurrency("usd").isValid());
+        assertTrue(validationService.validateCurrency("Brl").isValid());
+        assertFalse(validationService.validateCurrency("JPY").isValid());
+        assertFalse(validationService.validateCurrency("US").isValid());
+        assertFalse(validationService.validateCurrency("U$D").isValid());
+        assertEquals("Currency not supported: JPY", validationService.validateCurrency("JPY").getReason());
+    }
+
+    @Test
+    @DisplayName("Should format rejection reasons")
+    void shouldFormatRejectionReasons() {
+        assertEquals("Amount 6000.00 exceeds merchant limit 5000.00",
+                validationService.validateAmount(usd("6000.00"), merchant).getReason());
+        assertEquals("Card is blocked", validationService.validateCardToken("4111111111111111").getReason());
+        assertEquals("Card token is required", validationService.validateCardToken("  ").getReason());
+    }
+
+    @Test
+    @DisplayName("Should compare amounts with the limit in the exponent of their currency")
+    void shouldCompareAmountsInAnyExponent() {
+        assertTrue(validationService.validateAmount(Money.of(new BigDecimal("5000"), "JPY"), merchant).isValid());
+        assertFalse(validationService.validateAmount(Money.of(new BigDecimal("5001"), "JPY"), merchant).isValid());
+        assertTrue(validationService.validateAmount(Money.of(new BigDecimal("4999.999"), "KWD"), merchant).isValid());
+        assertFalse(validationService.validateAmount(Money.of(new BigDecimal("5000.001"), "KWD"), merchant).isValid());
+        assertFalse(validationService.validateAmount(usd("0.00"), merchant).isValid());
+    }
+
+    @Test
+    @DisplayName("Should skip velocity checks when disabled")
+    void shouldSkipVelocityWhenDisabled() {
+        for (int i = 0; i < 100; i++) {
+            assertSame(ValidationResult.valid(),
+                    validationService.validateVelocity("MERCHANT_001", "tok_4532015112830366", usd("100.00")));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject cards above the velocity limits")
+    void shouldRejectCardsAboveVelocityLimits() {
+        // Given
+        enableVelocity(2, new BigDecimal("1000.00"));
+        Money amount = usd("100.00");
+
+        // When / Then
+        assertTrue(validationService.validateVelocity("MERCHANT_001", "tok_4532015112830366", amount).isValid());
+        assertTrue(validationService.validateVelocity("MERCHANT_001", "tok_4532015112830366", amount).isValid());
+        assertEquals("Card velocity limit exceeded: more than 2 transactions per minute",
+                validationService.validateVelocity("MERCHANT_001", "tok_4532015112830366", amount).getReason());
+        assertEquals("Card velocity limit exceeded: amount per hour above 1000.00 USD",
+                validationService.validateVelocity("MERCHANT_001", "tok_5425233430109903", usd("1000.01")).getReason());
+    }
+
+    @Test
+    @DisplayName("Should sum velocity amounts per currency")
+    void shouldSumVelocityAmountsPerCurrency() {
+        // Given
+        enableVelocity(10, new BigDecimal("1000.00"));
+
+        // When / Then - 1000 JPY is a fraction of 1000 USD but must not be added to it
+        assertTrue(validationService.validateVelocity("MERCHANT_001", "tok_4532015112830366", usd("900.00")).isValid());
+        assertTrue(validationService.validateVelocity("MERCHANT_001", "tok_4532015112830366",
+                Money.of(new BigDecimal("1000"), "JPY")).isValid());
+        assertTrue(validationService.validateVelocity("MERCHANT_001", "tok_4532015112830366",
+                Money.of(new BigDecimal("900.00"), "EUR")).isValid());
+        assertEquals("Card velocity limit exceeded: amount per hour above 1000.00 USD",
+                validationService.validateVelocity("MERCHANT_001", "tok_4532015112830366", usd("100.01")).getReason());
+        assertTrue(validationService.validateVelocity("MERCHANT_001", "tok_4532015112830366", usd("100.00")).isValid());
+    }
+
+    @Test
+    @DisplayName("Should not count a payment the merchant limit rejects against the card")
+    void shouldNotCountMerchantRejectionsAgainstCard() {
+        // Given - the merchant allows one payment per minute, the card two
+        enableVelocity(2, new BigDecimal("1000.00"));
+        ReflectionTestUtils.setField(validationService, "merchantMaxPerMinute", 1);
+        validationService.compileRules();
+
+        // When
+        assertTrue(validationService.validateVelocity("MERCHANT_001", "tok_4532015112830366", usd("400.00")).isValid());
+        for (int i = 0; i < 5; i++) {
+            assertEquals("Merchant velocity limit exceeded: more than 1 transactions per minute",
+                    validationService.validateVelocity("MERCHANT_001", "tok_4532015112830366", usd("400.00")).getReason());
+        }
+
+        // Then - the card still has one payment and 600.00 of its budget left
+        assertTrue(validationService.validateVelocity("MERCHANT_002", "tok_4532015112830366", usd("600.00")).isValid());
+    }
+
+    @Test
+    @DisplayName("Should not allocate on successful validation")
+    void shouldNotAllocateOnSuccessfulValidation() {
+        // Given
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Money amount = usd("100.50");
+        validateAll(amount, ITERATIONS); // warm up
+
+        // When
+        long before = threadBean.getCurrentThreadAllocatedBytes();
+        int valid = validateAll(amount, ITERATIONS);
+        long allocated = threadBean.getCurrentThreadAllocatedBytes() - before;
+
+        // Then
+        assertEquals(ITERATIONS, valid);
+        double bytesPerValidation = (double) allocated / ITERATIONS;
+        assertTrue(bytesPerValidation < 0.01, String.format("Allocated %d bytes in %d validations, %.4f per payment",
+                allocated, ITERATIONS, bytesPerValidation));
+    }
+
+    private void enableVelocity(int cardMaxPerMinute, BigDecimal cardMaxAmountPerHour) {
+        ReflectionTestUtils.setField(validationService, "velocityEnabled", true);
+        ReflectionTestUtils.setField(validationService, "cardMaxPerMinute", cardMaxPerMinute);
+        ReflectionTestUtils.setField(validationService, "cardMaxAmountPerHour", cardMaxAmountPerHour);
+        ReflectionTestUtils.setField(validationService, "cardCapacity", 1024);
+        ReflectionTestUtils.setField(validationService, "merchantMaxPerMinute", 0);
+        ReflectionTestUtils.setField(validationService, "merchantMaxAmountPerHour", BigDecimal.ZERO);
+        ReflectionTestUtils.setField(validationService, "merchantCapacity", 64);
+        validationService.compileRules();
+    }
+
+    private int validateAll(Money amount, int iterations) {
+        int valid = 0;
+        for (int i = 0; i < iterations; i++) {
+            if (validationService.validateAmount(amount, merchant).isValid()
+                    && validationService.validateCardToken("tok_4532015112830366").isValid()
+                    && validationService.validateCurrency("USD").isValid()) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    private static Money usd(String amount) {
+        return Money.of(new BigDecimal(amount), "USD");
+    }
+}
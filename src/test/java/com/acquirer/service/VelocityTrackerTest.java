@@ -0,0 +1,144 @@
+package com.acquirer.service;
+
+import com.acquirer.service.VelocityTracker.Decision;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Velocity Tracker Tests")
+class VelocityTrackerTest {
+
+    // Start of an hour, so minute and hour windows begin together
+    private static final long T0 = 1_700_002_800_000L;
+    private static final long MINUTE = 60_000;
+    private static final long HOUR = 3_600_000;
+
+    @Test
+    @DisplayName("Should reject transactions above the per-minute count")
+    void shouldRejectAbovePerMinuteCount() {
+        // Given
+        VelocityTracker tracker = new VelocityTracker(1024, 3, 0);
+        long card = VelocityTracker.hash("tok_4532015112830366");
+
+        // When / Then
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Decision.ALLOWED, tracker.tryRecord(card, 100, T0 + i));
+        }
+        assertEquals(Decision.COUNT_EXCEEDED, tracker.tryRecord(card, 100, T0 + 10));
+        assertEquals(Decision.ALLOWED, tracker.tryRecord(VelocityTracker.hash("tok_other"), 100, T0 + 10));
+    }
+
+    @Test
+    @DisplayName("Should weight the previous minute by its overlap with the sliding window")
+    void shouldSlideCountWindow() {
+        // Given 3 transactions (the limit) at the start of a minute
+        VelocityTracker tracker = new VelocityTracker(1024, 3, 0);
+        long card = VelocityTracker.hash("tok_4532015112830366");
+        for (int i = 0; i < 3; i++) {
+            tracker.tryRecord(card, 100, T0);
+        }
+
+        // When / Then - 6s into the next minute, 90% of the previous one still counts (2.7 + 1 > 3)
+        assertEquals(Decision.COUNT_EXCEEDED, tracker.tryRecord(card, 100, T0 + MINUTE + 6_000));
+        // 40s in, only a third does (1.0 + 1 <= 3)
+        assertEquals(Decision.ALLOWED, tracker.tryRecord(card, 100, T0 + MINUTE + 40_000));
+        // Two minutes later everything has expired
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Decision.ALLOWED, tracker.tryRecord(card, 100, T0 + 3 * MINUTE));
+        }
+    }
+
+    @Test
+    @DisplayName("Should take back a released transaction from its windows")
+    void shouldReleaseRecordedTransaction() {
+        // Given
+        VelocityTracker tracker = new VelocityTracker(1024, 2, 1_000_000);
+        long card = VelocityTracker.hash("tok_4532015112830366");
+        assertEquals(Decision.ALLOWED, tracker.tryRecord(card, 600_000, T0));
+        assertEquals(Decision.ALLOWED, tracker.tryRecord(card, 300_000, T0));
+
+        // When
+        tracker.release(card, 300_000, T0);
+        tracker.release(VelocityTracker.hash("tok_other"), 300_000, T0);
+
+        // Then
+        assertEquals(Decision.AMOUNT_EXCEEDED, tracker.tryRecord(card, 400_001, T0 + 1));
+        assertEquals(Decision.ALLOWED, tracker.tryRecord(card, 400_000, T0 + 1));
+        assertEquals(Decision.COUNT_EXCEEDED, tracker.tryRecord(card, 0, T0 + 2));
+    }
+
+    @Test
+    @DisplayName("Should reject transactions above the hourly amount")
+    void shouldRejectAboveHourlyAmount() {
+        // Given
+        VelocityTracker tracker = new VelocityTracker(1024, 0, 10_000);
+        long card = VelocityTracker.hash("tok_4532015112830366");
+
+        // When / Then
+        assertEquals(Decision.ALLOWED, tracker.tryRecord(card, 6_000, T0));
+        assertEquals(Decision.ALLOWED, tracker.tryRecord(card, 4_000, T0 + 20 * MINUTE));
+        assertEquals(Decision.AMOUNT_EXCEEDED, tracker.tryRecord(card, 1, T0 + 59 * MINUTE));
+        // Halfway through the next hour half of the previous amount still counts
+        assertEquals(Decision.AMOUNT_EXCEEDED, tracker.tryRecord(card, 5_001, T0 + HOUR + 30 * MINUTE));
+        assertEquals(Decision.ALLOWED, tracker.tryRecord(card, 5_000, T0 + HOUR + 30 * MINUTE));
+    }
+
+    @Test
+    @DisplayName("Should keep a fixed footprint while tracking more keys than its capacity")
+    void shouldStayBoundedUnderManyKeys() {
+        // Given
+        VelocityTracker tracker = new VelocityTracker(4096, 1, 0);
+        long footprint = tracker.getFootprintBytes();
+
+        // When - 100x more distinct cards than slots
+        for (int i = 0; i < 409_600; i++) {
+            assertEquals(Decision.ALLOWED, tracker.tryRecord(VelocityTracker.hash("tok_" + i), 100, T0 + i / 100));
+        }
+
+        // Then
+        assertEquals(4096, tracker.getCapacity());
+        assertEquals(footprint, tracker.getFootprintBytes());
+        // The most recent card is still tracked; an evicted one starts over
+        assertEquals(Decision.COUNT_EXCEEDED, tracker.tryRecord(VelocityTracker.hash("tok_409599"), 100, T0 + 4_096));
+        assertEquals(Decision.ALLOWED, tracker.tryRecord(VelocityTracker.hash("tok_0"), 100, T0 + 4_096));
+    }
+
+    @Test
+    @DisplayName("Should count exactly under concurrent checks of the same card")
+    void shouldCountExactlyUnderConcurrency() throws Exception {
+        // Given
+        int limit = 1_000;
+        VelocityTracker tracker = new VelocityTracker(1024, limit, 0);
+        long card = VelocityTracker.hash("tok_4532015112830366");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When - 8 threads try 500 transactions each within the same minute
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                int allowed = 0;
+                for (int i = 0; i < 500; i++) {
+                    if (tracker.tryRecord(card, 100, T0) == Decision.ALLOWED) {
+                        allowed++;
+                    }
+                }
+                return allowed;
+            }));
+        }
+        int allowed = 0;
+        for (Future<Integer> future : futures) {
+            allowed += future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(limit, allowed);
+    }
+}
@@ -0,0 +1,141 @@
+package com.acquirer.service;
+
+import com.acquirer.TestPayments;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.asm.ClassReader;
+import org.springframework.asm.ClassVisitor;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.SpringAsmInfo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.threads.virtual.enabled=true")
+@ActiveProfiles("test")
+@DisplayName("Virtual Thread Mode Tests")
+class VirtualThreadModeTest {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Test
+    @DisplayName("Should not pin carrier threads on the processPayment path")
+    void shouldNotPinCarrierThreads() throws Exception {
+        // Given
+        List<RecordedEvent> pinnedEvents = new CopyOnWriteArrayList<>();
+
+        // When
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", pinnedEvents::add);
+            recording.startAsync();
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                runPayments(executor, 50);
+            }
+            recording.stop();
+        }
+
+        // Then
+        assertTrue(pinnedEvents.isEmpty(), () -> "Pinned sections found: " + pinnedEvents);
+    }
+
+    @Test
+    @DisplayName("Should not synchronize on monitors on the processPayment path")
+    void shouldNotSynchronizeOnPaymentPath() throws IOException {
+        // Uncontended monitors never park, so the JFR check above cannot see them; any
+        // contended one on Java 21 blocks the carrier thread. Both synchronized methods
+        // and synchronized blocks (monitorenter in the bytecode) are checked, including
+        // in nested, anonymous and lambda code compiled into the class.
+        List<Class<?>> paymentPath = List.of(PaymentService.class, TransactionStateService.class,
+                TransactionBatchWriter.class, TransactionWriteBehind.class, PaymentOutbox.class,
+                IdempotencyService.class, ReplicaReads.class, ValidationService.class, VelocityTracker.class,
+                MerchantCache.class, MerchantStatistics.class, IssuerService.class, IssuerBulkhead.class,
+                CircuitBreaker.class, AdaptiveConcurrencyLimit.class, AuditLog.class, AuditRingBuffer.class,
+                PaymentMetrics.class, PaymentResponseCache.class, TimeOrderedIdGenerator.class);
+
+        List<String> monitors = new ArrayList<>();
+        for (Class<?> type : paymentPath) {
+            for (Path classFile : classFiles(type)) {
+                new ClassReader(Files.readAllBytes(classFile)).accept(new MonitorFinder(monitors), 0);
+            }
+        }
+        assertTrue(monitors.isEmpty(), () -> "Monitors on the payment path: " + monitors);
+    }
+
+    private static List<Path> classFiles(Class<?> type) throws IOException {
+        Path outer = Path.of(URI.create(type.getResource(type.getSimpleName() + ".class").toString()));
+        try (Stream<Path> siblings = Files.list(outer.getParent())) {
+            return siblings.filter(file -> file.getFileName().toString().equals(type.getSimpleName() + ".class")
+                    || file.getFileName().toString().startsWith(type.getSimpleName() + "$")).toList();
+        }
+    }
+
+    private static final class MonitorFinder extends ClassVisitor {
+
+        private final List<String> monitors;
+        private String className;
+
+        private MonitorFinder(List<String> monitors) {
+            super(SpringAsmInfo.ASM_VERSION);
+            this.monitors = monitors;
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName,
+                          String[] interfaces) {
+            className = name.substring(name.lastIndexOf('/') + 1);
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
+                                         String[] exceptions) {
+            String method = className + "." + name;
+            if ((access & Opcodes.ACC_SYNCHRONIZED) != 0) {
+                monitors.add(method + " (synchronized method)");
+            }
+            return new MethodVisitor(SpringAsmInfo.ASM_VERSION) {
+                @Override
+                public void visitInsn(int opcode) {
+                    if (opcode == Opcodes.MONITORENTER) {
+                        monitors.add(method + " (synchronized block)");
+                    }
+                }
+            };
+        }
+    }
+
+    private void runPayments(ExecutorService executor, int count) throws Exception {
+        List<Future<?>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            futures.add(executor.submit(() -> paymentService.processPayment(TestPayments.builder()
+                    .merchantId("MERCHANT_002")
+                    .amount(new BigDecimal("250.00"))
+                    .currency("EUR")
+                    .build())));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.acquirer.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Money Tests")
+class MoneyTest {
+
+    @Test
+    @DisplayName("Should convert exactly using the exponent of each currency")
+    void shouldConvertExactly() {
+        String[][] cases = {
+                {"100.50", "USD", "10050"},
+                {"100.5", "EUR", "10050"},
+                {"0.01", "GBP", "1"},
+                {"1234567.89", "ARS", "123456789"},
+                {"99.99", "BRL", "9999"},
+                {"5000", "JPY", "5000"},
+                {"5000.00", "JPY", "5000"},
+                {"1.234", "KWD", "1234"},
+                {"1.2345", "CLF", "12345"},
+                {"100.50", "usd", "10050"}
+        };
+        for (String[] c : cases) {
+            // When
+            Money money = Money.of(new BigDecimal(c[0]), c[1]);
+
+            // Then
+            assertEquals(Long.parseLong(c[2]), money.minorUnits(), c[0] + " " + c[1]);
+            assertEquals(c[1].toUpperCase(), money.currency());
+            assertEquals(0, new BigDecimal(c[0]).compareTo(money.toBigDecimal()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject amounts with more decimals than the currency has")
+    void shouldRejectExtraDecimals() {
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("100.501"), "USD"));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("0.001"), "EUR"));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("100.5"), "JPY"));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1.2345"), "KWD"));
+    }
+
+    @Test
+    @DisplayName("Should round only when a rounding mode is given")
+    void shouldRoundWhenAsked() {
+        assertEquals(10050, Money.of(new BigDecimal("100.505"), "USD", RoundingMode.HALF_EVEN).minorUnits());
+        assertEquals(10052, Money.of(new BigDecimal("100.515"), "USD", RoundingMode.HALF_EVEN).minorUnits());
+        assertEquals(101, Money.of(new BigDecimal("100.5"), "JPY", RoundingMode.HALF_UP).minorUnits());
+        assertEquals(-101, Money.of(new BigDecimal("-100.5"), "JPY", RoundingMode.HALF_UP).minorUnits());
+    }
+
+    @Test
+    @DisplayName("Should know the exponent of every ISO 4217 currency")
+    void shouldKnowExponents() {
+        assertEquals(2, Money.exponentOf("USD"));
+        assertEquals(0, Money.exponentOf("JPY"));
+        assertEquals(0, Money.exponentOf("CLP"));
+        assertEquals(3, Money.exponentOf("BHD"));
+        assertEquals(4, Money.exponentOf("CLF"));
+        assertEquals(-1, Money.exponentOf("XAU"));
+        assertEquals(-1, Money.exponentOf("ZZZ"));
+        assertEquals(-1, Money.exponentOf("US"));
+        assertThrows(IllegalArgumentException.class, () -> Money.ofMinor(100, "XAU"));
+    }
+
+    @Test
+    @DisplayName("Should compare and sum across exponents through scaled units")
+    void shouldUseScaledUnits() {
+        // Given
+        Money usd = Money.of(new BigDecimal("5000.00"), "USD");
+        Money jpy = Money.of(new BigDecimal("5000"), "JPY");
+        Money kwd = Money.of(new BigDecimal("5000.001"), "KWD");
+
+        // Then
+        assertEquals(Money.toScaledUnits(new BigDecimal("5000.00")), usd.scaledUnits());
+        assertEquals(usd.scaledUnits(), jpy.scaledUnits());
+        assertTrue(kwd.scaledUnits() > usd.scaledUnits());
+        assertEquals(new BigDecimal("15000.001"),
+                Money.fromScaledUnits(usd.scaledUnits() + jpy.scaledUnits() + kwd.scaledUnits()));
+        assertEquals(new BigDecimal("10.00"), Money.fromScaledUnits(100_000));
+        assertEquals(new BigDecimal("0.00"), Money.fromScaledUnits(0));
+        assertThrows(ArithmeticException.class, () -> Money.toScaledUnits(new BigDecimal("0.00001")));
+    }
+
+    @Test
+    @DisplayName("Should add and compare only amounts in the same currency")
+    void shouldRequireSameCurrency() {
+        // Given
+        Money a = Money.ofMinor(150, "USD");
+        Money b = Money.ofMinor(250, "USD");
+
+        // Then
+        assertEquals(Money.ofMinor(400, "USD"), a.plus(b));
+        assertTrue(a.compareTo(b) < 0);
+        assertEquals("1.50 USD", a.toString());
+        assertThrows(IllegalArgumentException.class, () -> a.plus(Money.ofMinor(150, "EUR")));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE, "USD").plus(a));
+    }
+}
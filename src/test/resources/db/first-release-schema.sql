@@ -0,0 +1,16 @@
+-- Schema that Hibernate (ddl-auto: update) created for the entities of the first
+-- release, before Flyway owned the schema, with a few rows of data
+create table merchants (active boolean not null, max_transaction_amount numeric(19,2), created_at timestamp(6) not null, updated_at timestamp(6), merchant_id varchar(255) not null, merchant_name varchar(255) not null, primary key (merchant_id));
+create table transactions (amount numeric(19,2) not null, card_expiry varchar(7) not null, currency varchar(3) not null, created_at timestamp(6) not null, processed_at timestamp(6), updated_at timestamp(6), response_code varchar(10), issuer_response varchar(20), status varchar(20) not null check (status in ('PENDING','APPROVED','DECLINED','ERROR')), operation_type varchar(50) not null, card_token varchar(255) not null, merchant_id varchar(255) not null, rejection_reason varchar(255), transaction_id varchar(255) not null, primary key (transaction_id));
+create index idx_merchant_id on transactions (merchant_id);
+create index idx_status on transactions (status);
+create index idx_created_at on transactions (created_at);
+create index idx_merchant_status on transactions (merchant_id, status);
+
+insert into merchants (merchant_id, merchant_name, max_transaction_amount, active, created_at, updated_at)
+values ('MERCHANT_001', 'Test Store Alpha', 5000.00, true, timestamp '2025-12-01 10:00:00', timestamp '2025-12-01 10:00:00');
+insert into transactions (transaction_id, merchant_id, amount, currency, card_token, card_expiry, operation_type, status,
+                          response_code, issuer_response, created_at, updated_at, processed_at)
+values ('550e8400-e29b-41d4-a716-446655440000', 'MERCHANT_001', 100.00, 'USD', 'tok_4532015112830366', '12/2030',
+        'PURCHASE', 'APPROVED', '00', 'APPROVED', timestamp '2025-12-01 10:05:00', timestamp '2025-12-01 10:05:01',
+        timestamp '2025-12-01 10:05:01');